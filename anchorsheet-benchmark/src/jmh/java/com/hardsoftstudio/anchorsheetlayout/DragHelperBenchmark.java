@@ -0,0 +1,89 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.components.Component;
+import ohos.agp.components.ComponentContainer;
+import ohos.multimodalinput.event.TouchEvent;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost per touch event of {@link DragHelper#processTouchEvent(TouchEvent)} while a
+ * child is dragged, moving the child on every event or once per frame of a display refreshing at
+ * half the touch rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DragHelperBenchmark {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final int START_TOP = 1000;
+    private static final int EVENTS_PER_FRAME = 2;
+
+    @Param({"false", "true"})
+    public boolean coalesced;
+
+    private Component child;
+    private DragHelper dragHelper;
+    private TouchEvent[] gesture;
+    private Runnable pendingFrame;
+
+    @Setup
+    public void setUp() {
+        ComponentContainer parent = new ComponentContainer(null);
+        parent.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        child = new Component(null);
+        child.setComponentPosition(0, START_TOP, PARENT_WIDTH, START_TOP + PARENT_HEIGHT);
+        parent.addComponent(child);
+        dragHelper = DragHelper.create(parent, new DragHelper.Callback() {
+            @Override
+            public int getViewVerticalDragRange(@NotNull Component component) {
+                return PARENT_HEIGHT;
+            }
+
+            @Override
+            public boolean tryCaptureView(@NotNull Component component, int pointerId) {
+                return true;
+            }
+
+            @Override
+            public int clampViewPositionHorizontal(@NotNull Component component, int left, int dx) {
+                return component.getLeft();
+            }
+
+            @Override
+            public int clampViewPositionVertical(@NotNull Component component, int top, int dy) {
+                return Math.min(PARENT_HEIGHT, Math.max(0, top));
+            }
+        });
+        if (coalesced) {
+            dragHelper.setFrameScheduler(frame -> pendingFrame = frame);
+        }
+        gesture = GestureStreams.drag(PARENT_WIDTH / 2f, START_TOP + 100f, -600f);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GestureStreams.DRAG_EVENTS)
+    public float drag() {
+        child.setContentPositionY(START_TOP);
+        for (int i = 0; i < gesture.length; i++) {
+            dragHelper.processTouchEvent(gesture[i]);
+            if (pendingFrame != null && i % EVENTS_PER_FRAME == EVENTS_PER_FRAME - 1) {
+                Runnable frame = pendingFrame;
+                pendingFrame = null;
+                frame.run();
+            }
+        }
+        return child.getContentPositionY();
+    }
+}
@@ -0,0 +1,67 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.GestureRecording;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.multimodalinput.event.TouchEvent;
+import ohos.utils.PacMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the replay of a recorded drag through AnchorSheetLayout, followed by the frames of the
+ * settle it starts. The drag is recorded by the layout itself and goes through the binary format
+ * once, as a fixture read from a file would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GestureReplayBenchmark {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final long FRAME_MILLIS = 16;
+
+    private AnchorSheetLayout layout;
+    private GestureRecording recording;
+    private GestureReplayer replayer;
+    private final PacMap startState = new PacMap();
+
+    @Setup
+    public void setUp() throws IOException {
+        layout = new AnchorSheetLayout(null, null);
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        DirectionalLayout child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        layout.addComponent(child);
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        FakeWindow.bind(layout);
+        layout.saveState(startState);
+
+        GestureRecording recorded = new GestureRecording();
+        layout.setGestureRecording(recorded);
+        for (TouchEvent event : GestureStreams.drag(PARENT_WIDTH / 2f, layout.getAnchorOffset() + 100f, -600f)) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+        layout.setGestureRecording(null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recorded.writeTo(out);
+        recording = GestureRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        replayer = new GestureReplayer(layout, FRAME_MILLIS);
+    }
+
+    @Benchmark
+    public float replay() {
+        layout.restoreState(startState);
+        return replayer.replay(recording).getFinalTop();
+    }
+}
@@ -0,0 +1,58 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.HitIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the scrollable child hit test done on every touch down, for sheets holding a growing
+ * number of stacked scrollables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitIndexBenchmark {
+
+    private static final int TOUCHES = 1024;
+    private static final int ROW_HEIGHT = 300;
+    private static final int WIDTH = 1080;
+
+    @Param({"4", "32", "256"})
+    public int scrollables;
+
+    private final HitIndex index = new HitIndex();
+    private final float[] xs = new float[TOUCHES];
+    private final float[] ys = new float[TOUCHES];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < scrollables; i++) {
+            index.add(i, 0, i * ROW_HEIGHT, WIDTH, i * ROW_HEIGHT + ROW_HEIGHT - 20);
+        }
+        index.build();
+        Random random = new Random(42);
+        for (int i = 0; i < TOUCHES; i++) {
+            xs[i] = random.nextInt(WIDTH);
+            ys[i] = random.nextInt(scrollables * ROW_HEIGHT);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOUCHES)
+    public int find() {
+        int sum = 0;
+        for (int i = 0; i < TOUCHES; i++) {
+            sum += index.find(xs[i], ys[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.NextDetentPolicy;
+import com.hardsoftstudio.anchorsheetlayout.core.ProjectedTargetPolicy;
+import com.hardsoftstudio.anchorsheetlayout.core.SheetModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the release decision taken in onViewReleased, with each target policy, and the settle
+ * duration computation over a fixed set of random releases.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SheetModelBenchmark {
+
+    private static final int RELEASES = 1024;
+    private static final int PARENT_HEIGHT = 2000;
+
+    @Param({"next", "projected"})
+    public String policy;
+
+    private final SheetModel model = new SheetModel();
+    private final int[] tops = new int[RELEASES];
+    private final float[] velocities = new float[RELEASES];
+    private final float[] deltas = new float[RELEASES];
+
+    @Setup
+    public void setUp() {
+        model.setPeekHeight(217);
+        model.setCanHide(true);
+        model.setParentSize(1080, PARENT_HEIGHT);
+        model.setDetentFractions(0.25f, 0.5f, 0.75f);
+        model.setTargetPolicy("projected".equals(policy) ? new ProjectedTargetPolicy() : new NextDetentPolicy());
+        Random random = new Random(42);
+        for (int i = 0; i < RELEASES; i++) {
+            tops[i] = random.nextInt(PARENT_HEIGHT);
+            velocities[i] = random.nextInt(4) == 0 ? 0f : (random.nextFloat() - 0.5f) * 6000f;
+            deltas[i] = (random.nextFloat() - 0.5f) * 40f;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RELEASES)
+    public int targetState() {
+        int sum = 0;
+        for (int i = 0; i < RELEASES; i++) {
+            sum += model.getTargetState(tops[i], velocities[i], deltas[i], SheetModel.STATE_DRAGGING);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RELEASES)
+    public int settleDuration() {
+        int sum = 0;
+        for (int i = 0; i < RELEASES; i++) {
+            sum += model.computeSettleDuration(tops[i] - model.getAnchorOffset(), (int) velocities[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.SlideBindings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the evaluation of the slide bindings for the offsets of a drag across the whole range,
+ * reported per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SlideBindingsBenchmark {
+
+    private static final int FRAMES = 256;
+
+    @Param({"4", "32"})
+    public int bindingCount;
+
+    private final SlideBindings bindings = new SlideBindings();
+    private final float[] offsets = new float[FRAMES];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < bindingCount; i++) {
+            bindings.add(i % (SlideBindings.PROPERTY_ROTATION + 1), 0f, 1f, 0f, 100f,
+                    i % (SlideBindings.CURVE_ACCELERATE_DECELERATE + 1));
+        }
+        for (int i = 0; i < FRAMES; i++) {
+            offsets[i] = -1f + 2f * i / (FRAMES - 1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public float evaluate() {
+        float sum = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            bindings.evaluate(offsets[i]);
+            sum += bindings.getValue(0);
+        }
+        return sum;
+    }
+}
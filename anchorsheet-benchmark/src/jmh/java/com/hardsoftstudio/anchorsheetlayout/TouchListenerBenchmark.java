@@ -0,0 +1,105 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.components.Attr;
+import ohos.agp.components.AttrSet;
+import ohos.agp.components.Component;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.multimodalinput.event.TouchEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.jetbrains.annotations.NotNull;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost per touch event of a drag delivered to the touch listener which
+ * AnchorSheetLayout installs on its child, including the release decision and settle start,
+ * with and without a metrics listener and with a number of callbacks which only take slides of
+ * at least a hundredth of the range.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TouchListenerBenchmark {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    @Param({"0", "4"})
+    public int callbacks;
+
+    private AnchorSheetLayout layout;
+    private DirectionalLayout child;
+    private TouchEvent[] gesture;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        layout = new AnchorSheetLayout(null, new EmptyAttrSet());
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        layout.addComponent(child);
+        FakeWindow.bind(layout);
+        if (metrics) {
+            layout.setSheetMetricsListener((bottomSheet, gestureMetrics) -> { });
+        }
+        for (int i = 0; i < callbacks; i++) {
+            layout.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+                @Override
+                public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                    blackhole.consume(newState);
+                }
+
+                @Override
+                public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                    blackhole.consume(slideOffset);
+                }
+            }, 0.01f, 0);
+        }
+        gesture = GestureStreams.drag(PARENT_WIDTH / 2f, layout.getAnchorOffset() + 100f, -600f);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GestureStreams.DRAG_EVENTS)
+    public float drag() {
+        child.setContentPositionY(layout.getAnchorOffset());
+        for (TouchEvent event : gesture) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+        return child.getContentPositionY();
+    }
+
+    private static final class EmptyAttrSet implements AttrSet {
+        @Override
+        public Optional<String> getStyle() {
+            return Optional.empty();
+        }
+
+        @Override
+        public int getLength() {
+            return 0;
+        }
+
+        @Override
+        public Optional<Attr> getAttr(int index) {
+            return Optional.empty();
+        }
+
+        @Override
+        public Optional<Attr> getAttr(String name) {
+            return Optional.empty();
+        }
+    }
+}
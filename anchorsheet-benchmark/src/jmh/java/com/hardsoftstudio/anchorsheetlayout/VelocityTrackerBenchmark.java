@@ -0,0 +1,54 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.VelocityTracker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a whole gesture of the velocity tracker: the samples of a drag at the given touch rate
+ * followed by the estimate taken at the release, reported per sample.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VelocityTrackerBenchmark {
+
+    private static final int SAMPLES = 64;
+
+    @Param({"120", "240"})
+    public int sampleRateHz;
+
+    private final VelocityTracker tracker = new VelocityTracker();
+    private final long[] times = new long[SAMPLES];
+    private final float[] ys = new float[SAMPLES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            times[i] = i * 1000L / sampleRateHz;
+            // 1500 px/s with a pixel of noise
+            ys[i] = 1800f - 1.5f * times[i] + random.nextFloat();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public float gesture() {
+        tracker.clear();
+        for (int i = 0; i < SAMPLES; i++) {
+            tracker.addSample(times[i], 540f, ys[i]);
+        }
+        tracker.computeVelocity();
+        return tracker.getYVelocity();
+    }
+}
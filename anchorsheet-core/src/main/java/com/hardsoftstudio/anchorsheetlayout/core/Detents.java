@@ -0,0 +1,123 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.util.Arrays;
+
+/**
+ * Detents is the sorted set of tops at which the sheet can rest, from the highest (smallest top)
+ * to the lowest. Lookups of the nearest detent and of the next one in a direction are binary
+ * searches, so the number of detents does not matter for the release decision.
+ */
+public class Detents {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int[] tops = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Removes all the detents.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a detent, keeping the detents sorted. Adding an existing top has no effect.
+     *
+     * @param top Top of the sheet at the detent
+     */
+    public void add(int top) {
+        int index = Arrays.binarySearch(tops, 0, size, top);
+        if (index >= 0) {
+            return;
+        }
+        index = -index - 1;
+        if (size == tops.length) {
+            tops = Arrays.copyOf(tops, size * 2);
+        }
+        System.arraycopy(tops, index, tops, index + 1, size - index);
+        tops[index] = top;
+        size++;
+    }
+
+    /**
+     * Returns the number of detents.
+     *
+     * @return count of detents
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the top of a detent.
+     *
+     * @param index Index of the detent, 0 being the highest
+     * @return top of the sheet in pixels
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Detent " + index + " of " + size);
+        }
+        return tops[index];
+    }
+
+    /**
+     * Finds the detent at exactly the given top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or -1 if no detent is there
+     */
+    public int indexOf(int top) {
+        int index = Arrays.binarySearch(tops, 0, size, top);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Finds the detent nearest to the given top. On a tie the lower detent wins.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or -1 if there are no detents
+     */
+    public int nearest(int top) {
+        if (size == 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(tops, 0, size, top);
+        if (index >= 0) {
+            return index;
+        }
+        // first detent below the top
+        int below = -index - 1;
+        if (below == size) {
+            return size - 1;
+        }
+        if (below == 0) {
+            return 0;
+        }
+        return (long) top - tops[below - 1] < (long) tops[below] - top ? below - 1 : below;
+    }
+
+    /**
+     * Finds the nearest detent strictly above the given top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or -1 if none is above
+     */
+    public int above(int top) {
+        int index = Arrays.binarySearch(tops, 0, size, top);
+        return (index >= 0 ? index : -index - 1) - 1;
+    }
+
+    /**
+     * Finds the nearest detent strictly below the given top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or -1 if none is below
+     */
+    public int below(int top) {
+        int index = Arrays.binarySearch(tops, 0, size, top);
+        index = index >= 0 ? index + 1 : -index - 1;
+        return index < size ? index : -1;
+    }
+}
@@ -0,0 +1,249 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * GestureMetrics accumulates the work done by the sheet during one gesture: from the pointer
+ * down, or a programmatic state change, until the sheet rests again. A single instance is reset
+ * and reused for every gesture, so readers must copy the values they want to keep.
+ */
+public class GestureMetrics {
+
+    /**
+     * Frame budget of a 60 Hz display, in nanoseconds.
+     */
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 16_666_667L;
+
+    private final long frameBudgetNanos;
+
+    private int touchEventCount;
+    private long touchNanos;
+    private int slideDispatchCount;
+    private int stateDispatchCount;
+    private long callbackNanos;
+
+    private boolean hasSettle;
+    private boolean settling;
+    private boolean settleCompleted;
+    private long plannedSettleMillis;
+    private long settleStartNanos;
+    private long settleNanos;
+    private long lastFrameNanos;
+    private int settleFrameCount;
+    private int framesOverBudget;
+
+    /**
+     * Creates metrics which count the settle frames longer than the given budget.
+     *
+     * @param frameBudgetNanos Longest acceptable interval between two frames, in nanoseconds
+     */
+    public GestureMetrics(long frameBudgetNanos) {
+        if (frameBudgetNanos <= 0) {
+            throw new IllegalArgumentException("Frame budget must be positive: " + frameBudgetNanos);
+        }
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    /**
+     * Clears the values for a new gesture.
+     */
+    public void reset() {
+        touchEventCount = 0;
+        touchNanos = 0;
+        slideDispatchCount = 0;
+        stateDispatchCount = 0;
+        callbackNanos = 0;
+        hasSettle = false;
+        settling = false;
+        settleCompleted = false;
+        plannedSettleMillis = 0;
+        settleStartNanos = 0;
+        settleNanos = 0;
+        lastFrameNanos = 0;
+        settleFrameCount = 0;
+        framesOverBudget = 0;
+    }
+
+    /**
+     * Records a touch event processed by the drag helper.
+     *
+     * @param nanos Time spent processing the event, callbacks included
+     */
+    public void recordTouchEvent(long nanos) {
+        touchEventCount++;
+        touchNanos += nanos;
+    }
+
+    /**
+     * Records a dispatch of onSlide to the sheet callbacks.
+     *
+     * @param delivered Number of callbacks which received the slide, filtered ones excluded
+     * @param nanos     Time spent inside the callbacks
+     */
+    public void recordSlideDispatch(int delivered, long nanos) {
+        slideDispatchCount += delivered;
+        callbackNanos += nanos;
+    }
+
+    /**
+     * Records a dispatch of onStateChanged to the sheet callback.
+     *
+     * @param nanos Time spent inside the callback
+     */
+    public void recordStateDispatch(long nanos) {
+        stateDispatchCount++;
+        callbackNanos += nanos;
+    }
+
+    /**
+     * Records the start of a settle. A settle which is still running is ended first.
+     *
+     * @param plannedMillis Planned duration of the settle
+     * @param nowNanos      Current time in nanoseconds
+     */
+    public void startSettle(long plannedMillis, long nowNanos) {
+        endSettle(nowNanos, false);
+        hasSettle = true;
+        settling = true;
+        plannedSettleMillis += plannedMillis;
+        settleStartNanos = nowNanos;
+        lastFrameNanos = nowNanos;
+    }
+
+    /**
+     * Records a settle frame and checks the interval since the previous one against the budget.
+     *
+     * @param nowNanos Current time in nanoseconds
+     */
+    public void recordSettleFrame(long nowNanos) {
+        if (!settling) {
+            return;
+        }
+        settleFrameCount++;
+        if (nowNanos - lastFrameNanos > frameBudgetNanos) {
+            framesOverBudget++;
+        }
+        lastFrameNanos = nowNanos;
+    }
+
+    /**
+     * Records the end of the running settle, if any.
+     *
+     * @param nowNanos  Current time in nanoseconds
+     * @param completed Whether the sheet reached its target, false when the settle was interrupted
+     */
+    public void endSettle(long nowNanos, boolean completed) {
+        if (!settling) {
+            return;
+        }
+        settling = false;
+        settleCompleted = completed;
+        settleNanos += nowNanos - settleStartNanos;
+    }
+
+    /**
+     * Returns the longest acceptable interval between two frames.
+     *
+     * @return frame budget in nanoseconds
+     */
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    /**
+     * Returns the number of touch events processed by the drag helper.
+     *
+     * @return count of touch events
+     */
+    public int getTouchEventCount() {
+        return touchEventCount;
+    }
+
+    /**
+     * Returns the time spent processing touch events, callbacks included.
+     *
+     * @return time in nanoseconds
+     */
+    public long getTouchNanos() {
+        return touchNanos;
+    }
+
+    /**
+     * Returns the number of onSlide calls received by the callbacks.
+     *
+     * @return count of onSlide calls
+     */
+    public int getSlideDispatchCount() {
+        return slideDispatchCount;
+    }
+
+    /**
+     * Returns the number of onStateChanged dispatches.
+     *
+     * @return count of onStateChanged calls
+     */
+    public int getStateDispatchCount() {
+        return stateDispatchCount;
+    }
+
+    /**
+     * Returns the time spent inside the sheet callback.
+     *
+     * @return time in nanoseconds
+     */
+    public long getCallbackNanos() {
+        return callbackNanos;
+    }
+
+    /**
+     * Returns whether the sheet settled during the gesture.
+     *
+     * @return true if a settle was started
+     */
+    public boolean hasSettle() {
+        return hasSettle;
+    }
+
+    /**
+     * Returns whether the last settle reached its target rather than being interrupted.
+     *
+     * @return true if the settle completed
+     */
+    public boolean isSettleCompleted() {
+        return settleCompleted;
+    }
+
+    /**
+     * Returns the planned duration of the settles of the gesture.
+     *
+     * @return duration in milliseconds
+     */
+    public long getPlannedSettleMillis() {
+        return plannedSettleMillis;
+    }
+
+    /**
+     * Returns the measured duration of the settles of the gesture.
+     *
+     * @return duration in milliseconds
+     */
+    public float getActualSettleMillis() {
+        return settleNanos / 1_000_000f;
+    }
+
+    /**
+     * Returns the number of settle frames.
+     *
+     * @return count of frames
+     */
+    public int getSettleFrameCount() {
+        return settleFrameCount;
+    }
+
+    /**
+     * Returns the number of settle frames which came later than the frame budget.
+     *
+     * @return count of late frames
+     */
+    public int getFramesOverBudget() {
+        return framesOverBudget;
+    }
+}
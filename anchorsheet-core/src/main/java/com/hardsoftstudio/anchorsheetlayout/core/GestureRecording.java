@@ -0,0 +1,328 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * GestureRecording holds a stream of touch events: the action, the time and the position of every
+ * pointer, in the coordinates of the touched component, with the offset of that component on the
+ * screen. Events are kept in flat primitive arrays, so recording does not allocate once the arrays
+ * have grown, and are written in a compact binary format: a header, then for each event its
+ * action, the time since the previous event as a variable-length integer, the screen offset and
+ * the pointers, whose ids are variable-length integers too.
+ */
+public class GestureRecording {
+
+    // "ASGR", first bytes of every recording
+    private static final int MAGIC = 0x41534752;
+    private static final int VERSION = 2;
+
+    // first version, which wrote pointer ids as single unsigned bytes
+    private static final int VERSION_BYTE_IDS = 1;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int size;
+    private int pointerSize;
+
+    // events
+    private int[] actions = new int[INITIAL_CAPACITY];
+    private int[] actionIndexes = new int[INITIAL_CAPACITY];
+    private long[] times = new long[INITIAL_CAPACITY];
+    private float[] offsetXs = new float[INITIAL_CAPACITY];
+    private float[] offsetYs = new float[INITIAL_CAPACITY];
+    // position of the first pointer of each event in the pointer arrays
+    private int[] pointerStarts = new int[INITIAL_CAPACITY + 1];
+
+    // pointers of every event, in order
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private float[] xs = new float[INITIAL_CAPACITY];
+    private float[] ys = new float[INITIAL_CAPACITY];
+
+    /**
+     * Appends an event, whose pointers are then appended with {@link #addPointer(int, float, float)}.
+     *
+     * @param action      Action of the event
+     * @param actionIndex Index of the pointer which caused the action
+     * @param timeMillis  Time of the event in milliseconds
+     * @param offsetX     X position of the touched component on the screen
+     * @param offsetY     Y position of the touched component on the screen
+     */
+    public void addEvent(int action, int actionIndex, long timeMillis, float offsetX, float offsetY) {
+        if (size == actions.length) {
+            growEvents();
+        }
+        actions[size] = action;
+        actionIndexes[size] = actionIndex;
+        times[size] = timeMillis;
+        offsetXs[size] = offsetX;
+        offsetYs[size] = offsetY;
+        pointerStarts[size] = pointerSize;
+        size++;
+        pointerStarts[size] = pointerSize;
+    }
+
+    /**
+     * Appends a pointer to the last event.
+     *
+     * @param id Id of the pointer
+     * @param x  X coordinate in the touched component
+     * @param y  Y coordinate in the touched component
+     */
+    public void addPointer(int id, float x, float y) {
+        if (size == 0) {
+            throw new IllegalStateException("No event to add the pointer to");
+        }
+        if (pointerSize == ids.length) {
+            growPointers();
+        }
+        ids[pointerSize] = id;
+        xs[pointerSize] = x;
+        ys[pointerSize] = y;
+        pointerSize++;
+        pointerStarts[size] = pointerSize;
+    }
+
+    /**
+     * Removes all the events.
+     */
+    public void clear() {
+        size = 0;
+        pointerSize = 0;
+    }
+
+    /**
+     * Returns the number of events.
+     *
+     * @return count of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the action of an event.
+     *
+     * @param event Index of the event
+     * @return the action
+     */
+    public int getAction(int event) {
+        return actions[checkEvent(event)];
+    }
+
+    /**
+     * Returns the index of the pointer which caused the action of an event.
+     *
+     * @param event Index of the event
+     * @return index of the pointer in the event
+     */
+    public int getActionIndex(int event) {
+        return actionIndexes[checkEvent(event)];
+    }
+
+    /**
+     * Returns the time of an event.
+     *
+     * @param event Index of the event
+     * @return time in milliseconds
+     */
+    public long getTime(int event) {
+        return times[checkEvent(event)];
+    }
+
+    /**
+     * Returns the X position on the screen of the component which received an event.
+     *
+     * @param event Index of the event
+     * @return offset to add to the pointer X coordinates
+     */
+    public float getOffsetX(int event) {
+        return offsetXs[checkEvent(event)];
+    }
+
+    /**
+     * Returns the Y position on the screen of the component which received an event.
+     *
+     * @param event Index of the event
+     * @return offset to add to the pointer Y coordinates
+     */
+    public float getOffsetY(int event) {
+        return offsetYs[checkEvent(event)];
+    }
+
+    /**
+     * Returns the number of pointers of an event.
+     *
+     * @param event Index of the event
+     * @return count of pointers
+     */
+    public int getPointerCount(int event) {
+        checkEvent(event);
+        return pointerStarts[event + 1] - pointerStarts[event];
+    }
+
+    /**
+     * Returns the id of a pointer of an event.
+     *
+     * @param event   Index of the event
+     * @param pointer Index of the pointer in the event
+     * @return id of the pointer
+     */
+    public int getPointerId(int event, int pointer) {
+        return ids[checkPointer(event, pointer)];
+    }
+
+    /**
+     * Returns the X coordinate of a pointer of an event.
+     *
+     * @param event   Index of the event
+     * @param pointer Index of the pointer in the event
+     * @return X coordinate in the touched component
+     */
+    public float getX(int event, int pointer) {
+        return xs[checkPointer(event, pointer)];
+    }
+
+    /**
+     * Returns the Y coordinate of a pointer of an event.
+     *
+     * @param event   Index of the event
+     * @param pointer Index of the pointer in the event
+     * @return Y coordinate in the touched component
+     */
+    public float getY(int event, int pointer) {
+        return ys[checkPointer(event, pointer)];
+    }
+
+    /**
+     * Writes the events in the binary format.
+     *
+     * @param out Stream to write to, left open
+     * @throws IOException if the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        writeVarLong(data, size);
+        long previousTime = 0;
+        for (int i = 0; i < size; i++) {
+            data.writeByte(actions[i]);
+            data.writeByte(actionIndexes[i]);
+            writeVarLong(data, zigZag(times[i] - previousTime));
+            previousTime = times[i];
+            data.writeFloat(offsetXs[i]);
+            data.writeFloat(offsetYs[i]);
+            data.writeByte(pointerStarts[i + 1] - pointerStarts[i]);
+            for (int p = pointerStarts[i]; p < pointerStarts[i + 1]; p++) {
+                writeVarLong(data, zigZag(ids[p]));
+                data.writeFloat(xs[p]);
+                data.writeFloat(ys[p]);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads events written by {@link #writeTo(OutputStream)}, or by the first version of the format.
+     *
+     * @param in Stream to read from, left open
+     * @return the recording
+     * @throws IOException if the stream fails or does not hold a recording
+     */
+    public static GestureRecording readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a gesture recording");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION && version != VERSION_BYTE_IDS) {
+            throw new IOException("Unsupported gesture recording version: " + version);
+        }
+        long count = readVarLong(data);
+        GestureRecording recording = new GestureRecording();
+        long time = 0;
+        for (long i = 0; i < count; i++) {
+            int action = data.readUnsignedByte();
+            int actionIndex = data.readUnsignedByte();
+            time += unZigZag(readVarLong(data));
+            recording.addEvent(action, actionIndex, time, data.readFloat(), data.readFloat());
+            int pointers = data.readUnsignedByte();
+            for (int p = 0; p < pointers; p++) {
+                int id = version == VERSION_BYTE_IDS
+                        ? data.readUnsignedByte() : (int) unZigZag(readVarLong(data));
+                recording.addPointer(id, data.readFloat(), data.readFloat());
+            }
+        }
+        return recording;
+    }
+
+    // validates the index of an event
+    private int checkEvent(int event) {
+        if (event < 0 || event >= size) {
+            throw new IndexOutOfBoundsException("Event " + event + " of " + size);
+        }
+        return event;
+    }
+
+    // returns the position of a pointer of an event in the pointer arrays
+    private int checkPointer(int event, int pointer) {
+        int count = getPointerCount(event);
+        if (pointer < 0 || pointer >= count) {
+            throw new IndexOutOfBoundsException("Pointer " + pointer + " of " + count);
+        }
+        return pointerStarts[event] + pointer;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // writes 7 bits per byte, the high bit set on every byte but the last
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed gesture recording");
+    }
+
+    // doubles the capacity of the event arrays
+    private void growEvents() {
+        int capacity = actions.length * 2;
+        actions = Arrays.copyOf(actions, capacity);
+        actionIndexes = Arrays.copyOf(actionIndexes, capacity);
+        times = Arrays.copyOf(times, capacity);
+        offsetXs = Arrays.copyOf(offsetXs, capacity);
+        offsetYs = Arrays.copyOf(offsetYs, capacity);
+        pointerStarts = Arrays.copyOf(pointerStarts, capacity + 1);
+    }
+
+    // doubles the capacity of the pointer arrays
+    private void growPointers() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+    }
+}
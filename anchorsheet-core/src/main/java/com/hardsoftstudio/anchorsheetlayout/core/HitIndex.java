@@ -0,0 +1,140 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.util.Arrays;
+
+/**
+ * HitIndex finds which of a set of rectangles contains a point. The rectangles are kept in flat
+ * arrays sorted by their top edge together with the running maximum of their bottom edge, so a
+ * lookup is a binary search followed by a backward scan which stops as soon as no earlier
+ * rectangle can reach the point. For rectangles stacked vertically, as the scrollable children of
+ * a sheet usually are, this is O(log n). The index is rebuilt in place and does not allocate once
+ * its arrays have grown to the number of rectangles.
+ */
+public class HitIndex {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int size;
+
+    // rectangles in the order they were added
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] lefts = new int[INITIAL_CAPACITY];
+    private int[] tops = new int[INITIAL_CAPACITY];
+    private int[] rights = new int[INITIAL_CAPACITY];
+    private int[] bottoms = new int[INITIAL_CAPACITY];
+
+    // sort keys, the top edge in the high bits and the insertion position in the low bits
+    private long[] order = new long[INITIAL_CAPACITY];
+
+    // rectangles sorted by top, and the largest bottom among the rectangles up to each position
+    private int[] sortedTops = new int[INITIAL_CAPACITY];
+    private int[] sortedPositions = new int[INITIAL_CAPACITY];
+    private int[] maxBottoms = new int[INITIAL_CAPACITY];
+
+    private boolean built = true;
+
+    /**
+     * Removes all the rectangles.
+     */
+    public void clear() {
+        size = 0;
+        built = true;
+    }
+
+    /**
+     * Adds a rectangle. The index must be built again before the next lookup.
+     *
+     * @param id     Value returned by {@link #find(float, float)} when the rectangle is hit
+     * @param left   Left edge
+     * @param top    Top edge
+     * @param right  Right edge
+     * @param bottom Bottom edge
+     */
+    public void add(int id, int left, int top, int right, int bottom) {
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        lefts[size] = left;
+        tops[size] = top;
+        rights[size] = right;
+        bottoms[size] = bottom;
+        size++;
+        built = false;
+    }
+
+    /**
+     * Sorts the rectangles for lookups.
+     */
+    public void build() {
+        for (int i = 0; i < size; i++) {
+            order[i] = ((long) tops[i] << 32) | i;
+        }
+        Arrays.sort(order, 0, size);
+        int maxBottom = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            int position = (int) order[i];
+            sortedPositions[i] = position;
+            sortedTops[i] = tops[position];
+            maxBottom = Math.max(maxBottom, bottoms[position]);
+            maxBottoms[i] = maxBottom;
+        }
+        built = true;
+    }
+
+    /**
+     * Returns the number of rectangles.
+     *
+     * @return count of rectangles
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds a rectangle containing the point, edges included. When several do, the one with the
+     * lowest top edge wins.
+     *
+     * @param x X coordinate of the point
+     * @param y Y coordinate of the point
+     * @return id of the rectangle, or -1 if none contains the point
+     * @throws IllegalStateException if rectangles were added since the last {@link #build()}
+     */
+    public int find(float x, float y) {
+        if (!built) {
+            throw new IllegalStateException("HitIndex must be built before lookups");
+        }
+        // last rectangle whose top is above or at y
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (sortedTops[middle] <= y) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        for (int i = high; i >= 0 && maxBottoms[i] >= y; i--) {
+            int position = sortedPositions[i];
+            if (lefts[position] <= x && rights[position] >= x && bottoms[position] >= y) {
+                return ids[position];
+            }
+        }
+        return -1;
+    }
+
+    // doubles the capacity of every array
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        lefts = Arrays.copyOf(lefts, capacity);
+        tops = Arrays.copyOf(tops, capacity);
+        rights = Arrays.copyOf(rights, capacity);
+        bottoms = Arrays.copyOf(bottoms, capacity);
+        order = Arrays.copyOf(order, capacity);
+        sortedTops = Arrays.copyOf(sortedTops, capacity);
+        sortedPositions = Arrays.copyOf(sortedPositions, capacity);
+        maxBottoms = Arrays.copyOf(maxBottoms, capacity);
+    }
+}
@@ -0,0 +1,28 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * NextDetentPolicy is the default target policy. Without velocity the sheet goes to the nearest
+ * detent, otherwise to the next detent in the direction of the pointer, or hides when moving down
+ * past the collapsed detent. A fling thus never skips a detent. When the last move of the pointer
+ * was not vertical, the direction of the velocity is used instead.
+ */
+public class NextDetentPolicy implements TargetPolicy {
+
+    @Override
+    public int selectDetent(SheetModel model, int currentTop, float yvel, float dy) {
+        if (yvel == 0.f) { // velocity is zero
+            return model.getDetentForTop(currentTop);
+        }
+        // a horizontal or clamped last move has no offset, the fling still has a direction
+        float direction = dy != 0.f ? dy : yvel;
+        if (direction < 0) { // moving up
+            return Math.max(0, model.getDetentAbove(currentTop));
+        } else { // moving down
+            if ((model.isCanHide() && model.shouldHide(currentTop, yvel)) || model.getSkipCollapsed()) {
+                return SheetModel.DETENT_HIDDEN;
+            }
+            int below = model.getDetentBelow(currentTop);
+            return below < 0 ? model.getDetentCount() - 1 : below;
+        }
+    }
+}
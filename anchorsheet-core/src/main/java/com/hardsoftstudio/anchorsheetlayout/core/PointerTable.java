@@ -0,0 +1,179 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * PointerTable keeps the initial and last positions of the pointers which are down, in a fixed
+ * number of slots. Pointer ids are mapped to slots by a linear scan, which is the fastest lookup
+ * for the handful of fingers on a screen, so any id value works and nothing is allocated after
+ * construction. Removing a pointer moves the last slot into its place; callers look slots up by
+ * id for every event rather than keeping them.
+ */
+public class PointerTable {
+
+    /**
+     * Number of pointers tracked by default, enough for ten fingers.
+     */
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private int size;
+
+    // pointer id and positions of each slot
+    private final int[] ids;
+    private final float[] initialX;
+    private final float[] initialY;
+    private final float[] lastX;
+    private final float[] lastY;
+
+    /**
+     * Creates a table for the given number of simultaneous pointers.
+     *
+     * @param capacity Largest number of pointers tracked at once
+     */
+    public PointerTable(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        ids = new int[capacity];
+        initialX = new float[capacity];
+        initialY = new float[capacity];
+        lastX = new float[capacity];
+        lastY = new float[capacity];
+    }
+
+    /**
+     * Removes all the pointers.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Records a pointer going down at the given position. A pointer which is already tracked is
+     * restarted at the position.
+     *
+     * @param id Pointer id
+     * @param x  X coordinate of the pointer
+     * @param y  Y coordinate of the pointer
+     * @return slot of the pointer, or -1 if the table is full
+     */
+    public int put(int id, float x, float y) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            if (size == ids.length) {
+                return -1;
+            }
+            slot = size++;
+            ids[slot] = id;
+        }
+        initialX[slot] = x;
+        initialY[slot] = y;
+        lastX[slot] = x;
+        lastY[slot] = y;
+        return slot;
+    }
+
+    /**
+     * Removes a pointer.
+     *
+     * @param id Pointer id
+     * @return true if the pointer was tracked
+     */
+    public boolean remove(int id) {
+        int slot = slotOf(id);
+        if (slot < 0) {
+            return false;
+        }
+        int last = --size;
+        ids[slot] = ids[last];
+        initialX[slot] = initialX[last];
+        initialY[slot] = initialY[last];
+        lastX[slot] = lastX[last];
+        lastY[slot] = lastY[last];
+        return true;
+    }
+
+    /**
+     * Finds the slot of a pointer.
+     *
+     * @param id Pointer id
+     * @return slot of the pointer, or -1 if it is not down
+     */
+    public int slotOf(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of pointers down.
+     *
+     * @return count of pointers
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the id of the pointer in a slot.
+     *
+     * @param slot Slot, below {@link #size()}
+     * @return pointer id
+     */
+    public int getId(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Updates the last position of the pointer in a slot.
+     *
+     * @param slot Slot, below {@link #size()}
+     * @param x    X coordinate of the pointer
+     * @param y    Y coordinate of the pointer
+     */
+    public void setLast(int slot, float x, float y) {
+        lastX[slot] = x;
+        lastY[slot] = y;
+    }
+
+    /**
+     * Returns the X coordinate where the pointer in a slot went down.
+     *
+     * @param slot Slot, below {@link #size()}
+     * @return initial X coordinate
+     */
+    public float getInitialX(int slot) {
+        return initialX[slot];
+    }
+
+    /**
+     * Returns the Y coordinate where the pointer in a slot went down.
+     *
+     * @param slot Slot, below {@link #size()}
+     * @return initial Y coordinate
+     */
+    public float getInitialY(int slot) {
+        return initialY[slot];
+    }
+
+    /**
+     * Returns the last X coordinate of the pointer in a slot.
+     *
+     * @param slot Slot, below {@link #size()}
+     * @return last X coordinate
+     */
+    public float getLastX(int slot) {
+        return lastX[slot];
+    }
+
+    /**
+     * Returns the last Y coordinate of the pointer in a slot.
+     *
+     * @param slot Slot, below {@link #size()}
+     * @return last Y coordinate
+     */
+    public float getLastY(int slot) {
+        return lastY[slot];
+    }
+}
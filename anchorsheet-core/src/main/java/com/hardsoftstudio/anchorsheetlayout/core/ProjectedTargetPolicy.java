@@ -0,0 +1,66 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * ProjectedTargetPolicy projects where the sheet would come to rest if it went on moving with the
+ * release velocity under exponential decay, and settles at the detent nearest to that position.
+ * A strong fling therefore skips the intermediate detents, and a slow release past the middle of
+ * two detents carries on instead of snapping back. The sheet hides when the projection passes the
+ * middle of the collapsed and hidden positions.
+ */
+public class ProjectedTargetPolicy implements TargetPolicy {
+
+    /**
+     * Default decay rate in 1/s: a release at 3000 pixels per second travels 500 pixels.
+     */
+    public static final float DEFAULT_DECAY_RATE = 6f;
+
+    // 1 / decay rate, in seconds: the distance travelled for each pixel per second of velocity
+    private final float projectionTime;
+
+    /**
+     * Creates the policy with the default decay rate.
+     */
+    public ProjectedTargetPolicy() {
+        this(DEFAULT_DECAY_RATE);
+    }
+
+    /**
+     * Creates the policy.
+     *
+     * @param decayRate Rate in 1/s at which the velocity decays; higher rates project shorter
+     */
+    public ProjectedTargetPolicy(float decayRate) {
+        if (!(decayRate > 0)) {
+            throw new IllegalArgumentException("Illegal decay rate: " + decayRate);
+        }
+        this.projectionTime = 1f / decayRate;
+    }
+
+    /**
+     * Returns where the sheet would rest without detents.
+     *
+     * @param currentTop Top of the sheet when released
+     * @param yvel       Y velocity of the release in pixels per second
+     * @return projected top in pixels
+     */
+    public float project(int currentTop, float yvel) {
+        return currentTop + yvel * projectionTime;
+    }
+
+    @Override
+    public int selectDetent(SheetModel model, int currentTop, float yvel, float dy) {
+        if (yvel == 0.f && dy == 0.f) { // just a click
+            return model.getDetentAt(currentTop);
+        }
+        float projected = project(currentTop, yvel);
+        int collapsedTop = model.getMaxOffset();
+        if (model.isCanHide() && projected > collapsedTop + (model.getParentHeight() - collapsedTop) / 2f) {
+            return SheetModel.DETENT_HIDDEN;
+        }
+        int detent = model.getDetentForTop(Math.round(projected));
+        if (detent == model.getDetentCount() - 1 && model.getSkipCollapsed() && yvel > 0) {
+            return SheetModel.DETENT_HIDDEN;
+        }
+        return detent;
+    }
+}
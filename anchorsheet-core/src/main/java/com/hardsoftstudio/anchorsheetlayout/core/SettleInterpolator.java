@@ -0,0 +1,181 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * SettleInterpolator maps the elapsed fraction of a settle to the fraction of the distance
+ * travelled. The curve is sampled into a lookup table once, when the interpolator is created, so
+ * evaluating a frame is two array reads and a linear interpolation between them, whatever the
+ * curve. Instances are immutable and can be shared by any number of sheets.
+ */
+public final class SettleInterpolator {
+
+    /**
+     * Number of segments of the lookup tables.
+     */
+    public static final int SAMPLES = 256;
+
+    /**
+     * Tension of {@link #OVERSHOOT}.
+     */
+    public static final float DEFAULT_OVERSHOOT_TENSION = 2f;
+
+    /**
+     * Constant speed.
+     */
+    public static final SettleInterpolator LINEAR = tabulate(t -> t);
+
+    /**
+     * Accelerates quickly and decelerates slowly, the standard curve of material motion.
+     */
+    public static final SettleInterpolator FAST_OUT_SLOW_IN = cubicBezier(0.4f, 0f, 0.2f, 1f);
+
+    /**
+     * Starts at full speed and decelerates to rest.
+     */
+    public static final SettleInterpolator DECELERATE = tabulate(t -> 1.0 - (1.0 - t) * (1.0 - t));
+
+    /**
+     * Passes the target, then comes back to it.
+     */
+    public static final SettleInterpolator OVERSHOOT = overshoot(DEFAULT_OVERSHOOT_TENSION);
+
+    // Iterations of Newton's method when inverting the X of a Bezier curve
+    private static final int NEWTON_ITERATIONS = 8;
+
+    // Precision, in fractions, of the inverted X of a Bezier curve
+    private static final double BEZIER_EPSILON = 1e-7;
+
+    // Values of the curve at i / SAMPLES
+    private final float[] table;
+
+    private SettleInterpolator(float[] table) {
+        this.table = table;
+    }
+
+    /**
+     * Samples a curve over [0, 1] into an interpolator.
+     *
+     * @param curve Fraction of the distance for each elapsed fraction, 0 at 0 and 1 at 1
+     * @return the interpolator
+     */
+    public static SettleInterpolator tabulate(DoubleUnaryOperator curve) {
+        float[] table = new float[SAMPLES + 1];
+        for (int i = 0; i <= SAMPLES; i++) {
+            table[i] = (float) curve.applyAsDouble((double) i / SAMPLES);
+        }
+        return new SettleInterpolator(table);
+    }
+
+    /**
+     * Creates the interpolator of a cubic Bezier curve from (0, 0) to (1, 1), as in CSS.
+     *
+     * @param x1 X of the first control point, in [0, 1]
+     * @param y1 Y of the first control point
+     * @param x2 X of the second control point, in [0, 1]
+     * @param y2 Y of the second control point
+     * @return the interpolator
+     */
+    public static SettleInterpolator cubicBezier(float x1, float y1, float x2, float y2) {
+        if (x1 < 0f || x1 > 1f || x2 < 0f || x2 > 1f) {
+            throw new IllegalArgumentException("Control points must have X in [0, 1]: " + x1 + ", " + x2);
+        }
+        return tabulate(x -> bezier(solveBezierX(x, x1, x2), y1, y2));
+    }
+
+    /**
+     * Creates an interpolator which passes the target, then comes back to it.
+     *
+     * @param tension Amount of overshoot, 0 for none
+     * @return the interpolator
+     */
+    public static SettleInterpolator overshoot(float tension) {
+        if (tension < 0f) {
+            throw new IllegalArgumentException("Overshoot tension must not be negative: " + tension);
+        }
+        return tabulate(t -> {
+            double s = t - 1.0;
+            return s * s * ((tension + 1.0) * s + tension) + 1.0;
+        });
+    }
+
+    /**
+     * Returns the fraction of the distance travelled after a fraction of the duration.
+     *
+     * @param fraction Elapsed fraction of the duration, clamped to [0, 1]
+     * @return fraction of the distance
+     */
+    public float getInterpolation(float fraction) {
+        if (fraction <= 0f) {
+            return table[0];
+        }
+        if (fraction >= 1f) {
+            return table[SAMPLES];
+        }
+        float position = fraction * SAMPLES;
+        int index = (int) position;
+        float start = table[index];
+        return start + (table[index + 1] - start) * (position - index);
+    }
+
+    /**
+     * Returns the slope of the curve after a fraction of the duration: the fractions of the
+     * distance travelled per fraction of the duration.
+     *
+     * @param fraction Elapsed fraction of the duration, clamped to [0, 1]
+     * @return slope of the curve
+     */
+    public float getSlope(float fraction) {
+        float position = Math.max(0f, Math.min(1f, fraction)) * SAMPLES;
+        int index = Math.min(SAMPLES - 1, (int) position);
+        float start = getSampleSlope(index);
+        return start + (getSampleSlope(index + 1) - start) * (position - index);
+    }
+
+    // slope of the curve at a sample, from the samples around it
+    private float getSampleSlope(int index) {
+        int before = Math.max(0, index - 1);
+        int after = Math.min(SAMPLES, index + 1);
+        return (table[after] - table[before]) * SAMPLES / (after - before);
+    }
+
+    // finds the parameter of the curve at which its X is x
+    private static double solveBezierX(double x, double x1, double x2) {
+        double s = x;
+        for (int i = 0; i < NEWTON_ITERATIONS; i++) {
+            double error = bezier(s, x1, x2) - x;
+            if (Math.abs(error) < BEZIER_EPSILON) {
+                return s;
+            }
+            double slope = bezierSlope(s, x1, x2);
+            if (Math.abs(slope) < BEZIER_EPSILON) {
+                break;
+            }
+            s -= error / slope;
+        }
+        // Newton's method did not converge, bisect: X grows with the parameter
+        double low = 0.0;
+        double high = 1.0;
+        s = x;
+        while (high - low > BEZIER_EPSILON) {
+            if (bezier(s, x1, x2) < x) {
+                low = s;
+            } else {
+                high = s;
+            }
+            s = (low + high) / 2.0;
+        }
+        return s;
+    }
+
+    // one coordinate of the curve at parameter s, given the coordinates of the control points
+    private static double bezier(double s, double p1, double p2) {
+        double r = 1.0 - s;
+        return 3.0 * r * r * s * p1 + 3.0 * r * s * s * p2 + s * s * s;
+    }
+
+    private static double bezierSlope(double s, double p1, double p2) {
+        double r = 1.0 - s;
+        return 3.0 * r * r * p1 + 6.0 * r * s * (p2 - p1) + 3.0 * s * s * (1.0 - p2);
+    }
+}
@@ -0,0 +1,236 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * SettleMotion describes the trajectory of one settle: the top of the sheet and its velocity as a
+ * function of the time since the settle started. The coefficients of the trajectory are computed
+ * once when the motion is set, so evaluating a frame is a couple of arithmetic operations and
+ * never allocates. An instance is meant to be reused by every settle of a sheet.
+ */
+public class SettleMotion {
+
+    /**
+     * The sheet moves along an interpolator, at constant speed by default, for a duration
+     * computed from the distance and velocity.
+     */
+    public static final int MODE_LINEAR = 0;
+
+    /**
+     * The sheet follows a critically damped spring which starts with the release velocity. A
+     * release fast enough passes the target once, then comes back to rest at it.
+     */
+    public static final int MODE_SPRING = 1;
+
+    /**
+     * The sheet decelerates exponentially from the release velocity and comes to rest exactly at
+     * the target. Releases whose velocity cannot reach the target this way use the spring.
+     */
+    public static final int MODE_DECAY = 2;
+
+    /**
+     * Default stiffness of the spring, for a unit mass.
+     */
+    public static final float DEFAULT_SPRING_STIFFNESS = 500f;
+
+    // Distance to the target, in pixels, under which the sheet is considered at rest
+    private static final float REST_DISTANCE = 0.5f;
+
+    // Velocity, in pixels per second, under which the sheet is considered at rest
+    private static final float REST_VELOCITY = 10f;
+
+    // Bounds of the decay rate, in 1/s, outside which the decay looks too slow or too abrupt
+    private static final float MIN_DECAY_RATE = 3f;
+    private static final float MAX_DECAY_RATE = 30f;
+
+    // Longest settle, in milliseconds, whatever the motion
+    private static final long MAX_DURATION = 2000;
+
+    // Time step, in milliseconds, used to find the end of a spring
+    private static final float SPRING_END_STEP = 4f;
+
+    private int mode = MODE_LINEAR;
+    private float from;
+    private float to;
+    private long duration;
+
+    // linear: curve of the motion, and the reciprocal of the duration
+    private SettleInterpolator interpolator = SettleInterpolator.LINEAR;
+    private float durationReciprocal;
+
+    // spring: top(t) = to + (springA + springB * t) * exp(-omega * t), t in seconds
+    private float omega;
+    private float springA;
+    private float springB;
+
+    // decay: top(t) = to - (to - from) * exp(-decayRate * t), t in seconds
+    private float decayRate;
+
+    /**
+     * Sets a motion at constant speed.
+     *
+     * @param fromTop  Top of the sheet when the settle starts
+     * @param toTop    Top of the sheet in the target state
+     * @param duration Duration of the settle in milliseconds
+     */
+    public void setLinear(float fromTop, float toTop, long duration) {
+        setLinear(fromTop, toTop, duration, SettleInterpolator.LINEAR);
+    }
+
+    /**
+     * Sets a motion along an interpolator.
+     *
+     * @param fromTop      Top of the sheet when the settle starts
+     * @param toTop        Top of the sheet in the target state
+     * @param duration     Duration of the settle in milliseconds
+     * @param interpolator Fraction of the distance travelled for each fraction of the duration
+     */
+    public void setLinear(float fromTop, float toTop, long duration, SettleInterpolator interpolator) {
+        this.mode = MODE_LINEAR;
+        this.from = fromTop;
+        this.to = toTop;
+        this.duration = Math.max(0, duration);
+        this.interpolator = interpolator;
+        this.durationReciprocal = this.duration == 0 ? 0f : 1f / this.duration;
+    }
+
+    /**
+     * Sets a critically damped spring which starts with the given velocity. If the velocity
+     * carries the spring past the target, it overshoots once and comes back, so the settle always
+     * ends at rest rather than stopping at the target with the speed of the release.
+     *
+     * @param fromTop   Top of the sheet when the settle starts
+     * @param toTop     Top of the sheet in the target state
+     * @param velocity  Velocity of the sheet when the settle starts, in pixels per second
+     * @param stiffness Stiffness of the spring for a unit mass
+     */
+    public void setSpring(float fromTop, float toTop, float velocity, float stiffness) {
+        this.mode = MODE_SPRING;
+        this.from = fromTop;
+        this.to = toTop;
+        this.omega = (float) Math.sqrt(stiffness);
+        this.springA = fromTop - toTop;
+        this.springB = velocity + omega * springA;
+        this.duration = findSpringEnd();
+    }
+
+    /**
+     * Sets an exponential decay which starts with the given velocity and rests at the target. If
+     * the velocity points away from the target, or is too slow or too fast to come to rest there
+     * naturally, a spring with the default stiffness is used instead.
+     *
+     * @param fromTop  Top of the sheet when the settle starts
+     * @param toTop    Top of the sheet in the target state
+     * @param velocity Velocity of the sheet when the settle starts, in pixels per second
+     */
+    public void setDecay(float fromTop, float toTop, float velocity) {
+        float delta = toTop - fromTop;
+        float rate = delta == 0f ? 0f : velocity / delta;
+        if (rate < MIN_DECAY_RATE || rate > MAX_DECAY_RATE) {
+            setSpring(fromTop, toTop, velocity, DEFAULT_SPRING_STIFFNESS);
+            return;
+        }
+        this.mode = MODE_DECAY;
+        this.from = fromTop;
+        this.to = toTop;
+        this.decayRate = rate;
+        double seconds = Math.log(Math.abs(delta) / REST_DISTANCE) / rate;
+        this.duration = Math.min(MAX_DURATION, Math.max(0L, (long) Math.ceil(seconds * 1000)));
+    }
+
+    /**
+     * Returns the kind of motion, one of {@link #MODE_LINEAR}, {@link #MODE_SPRING} or
+     * {@link #MODE_DECAY}.
+     *
+     * @return the mode of the motion
+     */
+    public int getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns the top of the sheet in the target state.
+     *
+     * @return target top in pixels
+     */
+    public float getTarget() {
+        return to;
+    }
+
+    /**
+     * Returns the time the sheet needs to come to rest at the target.
+     *
+     * @return duration in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns the top of the sheet at the given time. Times past the duration return the target.
+     *
+     * @param timeMs Time since the settle started, in milliseconds
+     * @return top of the sheet in pixels
+     */
+    public float getPosition(float timeMs) {
+        if (timeMs >= duration) {
+            return to;
+        }
+        if (timeMs <= 0f) {
+            return from;
+        }
+        switch (mode) {
+            case MODE_SPRING:
+                return to + springOffset(timeMs);
+            case MODE_DECAY:
+                return to - (to - from) * (float) Math.exp(-decayRate * timeMs / 1000f);
+            default:
+                return from + (to - from) * interpolator.getInterpolation(timeMs * durationReciprocal);
+        }
+    }
+
+    /**
+     * Returns the velocity of the sheet at the given time. Times past the duration return zero.
+     *
+     * @param timeMs Time since the settle started, in milliseconds
+     * @return velocity in pixels per second
+     */
+    public float getVelocity(float timeMs) {
+        if (timeMs >= duration) {
+            return 0f;
+        }
+        float clampedMs = Math.max(0f, timeMs);
+        switch (mode) {
+            case MODE_SPRING:
+                return getSpringVelocity(clampedMs);
+            case MODE_DECAY:
+                return (to - from) * decayRate * (float) Math.exp(-decayRate * clampedMs / 1000f);
+            default:
+                return (to - from) * interpolator.getSlope(clampedMs * durationReciprocal) * durationReciprocal * 1000f;
+        }
+    }
+
+    // walks the spring, past its overshoot if any, until it rests near the target
+    private long findSpringEnd() {
+        if (springA == 0f && springB == 0f) {
+            return 0;
+        }
+        for (float timeMs = SPRING_END_STEP; timeMs < MAX_DURATION; timeMs += SPRING_END_STEP) {
+            if (Math.abs(springOffset(timeMs)) < REST_DISTANCE
+                    && Math.abs(getSpringVelocity(timeMs)) < REST_VELOCITY) {
+                return (long) timeMs;
+            }
+        }
+        return MAX_DURATION;
+    }
+
+    // distance between the spring and the target at the given time
+    private float springOffset(float timeMs) {
+        float t = timeMs / 1000f;
+        return (springA + springB * t) * (float) Math.exp(-omega * t);
+    }
+
+    // velocity of the spring at the given time
+    private float getSpringVelocity(float timeMs) {
+        float t = timeMs / 1000f;
+        return (springB - omega * (springA + springB * t)) * (float) Math.exp(-omega * t);
+    }
+}
@@ -0,0 +1,763 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.util.Arrays;
+
+/**
+ * SheetModel holds the platform independent rules of the anchor sheet. It maps the position
+ * (top offset) and the release velocity of the sheet to target states, positions and settle
+ * durations, so the decisions taken by AnchorSheetLayout can be tested on a plain JVM.
+ */
+public class SheetModel {
+
+    /**
+     * The sheet is dragging.
+     */
+    public static final int STATE_DRAGGING = 1;
+
+    /**
+     * The sheet is settling.
+     */
+    public static final int STATE_SETTLING = 2;
+
+    /**
+     * The sheet is expanded.
+     */
+    public static final int STATE_EXPANDED = 3;
+
+    /**
+     * The sheet is collapsed.
+     */
+    public static final int STATE_COLLAPSED = 4;
+
+    /**
+     * The sheet is hidden.
+     */
+    public static final int STATE_HIDDEN = 5;
+
+    /**
+     * The sheet is anchor.
+     */
+    public static final int STATE_ANCHOR = 6;
+
+    /**
+     * The sheet is forced to be hidden programmatically.
+     */
+    public static final int STATE_FORCE_HIDDEN = 7;
+
+    /**
+     * Detent index meaning the sheet stays where it was released.
+     */
+    public static final int DETENT_NONE = -1;
+
+    /**
+     * Detent index of the hidden sheet, below all the detents.
+     */
+    public static final int DETENT_HIDDEN = -2;
+
+    /**
+     * Default minimum velocity in pixels per second, below which a release counts as still.
+     */
+    public static final float DEFAULT_MIN_VELOCITY = 100;
+
+    /**
+     * Default maximum velocity in pixels per second.
+     */
+    public static final float DEFAULT_MAX_VELOCITY = 3000;
+
+    // Threshold to make sheet hide
+    private static final float HIDE_THRESHOLD = 0.25f;
+
+    // Resistance given to vertical velocity
+    private static final float HIDE_FRICTION = 0.1f;
+
+    // Upper bound of every settle duration in milliseconds
+    private static final int MAX_SETTLE_DURATION = 200;
+
+    // Influence of the distance on the duration of a linear settle, over the distance ratio
+    private static final SettleInterpolator SNAP_DISTANCE_INFLUENCE =
+            SettleInterpolator.tabulate(f -> Math.sin((f - 0.5) * 0.47123894));
+
+    // Default fraction used for the anchor state
+    private static final float ANCHOR_THRESHOLD = 0.50f;
+
+    // Size of the parent layout
+    private int parentWidth;
+    private int parentHeight;
+
+    // Height of the Sheet when in Collapsed State
+    private int peekHeight;
+
+    // Distance between Layout Top and Child Top in Expanded State
+    private int minOffset;
+
+    // Decides the height of the Sheet in Anchor State
+    private float anchorThreshold = ANCHOR_THRESHOLD;
+
+    // Says whether Anchor Sheet can go to Hidden State
+    private boolean canHide;
+
+    // Whether to avoid Collapse State when Sheet is moving down
+    private boolean skipCollapsed;
+
+    // Distance between Layout Top and Child Top in Collapsed State
+    private int maxOffset;
+
+    // Distance between Layout Top and Child Top in Anchor State
+    private int anchorOffset;
+
+    // Intermediate detents requested between expanded and collapsed, null for the anchor alone
+    private float[] detentSpec;
+    // Whether detentSpec holds fractions of the parent height rather than tops in pixels
+    private boolean detentFractional;
+
+    // Resting tops from expanded to collapsed, and the index of the one used by STATE_ANCHOR
+    private final Detents detents = new Detents();
+    private int anchorDetent;
+
+    // Reciprocals of the ranges below and above the collapsed offset, 0 for an empty range
+    private float hideRangeReciprocal;
+    private float dragRangeReciprocal;
+
+    private float minVelocity = DEFAULT_MIN_VELOCITY;
+    private float maxVelocity = DEFAULT_MAX_VELOCITY;
+
+    // Kind of motion used to settle, one of the SettleMotion modes
+    private int settleMode = SettleMotion.MODE_LINEAR;
+
+    // Decides where a released sheet settles
+    private TargetPolicy targetPolicy = new NextDetentPolicy();
+
+    private float springStiffness = SettleMotion.DEFAULT_SPRING_STIFFNESS;
+
+    // Curve of the linear settles, indexed by target state
+    private final SettleInterpolator[] interpolators = new SettleInterpolator[STATE_FORCE_HIDDEN + 1];
+
+    /**
+     * Creates a model with the default offsets and settles.
+     */
+    public SheetModel() {
+        Arrays.fill(interpolators, SettleInterpolator.LINEAR);
+    }
+
+    /**
+     * Sets the size of the parent in which the sheet moves and recomputes the offsets.
+     *
+     * @param width  width of the parent in pixels
+     * @param height height of the parent in pixels
+     */
+    public void setParentSize(int width, int height) {
+        this.parentWidth = width;
+        this.parentHeight = height;
+        updateOffsets();
+    }
+
+    /**
+     * Returns the width of the parent.
+     *
+     * @return width of the parent in pixels
+     */
+    public int getParentWidth() {
+        return parentWidth;
+    }
+
+    /**
+     * Returns the height of the parent, which is also the top of the sheet when hidden.
+     *
+     * @return height of the parent in pixels
+     */
+    public int getParentHeight() {
+        return parentHeight;
+    }
+
+    /**
+     * Sets the height of the sheet when it is collapsed.
+     *
+     * @param peekHeight The height of the collapsed sheet in pixels.
+     */
+    public void setPeekHeight(int peekHeight) {
+        this.peekHeight = Math.max(0, peekHeight);
+        updateOffsets();
+    }
+
+    /**
+     * Gets the height of the sheet when it is collapsed.
+     *
+     * @return The height of the collapsed sheet in pixels.
+     */
+    public int getPeekHeight() {
+        return peekHeight;
+    }
+
+    /**
+     * Sets the distance between parent top and child top when sheet is expanded.
+     *
+     * @param minOffset The possible minimum distance between parent top and child top
+     */
+    public void setMinOffset(int minOffset) {
+        this.minOffset = minOffset;
+        updateOffsets();
+    }
+
+    /**
+     * Gets the distance between parent top and child top when sheet is expanded.
+     *
+     * @return The possible minimum distance between parent top and child top
+     */
+    public int getMinOffset() {
+        return minOffset;
+    }
+
+    /**
+     * Sets the fraction of the parent height used for the anchor state.
+     *
+     * @param threshold {@link Float} from 0..1
+     */
+    public void setAnchorThreshold(float threshold) {
+        this.anchorThreshold = threshold;
+        updateOffsets();
+    }
+
+    /**
+     * The multiplier between 0..1 to calculate the Anchor offset.
+     *
+     * @return float between 0..1
+     */
+    public float getAnchorThreshold() {
+        return anchorThreshold;
+    }
+
+    /**
+     * Returns the distance between parent top and child top in the anchor state.
+     *
+     * @return anchor offset in pixels
+     */
+    public int getAnchorOffset() {
+        return anchorOffset;
+    }
+
+    /**
+     * Returns the distance between parent top and child top in the collapsed state.
+     *
+     * @return collapsed offset in pixels
+     */
+    public int getMaxOffset() {
+        return maxOffset;
+    }
+
+    /**
+     * Sets whether the sheet can hide when it is swiped down.
+     *
+     * @param canHide {@code true} to make the sheet hideable.
+     */
+    public void setCanHide(boolean canHide) {
+        this.canHide = canHide;
+    }
+
+    /**
+     * Gets whether the sheet can hide when it is swiped down.
+     *
+     * @return {@code true} if the sheet can hide.
+     */
+    public boolean isCanHide() {
+        return canHide;
+    }
+
+    /**
+     * Sets whether the sheet should skip the collapsed state when it is moving down.
+     *
+     * @param skipCollapsed True if the sheet should skip the collapsed state.
+     */
+    public void setSkipCollapsed(boolean skipCollapsed) {
+        this.skipCollapsed = skipCollapsed;
+    }
+
+    /**
+     * Gets whether the sheet should skip the collapsed state when it is moving down.
+     *
+     * @return Whether the sheet should skip the collapsed state.
+     */
+    public boolean getSkipCollapsed() {
+        return skipCollapsed;
+    }
+
+    /**
+     * Sets the velocity bounds used when computing the settle duration.
+     *
+     * @param minVelocity velocities below this magnitude count as zero
+     * @param maxVelocity velocities above this magnitude are clamped to it
+     */
+    public void setVelocityBounds(float minVelocity, float maxVelocity) {
+        this.minVelocity = minVelocity;
+        this.maxVelocity = maxVelocity;
+    }
+
+    /**
+     * Sets the kind of motion used to settle the sheet.
+     *
+     * @param settleMode One of {@link SettleMotion#MODE_LINEAR}, {@link SettleMotion#MODE_SPRING}
+     *                   or {@link SettleMotion#MODE_DECAY}
+     */
+    public void setSettleMode(int settleMode) {
+        if (settleMode != SettleMotion.MODE_LINEAR && settleMode != SettleMotion.MODE_SPRING
+                && settleMode != SettleMotion.MODE_DECAY) {
+            throw new IllegalArgumentException("Illegal settle mode: " + settleMode);
+        }
+        this.settleMode = settleMode;
+    }
+
+    /**
+     * Returns the kind of motion used to settle the sheet.
+     *
+     * @return One of the {@link SettleMotion} modes
+     */
+    public int getSettleMode() {
+        return settleMode;
+    }
+
+    /**
+     * Sets the stiffness of the spring used by {@link SettleMotion#MODE_SPRING}.
+     *
+     * @param stiffness Stiffness for a unit mass, greater than zero
+     */
+    public void setSpringStiffness(float stiffness) {
+        if (stiffness <= 0f) {
+            throw new IllegalArgumentException("Spring stiffness must be positive: " + stiffness);
+        }
+        this.springStiffness = stiffness;
+    }
+
+    /**
+     * Returns the stiffness of the spring used by {@link SettleMotion#MODE_SPRING}.
+     *
+     * @return Stiffness for a unit mass
+     */
+    public float getSpringStiffness() {
+        return springStiffness;
+    }
+
+    /**
+     * Sets the curve of the settles to a state in {@link SettleMotion#MODE_LINEAR}.
+     *
+     * @param state        The target state: expanded, collapsed, anchor or one of the hidden states
+     * @param interpolator The curve
+     */
+    public void setSettleInterpolator(int state, SettleInterpolator interpolator) {
+        if (state < STATE_EXPANDED || state > STATE_FORCE_HIDDEN) {
+            throw new IllegalArgumentException("Illegal settle state: " + state);
+        }
+        if (interpolator == null) {
+            throw new IllegalArgumentException("Settle interpolator may not be null");
+        }
+        interpolators[state] = interpolator;
+    }
+
+    /**
+     * Returns the curve of the settles to a state in {@link SettleMotion#MODE_LINEAR}.
+     *
+     * @param state The target state
+     * @return the curve, {@link SettleInterpolator#LINEAR} by default
+     */
+    public SettleInterpolator getSettleInterpolator(int state) {
+        if (state < STATE_EXPANDED || state > STATE_FORCE_HIDDEN) {
+            throw new IllegalArgumentException("Illegal settle state: " + state);
+        }
+        return interpolators[state];
+    }
+
+    // recomputes the offsets which depend on the parent size
+    private void updateOffsets() {
+        maxOffset = parentHeight - peekHeight;
+        anchorOffset = (int) Math.max(parentHeight * anchorThreshold, minOffset);
+        hideRangeReciprocal = reciprocal(parentHeight - maxOffset);
+        dragRangeReciprocal = reciprocal(maxOffset - minOffset);
+        updateDetents();
+    }
+
+    // rebuilds the detents from the presets and the requested intermediate detents
+    private void updateDetents() {
+        detents.clear();
+        detents.add(minOffset);
+        detents.add(maxOffset);
+        if (detentSpec == null) {
+            detents.add(anchorOffset);
+        } else {
+            for (float value : detentSpec) {
+                int top = detentFractional ? (int) (value * parentHeight) : (int) value;
+                detents.add(Math.min(Math.max(top, minOffset), Math.max(minOffset, maxOffset)));
+            }
+        }
+        // the intermediate detent closest to the anchor offset
+        int count = detents.size();
+        anchorDetent = detents.nearest(anchorOffset);
+        if (count > 2) {
+            anchorDetent = Math.min(Math.max(anchorDetent, 1), count - 2);
+        }
+    }
+    // 1 / range, or 0 when the range is empty
+    private static float reciprocal(int range) {
+        return range == 0 ? 0f : 1f / range;
+    }
+
+    /**
+     * Sets the detents between the expanded and the collapsed ones as fractions of the parent
+     * height, measured from its top. The anchor state rests on the one closest to the anchor
+     * offset. Values outside the expanded to collapsed range are clamped to it.
+     *
+     * @param fractions Tops of the intermediate detents as fractions of the parent height
+     */
+    public void setDetentFractions(float... fractions) {
+        setDetents(fractions.clone(), true);
+    }
+
+    /**
+     * Sets the detents between the expanded and the collapsed ones as tops in pixels. The anchor
+     * state rests on the one closest to the anchor offset. Values outside the expanded to
+     * collapsed range are clamped to it.
+     *
+     * @param tops Tops of the intermediate detents in pixels
+     */
+    public void setDetentOffsets(int... tops) {
+        float[] spec = new float[tops.length];
+        for (int i = 0; i < tops.length; i++) {
+            spec[i] = tops[i];
+        }
+        setDetents(spec, false);
+    }
+
+    /**
+     * Restores the single intermediate detent at the anchor offset.
+     */
+    public void clearDetents() {
+        setDetents(null, false);
+    }
+
+    private void setDetents(float[] spec, boolean fractional) {
+        detentSpec = spec;
+        detentFractional = fractional;
+        updateDetents();
+    }
+
+    /**
+     * Returns the number of detents, the expanded and collapsed ones included.
+     *
+     * @return count of detents
+     */
+    public int getDetentCount() {
+        return detents.size();
+    }
+
+    /**
+     * Returns the top of the sheet at a detent.
+     *
+     * @param index Index of the detent, 0 being expanded and the last being collapsed
+     * @return top of the sheet in pixels
+     */
+    public int getDetentTop(int index) {
+        return detents.get(index);
+    }
+
+    /**
+     * Returns the detent nearest to a top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent
+     */
+    public int getDetentForTop(int top) {
+        return detents.nearest(top);
+    }
+
+    /**
+     * Returns the detent at exactly a top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or {@link #DETENT_NONE} if no detent is there
+     */
+    public int getDetentAt(int top) {
+        return detents.indexOf(top);
+    }
+
+    /**
+     * Returns the nearest detent strictly above a top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or {@link #DETENT_NONE} if none is above
+     */
+    public int getDetentAbove(int top) {
+        return detents.above(top);
+    }
+
+    /**
+     * Returns the nearest detent strictly below a top.
+     *
+     * @param top Top of the sheet
+     * @return index of the detent, or {@link #DETENT_NONE} if none is below
+     */
+    public int getDetentBelow(int top) {
+        return detents.below(top);
+    }
+
+    /**
+     * Returns the state of the sheet resting at a detent: expanded for the first, collapsed for
+     * the last and anchor for the ones in between.
+     *
+     * @param index Index of the detent, or {@link #DETENT_HIDDEN}
+     * @return One of the resting states
+     */
+    public int getStateForDetent(int index) {
+        if (index == DETENT_HIDDEN) {
+            return STATE_HIDDEN;
+        } else if (index == 0) {
+            return STATE_EXPANDED;
+        } else if (index == detents.size() - 1) {
+            return STATE_COLLAPSED;
+        } else {
+            return STATE_ANCHOR;
+        }
+    }
+
+    /**
+     * Returns the detent at which the sheet rests in a state.
+     *
+     * @param state One of the states
+     * @return index of the detent, {@link #DETENT_HIDDEN} for the hidden states, or
+     *         {@link #DETENT_NONE} for the moving states
+     */
+    public int getDetentForState(int state) {
+        if (state == STATE_EXPANDED) {
+            return 0;
+        } else if (state == STATE_ANCHOR) {
+            return anchorDetent;
+        } else if (state == STATE_COLLAPSED) {
+            return detents.size() - 1;
+        } else if (state == STATE_HIDDEN || state == STATE_FORCE_HIDDEN) {
+            return DETENT_HIDDEN;
+        } else {
+            return DETENT_NONE;
+        }
+    }
+
+    /**
+     * Restricts the top of the dragged sheet to its possible range.
+     *
+     * @param top Attempted top of the sheet
+     * @return The clamped top
+     */
+    public int clampTop(int top) {
+        return Math.min(canHide ? parentHeight : maxOffset, Math.max(minOffset, top));
+    }
+
+    /**
+     * Returns the magnitude of the vertical range in which the sheet can be dragged.
+     *
+     * @return range of vertical motion in pixels
+     */
+    public int getVerticalDragRange() {
+        if (canHide) {
+            return parentHeight - minOffset;
+        } else {
+            return maxOffset - minOffset;
+        }
+    }
+
+    /**
+     * Checks whether to hide the sheet or not, depending upon the sheet
+     * position and velocity at which it is thrown.
+     *
+     * @param top  Current top of the sheet
+     * @param yvel Y velocity
+     * @return Whether to hide the sheet or not
+     */
+    public boolean shouldHide(float top, float yvel) {
+        if (skipCollapsed) {
+            return true;
+        }
+        if (top < maxOffset) {
+            // It should not hide, but collapse.
+            return false;
+        }
+        final float newTop = top + yvel * HIDE_FRICTION;
+        return Math.abs(newTop - maxOffset) / peekHeight > HIDE_THRESHOLD;
+    }
+
+    /**
+     * Decides the state in which the sheet settles once it is released.
+     *
+     * @param currentTop   Top of the sheet when released
+     * @param yvel         Y velocity of the release in pixels per second
+     * @param dy           Recent Y offset of the pointer
+     * @param currentState The state of the sheet when released
+     * @return The state the sheet should settle to
+     */
+    public int getTargetState(int currentTop, float yvel, float dy, int currentState) {
+        int detent = getTargetDetent(currentTop, yvel, dy);
+        return detent == DETENT_NONE ? currentState : getStateForDetent(detent);
+    }
+
+    /**
+     * Sets the policy which decides where a released sheet settles, {@link NextDetentPolicy} by
+     * default.
+     *
+     * @param targetPolicy The policy
+     */
+    public void setTargetPolicy(TargetPolicy targetPolicy) {
+        if (targetPolicy == null) {
+            throw new IllegalArgumentException("Target policy may not be null");
+        }
+        this.targetPolicy = targetPolicy;
+    }
+
+    /**
+     * Returns the policy which decides where a released sheet settles.
+     *
+     * @return the target policy
+     */
+    public TargetPolicy getTargetPolicy() {
+        return targetPolicy;
+    }
+
+    /**
+     * Decides the detent at which the sheet settles once it is released, with the target policy.
+     *
+     * @param currentTop Top of the sheet when released
+     * @param yvel       Y velocity of the release in pixels per second
+     * @param dy         Recent Y offset of the pointer
+     * @return index of the detent, {@link #DETENT_HIDDEN}, or {@link #DETENT_NONE} if the sheet
+     *         was clicked between detents and stays where it is
+     */
+    public int getTargetDetent(int currentTop, float yvel, float dy) {
+        return targetPolicy.selectDetent(this, currentTop, yvel, dy);
+    }
+
+    /**
+     * Returns the top of the sheet for the given resting state.
+     *
+     * @param state One of the resting states
+     * @return top of the sheet in pixels
+     * @throws IllegalArgumentException if the sheet cannot rest in the given state
+     */
+    public int getTopForState(int state) {
+        if (state == STATE_ANCHOR) {
+            return detents.get(anchorDetent);
+        } else if (state == STATE_COLLAPSED) {
+            return maxOffset;
+        } else if (state == STATE_EXPANDED) {
+            return minOffset;
+        } else if ((canHide && state == STATE_HIDDEN) || state == STATE_FORCE_HIDDEN) {
+            return parentHeight;
+        } else {
+            throw new IllegalArgumentException("Illegal state argument: " + state);
+        }
+    }
+
+    /**
+     * Returns the slide offset for the given top. Offset increases as the sheet is moving upward.
+     * From 0 to 1 the sheet is between collapsed and expanded states and from -1 to 0 it is
+     * between hidden and collapsed states.
+     *
+     * @param top Top of the sheet
+     * @return offset within [-1,1] range
+     */
+    public float getSlideOffset(int top) {
+        return (maxOffset - top) * (top > maxOffset ? hideRangeReciprocal : dragRangeReciprocal);
+    }
+
+    /**
+     * Returns the top of the sheet at the given slide offset, the inverse of
+     * {@link #getSlideOffset(int)}.
+     *
+     * @param slideOffset Offset within [-1,1] range
+     * @return top of the sheet in pixels
+     */
+    public int getTopForSlideOffset(float slideOffset) {
+        int range = slideOffset < 0 ? parentHeight - maxOffset : maxOffset - minOffset;
+        return Math.round(maxOffset - slideOffset * range);
+    }
+
+    /**
+     * Finds the duration of the settle animation.
+     *
+     * @param dy   Y distance
+     * @param yvel Y Velocity
+     * @return time in milliseconds
+     */
+    public int computeSettleDuration(int dy, int yvel) {
+        yvel = clampMag(yvel, (int) minVelocity, (int) maxVelocity);
+        return computeAxisDuration(dy, yvel, getVerticalDragRange());
+    }
+
+    /**
+     * Sets up the motion of a settle according to the settle mode. The linear mode keeps the
+     * duration of {@link #computeSettleDuration(int, int)} and follows the interpolator of the
+     * target state, the physics modes start from the release velocity.
+     *
+     * @param motion  The motion to set up
+     * @param fromTop Top of the sheet when the settle starts
+     * @param toTop   Top of the sheet in the target state
+     * @param yvel    Y velocity of the release in pixels per second, zero when not released
+     * @param state   The target state
+     */
+    public void setUpSettle(SettleMotion motion, float fromTop, int toTop, float yvel, int state) {
+        switch (settleMode) {
+            case SettleMotion.MODE_SPRING:
+                motion.setSpring(fromTop, toTop, yvel, springStiffness);
+                break;
+            case SettleMotion.MODE_DECAY:
+                motion.setDecay(fromTop, toTop, yvel);
+                break;
+            default:
+                motion.setLinear(fromTop, toTop, computeSettleDuration((int) fromTop - toTop, (int) yvel),
+                        getSettleInterpolator(state));
+                break;
+        }
+    }
+
+    /**
+     * Time taken for settling.
+     *
+     * @param delta       distance
+     * @param velocity    velocity with it travels
+     * @param motionRange possible vertical drag range
+     * @return Time taken for settling
+     */
+    private int computeAxisDuration(int delta, int velocity, int motionRange) {
+        if (delta == 0) {
+            return 0;
+        } else {
+            int width = parentWidth;
+            int halfWidth = width / 2;
+            float distanceRatio = Math.min(1.0F, (float) Math.abs(delta) / (float) width);
+            float distance = halfWidth + halfWidth
+                    * SNAP_DISTANCE_INFLUENCE.getInterpolation(distanceRatio);
+            velocity = Math.abs(velocity);
+            int duration;
+            if (velocity > 0) {
+                duration = 4 * Math.round(1000.0F * Math.abs(distance / velocity));
+            } else {
+                float range = (float) Math.abs(delta) / (float) motionRange;
+                duration = (int) ((range + 1.0F) * 256.0F);
+            }
+            return Math.min(duration, MAX_SETTLE_DURATION);
+        }
+    }
+
+    /**
+     * Clamp the magnitude of value for absMin and absMax.
+     * If the value is below the minimum, it will be clamped to zero.
+     * If the value is above the maximum, it will be clamped to the maximum.
+     *
+     * @param value  Value to clamp
+     * @param absMin Absolute value of the minimum significant value to return
+     * @param absMax Absolute value of the maximum value to return
+     * @return The clamped value with the same sign as <code>value</code>
+     */
+    static int clampMag(int value, int absMin, int absMax) {
+        int absValue = Math.abs(value);
+        if (absValue < absMin) {
+            return 0;
+        } else if (absValue > absMax) {
+            return value > 0 ? absMax : -absMax;
+        } else {
+            return value;
+        }
+    }
+}
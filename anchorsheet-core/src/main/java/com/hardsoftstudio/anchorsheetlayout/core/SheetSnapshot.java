@@ -0,0 +1,58 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * SheetSnapshot is the state and slide offset of a sheet at one instant. Snapshots are immutable,
+ * so they can be handed to any thread.
+ */
+public final class SheetSnapshot {
+
+    private final int state;
+    private final float slideOffset;
+    private final long timestampNanos;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param state          State of the sheet
+     * @param slideOffset    Slide offset of the sheet, 0 collapsed and 1 expanded
+     * @param timestampNanos Time of the snapshot, from {@link System#nanoTime()}
+     */
+    public SheetSnapshot(int state, float slideOffset, long timestampNanos) {
+        this.state = state;
+        this.slideOffset = slideOffset;
+        this.timestampNanos = timestampNanos;
+    }
+
+    /**
+     * Returns the state of the sheet.
+     *
+     * @return one of the SheetModel states
+     */
+    public int getState() {
+        return state;
+    }
+
+    /**
+     * Returns the slide offset of the sheet.
+     *
+     * @return 0 collapsed, 1 expanded, negative below the peek height
+     */
+    public float getSlideOffset() {
+        return slideOffset;
+    }
+
+    /**
+     * Returns the time of the snapshot.
+     *
+     * @return time from {@link System#nanoTime()}
+     */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "SheetSnapshot{state=" + state + ", slideOffset=" + slideOffset
+                + ", timestampNanos=" + timestampNanos + "}";
+    }
+}
@@ -0,0 +1,210 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.util.Arrays;
+
+/**
+ * SlideBindings maps the slide offset of the sheet to property values of other components. Each
+ * binding interpolates a property between two values while the offset goes over a range, with an
+ * easing curve. The bindings are kept in flat primitive arrays and evaluated together in one
+ * loop; the caller applies the values to its components. Evaluating the offset of the previous
+ * evaluation again is skipped.
+ */
+public class SlideBindings {
+
+    /**
+     * Opacity of the component.
+     */
+    public static final int PROPERTY_ALPHA = 0;
+
+    /**
+     * Horizontal translation of the component.
+     */
+    public static final int PROPERTY_TRANSLATION_X = 1;
+
+    /**
+     * Vertical translation of the component.
+     */
+    public static final int PROPERTY_TRANSLATION_Y = 2;
+
+    /**
+     * Horizontal scale of the component.
+     */
+    public static final int PROPERTY_SCALE_X = 3;
+
+    /**
+     * Vertical scale of the component.
+     */
+    public static final int PROPERTY_SCALE_Y = 4;
+
+    /**
+     * Rotation of the component in degrees.
+     */
+    public static final int PROPERTY_ROTATION = 5;
+
+    /**
+     * The value follows the offset at a constant rate.
+     */
+    public static final int CURVE_LINEAR = 0;
+
+    /**
+     * The value starts slowly and speeds up.
+     */
+    public static final int CURVE_ACCELERATE = 1;
+
+    /**
+     * The value starts quickly and slows down.
+     */
+    public static final int CURVE_DECELERATE = 2;
+
+    /**
+     * The value starts and ends slowly.
+     */
+    public static final int CURVE_ACCELERATE_DECELERATE = 3;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private int size;
+
+    // bindings in the order they were added
+    private int[] properties = new int[INITIAL_CAPACITY];
+    private int[] curves = new int[INITIAL_CAPACITY];
+    private float[] startOffsets = new float[INITIAL_CAPACITY];
+    // 1 / (end offset - start offset), 0 for a step at the start offset
+    private float[] offsetScales = new float[INITIAL_CAPACITY];
+    private float[] froms = new float[INITIAL_CAPACITY];
+    private float[] tos = new float[INITIAL_CAPACITY];
+
+    // results of the last evaluation
+    private float[] values = new float[INITIAL_CAPACITY];
+
+    private boolean evaluated;
+    private float lastOffset;
+
+    /**
+     * Adds a binding.
+     *
+     * @param property    One of the PROPERTY constants
+     * @param startOffset Slide offset at which the property has the from value
+     * @param endOffset   Slide offset at which the property has the to value
+     * @param from        Value of the property at the start offset and beyond
+     * @param to          Value of the property at the end offset and beyond
+     * @param curve       One of the CURVE constants
+     * @return position of the binding
+     */
+    public int add(int property, float startOffset, float endOffset, float from, float to, int curve) {
+        if (property < PROPERTY_ALPHA || property > PROPERTY_ROTATION) {
+            throw new IllegalArgumentException("Illegal property argument: " + property);
+        }
+        if (curve < CURVE_LINEAR || curve > CURVE_ACCELERATE_DECELERATE) {
+            throw new IllegalArgumentException("Illegal curve argument: " + curve);
+        }
+        if (size == properties.length) {
+            grow();
+        }
+        properties[size] = property;
+        curves[size] = curve;
+        startOffsets[size] = startOffset;
+        offsetScales[size] = endOffset == startOffset ? 0f : 1f / (endOffset - startOffset);
+        froms[size] = from;
+        tos[size] = to;
+        evaluated = false;
+        return size++;
+    }
+
+    /**
+     * Removes a binding. The bindings after it move down one position.
+     *
+     * @param index Position of the binding
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Binding " + index + " of " + size);
+        }
+        int moved = size - index - 1;
+        System.arraycopy(properties, index + 1, properties, index, moved);
+        System.arraycopy(curves, index + 1, curves, index, moved);
+        System.arraycopy(startOffsets, index + 1, startOffsets, index, moved);
+        System.arraycopy(offsetScales, index + 1, offsetScales, index, moved);
+        System.arraycopy(froms, index + 1, froms, index, moved);
+        System.arraycopy(tos, index + 1, tos, index, moved);
+        System.arraycopy(values, index + 1, values, index, moved);
+        size--;
+    }
+
+    /**
+     * Returns the number of bindings.
+     *
+     * @return count of bindings
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the property of a binding.
+     *
+     * @param index Position of the binding
+     * @return one of the PROPERTY constants
+     */
+    public int getProperty(int index) {
+        return properties[index];
+    }
+
+    /**
+     * Computes the value of every binding for a slide offset.
+     *
+     * @param slideOffset Slide offset of the sheet
+     * @return false if the offset is the one of the last evaluation, so the values did not change
+     */
+    public boolean evaluate(float slideOffset) {
+        if (evaluated && slideOffset == lastOffset) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            float fraction = offsetScales[i] == 0f
+                    ? (slideOffset >= startOffsets[i] ? 1f : 0f)
+                    : (slideOffset - startOffsets[i]) * offsetScales[i];
+            fraction = ease(curves[i], Math.min(1f, Math.max(0f, fraction)));
+            values[i] = froms[i] + (tos[i] - froms[i]) * fraction;
+        }
+        evaluated = true;
+        lastOffset = slideOffset;
+        return true;
+    }
+
+    /**
+     * Returns the value of a binding computed by the last evaluation.
+     *
+     * @param index Position of the binding
+     * @return value of the property
+     */
+    public float getValue(int index) {
+        return values[index];
+    }
+
+    // applies the easing curve to a fraction within [0,1]
+    private static float ease(int curve, float t) {
+        switch (curve) {
+            case CURVE_ACCELERATE:
+                return t * t;
+            case CURVE_DECELERATE:
+                return 1f - (1f - t) * (1f - t);
+            case CURVE_ACCELERATE_DECELERATE:
+                return t * t * (3f - 2f * t);
+            default:
+                return t;
+        }
+    }
+
+    // doubles the capacity of every array
+    private void grow() {
+        int capacity = properties.length * 2;
+        properties = Arrays.copyOf(properties, capacity);
+        curves = Arrays.copyOf(curves, capacity);
+        startOffsets = Arrays.copyOf(startOffsets, capacity);
+        offsetScales = Arrays.copyOf(offsetScales, capacity);
+        froms = Arrays.copyOf(froms, capacity);
+        tos = Arrays.copyOf(tos, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+}
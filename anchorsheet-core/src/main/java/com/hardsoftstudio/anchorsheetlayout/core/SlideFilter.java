@@ -0,0 +1,95 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * SlideFilter decides which slide offsets are delivered to one listener. An offset is delivered
+ * when it moved at least the minimum delta away from the last delivered one and the minimum
+ * interval has passed since that delivery. Offsets held back are remembered as pending, so the
+ * final position of a drag can still be delivered with {@link #flush(float, long)}.
+ */
+public class SlideFilter {
+
+    private final float minDelta;
+    private final long minIntervalNanos;
+
+    private boolean delivered;
+    private float lastOffset;
+    private long lastNanos;
+    private boolean pending;
+
+    /**
+     * Creates a filter.
+     *
+     * @param minDelta  Smallest change of the offset to deliver, 0 to deliver every change
+     * @param maxRateHz Largest number of deliveries per second, 0 for no limit
+     */
+    public SlideFilter(float minDelta, int maxRateHz) {
+        if (minDelta < 0 || Float.isNaN(minDelta)) {
+            throw new IllegalArgumentException("Minimum slide delta must not be negative: " + minDelta);
+        }
+        if (maxRateHz < 0) {
+            throw new IllegalArgumentException("Maximum slide rate must not be negative: " + maxRateHz);
+        }
+        this.minDelta = minDelta;
+        this.minIntervalNanos = maxRateHz == 0 ? 0 : 1_000_000_000L / maxRateHz;
+    }
+
+    /**
+     * Returns whether the filter delivers every offset.
+     *
+     * @return true without a minimum delta or rate limit
+     */
+    public boolean isPassThrough() {
+        return minDelta == 0 && minIntervalNanos == 0;
+    }
+
+    /**
+     * Returns whether the filter limits the rate, and so needs the current time.
+     *
+     * @return true with a rate limit
+     */
+    public boolean isRateLimited() {
+        return minIntervalNanos > 0;
+    }
+
+    /**
+     * Decides whether to deliver an offset, and records it as delivered if so.
+     *
+     * @param offset    New slide offset
+     * @param nowNanos  Current time in nanoseconds, only read with a rate limit
+     * @return true if the offset is to be delivered
+     */
+    public boolean accept(float offset, long nowNanos) {
+        if (!delivered || (Math.abs(offset - lastOffset) >= minDelta
+                && (minIntervalNanos == 0 || nowNanos - lastNanos >= minIntervalNanos))) {
+            deliver(offset, nowNanos);
+            return true;
+        }
+        pending = offset != lastOffset;
+        return false;
+    }
+
+    /**
+     * Decides whether to deliver the final offset of a movement, which is the case when the last
+     * offset offered was held back.
+     *
+     * @param offset   Final slide offset
+     * @param nowNanos Current time in nanoseconds
+     * @return true if the offset is to be delivered
+     */
+    public boolean flush(float offset, long nowNanos) {
+        if (pending && offset != lastOffset) {
+            deliver(offset, nowNanos);
+            return true;
+        }
+        pending = false;
+        return false;
+    }
+
+    // records a delivered offset
+    private void deliver(float offset, long nowNanos) {
+        delivered = true;
+        lastOffset = offset;
+        lastNanos = nowNanos;
+        pending = false;
+    }
+}
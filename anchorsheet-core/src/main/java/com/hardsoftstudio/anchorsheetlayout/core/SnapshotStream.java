@@ -0,0 +1,195 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * SnapshotStream publishes the snapshots of a sheet to consumers running on their own executors.
+ * Each subscription keeps only the latest values in a lock-free triple buffer: publishing replaces
+ * them and schedules a delivery only when none is scheduled, so a slow consumer skips the
+ * snapshots it was too slow for, never builds up a backlog and never blocks the publisher. The
+ * publisher writes primitives and allocates nothing; a snapshot is created once per delivery. A
+ * consumer is called by one task at a time and receives snapshots in the order they were
+ * published. A consumer which throws, or an executor which rejects a delivery, only loses that
+ * delivery: the next snapshot published is delivered again. Snapshots are published, and
+ * subscriptions made, from one thread, e.g. the UI thread of the sheet.
+ */
+public class SnapshotStream {
+
+    /**
+     * Delivers the snapshots of a stream to one consumer, until cancelled.
+     */
+    public static final class Subscription {
+        // flag of the middle buffer index, set while its values were not taken by a delivery
+        private static final int FRESH = 4;
+        private static final int INDEX_MASK = 3;
+
+        private final SnapshotStream stream;
+        private final Executor executor;
+        private final Consumer<SheetSnapshot> consumer;
+
+        // three buffers of values: the publisher writes one, the delivery reads one, and the
+        // middle one holds the latest values published
+        private final int[] states = new int[3];
+        private final float[] slideOffsets = new float[3];
+        private final long[] timestamps = new long[3];
+        // buffer written by the publisher
+        private int back = 0;
+        // buffer read by the delivery
+        private int front = 1;
+        // index of the middle buffer, with FRESH while it holds values not delivered yet
+        private final AtomicInteger middle = new AtomicInteger(2);
+        // whether a delivery task is scheduled or running
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean cancelled;
+
+        private final Runnable deliver = this::deliver;
+
+        private Subscription(SnapshotStream stream, Executor executor, Consumer<SheetSnapshot> consumer) {
+            this.stream = stream;
+            this.executor = executor;
+            this.consumer = consumer;
+        }
+
+        /**
+         * Stops the deliveries. A delivery already running completes.
+         */
+        public void cancel() {
+            cancelled = true;
+            stream.remove(this);
+        }
+
+        /**
+         * Returns whether the subscription was cancelled.
+         *
+         * @return true once cancelled
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // replaces the pending values, scheduling a delivery if none is
+        private void offer(int state, float slideOffset, long timestampNanos) {
+            states[back] = state;
+            slideOffsets[back] = slideOffset;
+            timestamps[back] = timestampNanos;
+            // the swap publishes the values written above
+            back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+            if (scheduled.compareAndSet(false, true)) {
+                boolean executed = false;
+                try {
+                    executor.execute(deliver);
+                    executed = true;
+                } finally {
+                    if (!executed) {
+                        // rejected, the next offer schedules again
+                        scheduled.set(false);
+                    }
+                }
+            }
+        }
+
+        // takes the latest values published, or returns null if they were delivered already
+        private SheetSnapshot take() {
+            if ((middle.get() & FRESH) == 0) {
+                return null;
+            }
+            front = middle.getAndSet(front) & INDEX_MASK;
+            return new SheetSnapshot(states[front], slideOffsets[front], timestamps[front]);
+        }
+
+        // delivers the latest snapshot until none is left
+        private void deliver() {
+            boolean more;
+            do {
+                SheetSnapshot snapshot = take();
+                try {
+                    if (snapshot != null && !cancelled) {
+                        consumer.accept(snapshot);
+                    }
+                } finally {
+                    // cleared even if the consumer throws, so the next offer schedules again
+                    scheduled.set(false);
+                }
+                // a snapshot offered while delivering found the task still scheduled
+                more = (middle.get() & FRESH) != 0 && scheduled.compareAndSet(false, true);
+            } while (more);
+        }
+    }
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    /**
+     * Subscribes a consumer.
+     *
+     * @param executor Runs the deliveries, e.g. a background thread or a UI event runner
+     * @param consumer Receives the snapshots
+     * @param initial  Snapshot delivered first, or null to wait for the next one
+     * @return the subscription
+     */
+    public Subscription subscribe(Executor executor, Consumer<SheetSnapshot> consumer, SheetSnapshot initial) {
+        if (executor == null || consumer == null) {
+            throw new IllegalArgumentException("Executor and consumer may not be null");
+        }
+        Subscription subscription = new Subscription(this, executor, consumer);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            subscriptions = updated;
+        }
+        if (initial != null) {
+            subscription.offer(initial.getState(), initial.getSlideOffset(), initial.getTimestampNanos());
+        }
+        return subscription;
+    }
+
+    /**
+     * Returns whether a consumer is subscribed, so the publisher can skip building snapshots.
+     *
+     * @return true with at least one subscription
+     */
+    public boolean hasSubscribers() {
+        return subscriptions.length > 0;
+    }
+
+    /**
+     * Publishes a snapshot to every subscription. Never blocks. The consumers receive a snapshot
+     * with the same values.
+     *
+     * @param snapshot The snapshot
+     */
+    public void publish(SheetSnapshot snapshot) {
+        publish(snapshot.getState(), snapshot.getSlideOffset(), snapshot.getTimestampNanos());
+    }
+
+    /**
+     * Publishes the values of a snapshot to every subscription, without allocating. Never blocks.
+     *
+     * @param state          State of the sheet
+     * @param slideOffset    Slide offset of the sheet
+     * @param timestampNanos Time of the snapshot, from {@link System#nanoTime()}
+     */
+    public void publish(int state, float slideOffset, long timestampNanos) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(state, slideOffset, timestampNanos);
+        }
+    }
+
+    // removes a cancelled subscription
+    private synchronized void remove(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] updated = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, updated.length - i);
+                subscriptions = updated;
+                return;
+            }
+        }
+    }
+}
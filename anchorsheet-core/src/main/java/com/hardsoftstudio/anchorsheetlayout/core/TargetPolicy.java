@@ -0,0 +1,20 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * TargetPolicy decides the detent at which a released sheet settles. The policy only reads the
+ * model, so one instance can serve several sheets.
+ */
+public interface TargetPolicy {
+
+    /**
+     * Decides the detent at which the sheet settles once it is released.
+     *
+     * @param model      Model of the released sheet
+     * @param currentTop Top of the sheet when released
+     * @param yvel       Y velocity of the release in pixels per second, 0 below the fling threshold
+     * @param dy         Recent Y offset of the pointer
+     * @return index of the detent, {@link SheetModel#DETENT_HIDDEN}, or {@link SheetModel#DETENT_NONE}
+     *         if the sheet stays where it is
+     */
+    int selectDetent(SheetModel model, int currentTop, float yvel, float dy);
+}
@@ -0,0 +1,200 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+/**
+ * VelocityTracker estimates the velocity of a pointer from its recent positions. The samples are
+ * kept in a preallocated ring buffer, so one instance is reused for every gesture without
+ * allocating. The velocity is the slope of a least-squares line through the samples of the last
+ * {@link #HORIZON_MILLIS} milliseconds, stopping at a pause in the movement. A sample far from
+ * the line through the other samples, such as a spurious jump reported by the touch panel, is an
+ * outlier and is left out of the fit. Measuring each sample against the line through the others
+ * keeps a single spike from pulling the line towards itself and hiding in short windows.
+ */
+public class VelocityTracker {
+
+    /**
+     * Age of the oldest sample used by the estimate, in milliseconds.
+     */
+    public static final long HORIZON_MILLIS = 100;
+
+    /**
+     * Gap between two samples after which the pointer is considered to have stopped, in milliseconds.
+     */
+    public static final long PAUSE_MILLIS = 40;
+
+    // samples kept, enough for the horizon of a 240 Hz panel
+    private static final int CAPACITY = 32;
+
+    // an outlier lies further from the line through the other samples than this many times
+    // their root mean square residual
+    private static final float OUTLIER_FACTOR = 2.5f;
+
+    // residuals below this many pixels are touch noise rather than outliers
+    private static final float MIN_OUTLIER_DISTANCE = 2f;
+
+    // least number of samples needed to tell an outlier from the line
+    private static final int MIN_OUTLIER_SAMPLES = 5;
+
+    private final long[] times = new long[CAPACITY];
+    private final float[] xs = new float[CAPACITY];
+    private final float[] ys = new float[CAPACITY];
+
+    // position of the newest sample and number of samples
+    private int head = -1;
+    private int count;
+
+    private float xVelocity;
+    private float yVelocity;
+
+    // line of the last fit: slope in pixels per second, value at the time of the newest sample
+    private double lineSlope;
+    private double lineIntercept;
+
+    /**
+     * Removes all the samples.
+     */
+    public void clear() {
+        head = -1;
+        count = 0;
+        xVelocity = 0;
+        yVelocity = 0;
+    }
+
+    /**
+     * Adds a position of the pointer. Samples must be added in time order; a sample with the time
+     * of the newest one replaces it.
+     *
+     * @param timeMillis Time of the sample in milliseconds
+     * @param x          X coordinate of the pointer
+     * @param y          Y coordinate of the pointer
+     */
+    public void addSample(long timeMillis, float x, float y) {
+        if (count == 0 || timeMillis != times[head]) {
+            head = (head + 1) % CAPACITY;
+            count = Math.min(count + 1, CAPACITY);
+        }
+        times[head] = timeMillis;
+        xs[head] = x;
+        ys[head] = y;
+    }
+
+    /**
+     * Estimates the velocity at the newest sample, read with {@link #getXVelocity()} and
+     * {@link #getYVelocity()}. The velocity is 0 with fewer than two usable samples.
+     */
+    public void computeVelocity() {
+        int used = countUsableSamples();
+        xVelocity = fit(xs, used);
+        yVelocity = fit(ys, used);
+    }
+
+    /**
+     * Returns the horizontal velocity of the last estimate.
+     *
+     * @return velocity in pixels per second
+     */
+    public float getXVelocity() {
+        return xVelocity;
+    }
+
+    /**
+     * Returns the vertical velocity of the last estimate.
+     *
+     * @return velocity in pixels per second
+     */
+    public float getYVelocity() {
+        return yVelocity;
+    }
+
+    // number of samples, newest first, within the horizon and after the last pause
+    private int countUsableSamples() {
+        if (count == 0) {
+            return 0;
+        }
+        long newest = times[head];
+        long previous = newest;
+        int used = 1;
+        while (used < count) {
+            long time = times[index(used)];
+            if (newest - time > HORIZON_MILLIS || previous - time > PAUSE_MILLIS) {
+                break;
+            }
+            previous = time;
+            used++;
+        }
+        return used;
+    }
+
+    // slope of the samples in pixels per second, without the outlier if any
+    private float fit(float[] values, int used) {
+        if (used < 2 || !fitLine(values, used, -1)) {
+            return 0;
+        }
+        float slope = (float) lineSlope;
+        if (used < MIN_OUTLIER_SAMPLES) {
+            return slope;
+        }
+        // the sample furthest from the line through the others
+        int outlier = -1;
+        double maxResidual = 0;
+        for (int i = 0; i < used; i++) {
+            if (fitLine(values, used, i)) {
+                double residual = Math.abs(values[index(i)] - lineIntercept - lineSlope * seconds(i));
+                if (residual > maxResidual) {
+                    maxResidual = residual;
+                    outlier = i;
+                }
+            }
+        }
+        if (maxResidual <= MIN_OUTLIER_DISTANCE || !fitLine(values, used, outlier)) {
+            return slope;
+        }
+        // spread of the others around their own line, whose two parameters they determined
+        double sumSquares = 0;
+        for (int i = 0; i < used; i++) {
+            if (i != outlier) {
+                double residual = values[index(i)] - lineIntercept - lineSlope * seconds(i);
+                sumSquares += residual * residual;
+            }
+        }
+        double rms = Math.sqrt(sumSquares / (used - 3));
+        return maxResidual > OUTLIER_FACTOR * rms ? (float) lineSlope : slope;
+    }
+
+    // fits the least-squares line of the samples leaving out one, false if the times do not spread
+    private boolean fitLine(float[] values, int used, int skip) {
+        int n = 0;
+        double sumT = 0;
+        double sumV = 0;
+        double sumTT = 0;
+        double sumTV = 0;
+        for (int i = 0; i < used; i++) {
+            if (i == skip) {
+                continue;
+            }
+            double t = seconds(i);
+            double v = values[index(i)];
+            n++;
+            sumT += t;
+            sumV += v;
+            sumTT += t * t;
+            sumTV += t * v;
+        }
+        double denominator = n * sumTT - sumT * sumT;
+        if (n < 2 || denominator <= 0) {
+            return false;
+        }
+        lineSlope = (n * sumTV - sumT * sumV) / denominator;
+        lineIntercept = (sumV - lineSlope * sumT) / n;
+        return true;
+    }
+
+    // time of the i-th newest sample relative to the newest one, in seconds
+    private double seconds(int age) {
+        return (times[index(age)] - times[head]) / 1000.0;
+    }
+
+    // ring position of the i-th newest sample
+    private int index(int age) {
+        return (head - age + CAPACITY) % CAPACITY;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the lookups of Detents.
+ */
+public class DetentsTest {
+
+    private Detents detents;
+
+    @Before
+    public void setUp() {
+        detents = new Detents();
+        // added out of order and twice
+        for (int top : new int[] {1800, 0, 600, 1200, 300, 1500, 600}) {
+            detents.add(top);
+        }
+    }
+
+    @Test
+    public void testSorted() {
+        assertEquals(6, detents.size());
+        int[] expected = {0, 300, 600, 1200, 1500, 1800};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], detents.get(i));
+        }
+        assertEquals(3, detents.indexOf(1200));
+        assertEquals(-1, detents.indexOf(1201));
+    }
+
+    @Test
+    public void testNearest() {
+        assertEquals(0, detents.nearest(-100));
+        assertEquals(1, detents.nearest(400));
+        assertEquals(3, detents.nearest(1000));
+        assertEquals(5, detents.nearest(2500));
+        // a tie goes to the lower detent
+        assertEquals(2, detents.nearest(450));
+    }
+
+    @Test
+    public void testNextInDirection() {
+        assertEquals(2, detents.above(1000));
+        assertEquals(2, detents.above(1200));
+        assertEquals(-1, detents.above(0));
+        assertEquals(3, detents.below(1000));
+        assertEquals(4, detents.below(1200));
+        assertEquals(-1, detents.below(1800));
+        assertEquals(0, detents.below(-10));
+    }
+
+    @Test
+    public void testEmpty() {
+        detents.clear();
+        assertEquals(0, detents.size());
+        assertEquals(-1, detents.nearest(100));
+        assertEquals(-1, detents.above(100));
+        assertEquals(-1, detents.below(100));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfRange() {
+        detents.get(6);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for GestureMetrics.
+ */
+public class GestureMetricsTest {
+
+    private static final long MS = 1_000_000L;
+
+    private GestureMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new GestureMetrics(GestureMetrics.DEFAULT_FRAME_BUDGET_NANOS);
+    }
+
+    @Test
+    public void testCountsTouchAndCallbacks() {
+        metrics.recordTouchEvent(1000);
+        metrics.recordTouchEvent(3000);
+        metrics.recordSlideDispatch(2, 200);
+        metrics.recordSlideDispatch(0, 100);
+        metrics.recordStateDispatch(50);
+        assertEquals(2, metrics.getTouchEventCount());
+        assertEquals(4000, metrics.getTouchNanos());
+        assertEquals(2, metrics.getSlideDispatchCount());
+        assertEquals(1, metrics.getStateDispatchCount());
+        assertEquals(350, metrics.getCallbackNanos());
+    }
+
+    @Test
+    public void testSettleFramesOverBudget() {
+        metrics.startSettle(200, 0);
+        metrics.recordSettleFrame(16 * MS);
+        metrics.recordSettleFrame(50 * MS);
+        metrics.recordSettleFrame(66 * MS);
+        metrics.endSettle(210 * MS, true);
+        assertTrue(metrics.hasSettle());
+        assertTrue(metrics.isSettleCompleted());
+        assertEquals(200, metrics.getPlannedSettleMillis());
+        assertEquals(210f, metrics.getActualSettleMillis(), 0.001f);
+        assertEquals(3, metrics.getSettleFrameCount());
+        assertEquals(1, metrics.getFramesOverBudget());
+    }
+
+    @Test
+    public void testInterruptedSettle() {
+        metrics.startSettle(200, 0);
+        metrics.endSettle(80 * MS, false);
+        metrics.recordSettleFrame(100 * MS);
+        assertFalse(metrics.isSettleCompleted());
+        assertEquals(80f, metrics.getActualSettleMillis(), 0.001f);
+        assertEquals(0, metrics.getSettleFrameCount());
+    }
+
+    @Test
+    public void testReset() {
+        metrics.recordTouchEvent(1000);
+        metrics.startSettle(200, 0);
+        metrics.reset();
+        assertEquals(0, metrics.getTouchEventCount());
+        assertFalse(metrics.hasSettle());
+        assertEquals(0, metrics.getPlannedSettleMillis());
+    }
+}
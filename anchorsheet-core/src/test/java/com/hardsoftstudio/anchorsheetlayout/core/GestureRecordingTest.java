@@ -0,0 +1,140 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for GestureRecording and its binary format.
+ */
+public class GestureRecordingTest {
+
+    private GestureRecording recording;
+
+    @Before
+    public void setUp() {
+        recording = new GestureRecording();
+        recording.addEvent(1, 0, 1_000_000L, 0f, 1000f);
+        recording.addPointer(0, 540f, 100f);
+        recording.addEvent(3, 1, 1_000_008L, 0f, 990f);
+        recording.addPointer(0, 540f, 110f);
+        recording.addPointer(7, 200.5f, 300.25f);
+        recording.addEvent(5, 0, 1_000_016L, 0f, 970f);
+        recording.addPointer(0, 540f, 130f);
+    }
+
+    @Test
+    public void testEvents() {
+        assertEquals(3, recording.size());
+        assertEquals(3, recording.getAction(1));
+        assertEquals(1, recording.getActionIndex(1));
+        assertEquals(1_000_008L, recording.getTime(1));
+        assertEquals(990f, recording.getOffsetY(1), 0f);
+        assertEquals(1, recording.getPointerCount(0));
+        assertEquals(2, recording.getPointerCount(1));
+        assertEquals(7, recording.getPointerId(1, 1));
+        assertEquals(300.25f, recording.getY(1, 1), 0f);
+        assertEquals(130f, recording.getY(2, 0), 0f);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        GestureRecording read = GestureRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(recording.size(), read.size());
+        for (int i = 0; i < recording.size(); i++) {
+            assertEquals(recording.getAction(i), read.getAction(i));
+            assertEquals(recording.getActionIndex(i), read.getActionIndex(i));
+            assertEquals(recording.getTime(i), read.getTime(i));
+            assertEquals(recording.getOffsetX(i), read.getOffsetX(i), 0f);
+            assertEquals(recording.getOffsetY(i), read.getOffsetY(i), 0f);
+            assertEquals(recording.getPointerCount(i), read.getPointerCount(i));
+            for (int p = 0; p < recording.getPointerCount(i); p++) {
+                assertEquals(recording.getPointerId(i, p), read.getPointerId(i, p));
+                assertEquals(recording.getX(i, p), read.getX(i, p), 0f);
+                assertEquals(recording.getY(i, p), read.getY(i, p), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testGrowth() throws IOException {
+        recording.clear();
+        for (int i = 0; i < 1000; i++) {
+            recording.addEvent(5, 0, i * 8L, 0f, 0f);
+            recording.addPointer(0, i, -i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        // 7 bytes of header, then 21 bytes per single pointer event with a short time delta
+        assertEquals(7 + 1000 * 21, out.size());
+        GestureRecording read = GestureRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(1000, read.size());
+        assertEquals(7992L, read.getTime(999));
+        assertEquals(-999f, read.getY(999, 0), 0f);
+    }
+
+    @Test
+    public void testPointerIdsOutsideOneByte() throws IOException {
+        recording.clear();
+        recording.addEvent(1, 0, 0L, 0f, 0f);
+        recording.addPointer(256, 1f, 2f);
+        recording.addPointer(Integer.MAX_VALUE, 3f, 4f);
+        recording.addPointer(-1, 5f, 6f);
+        recording.addPointer(Integer.MIN_VALUE, 7f, 8f);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.writeTo(out);
+        GestureRecording read = GestureRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(256, read.getPointerId(0, 0));
+        assertEquals(Integer.MAX_VALUE, read.getPointerId(0, 1));
+        assertEquals(-1, read.getPointerId(0, 2));
+        assertEquals(Integer.MIN_VALUE, read.getPointerId(0, 3));
+        assertEquals(8f, read.getY(0, 3), 0f);
+    }
+
+    @Test
+    public void testReadsFirstVersion() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(0x41534752);
+        data.writeByte(1);
+        data.writeByte(1);
+        // one event with one pointer, its id as an unsigned byte
+        data.writeByte(1);
+        data.writeByte(0);
+        data.writeByte(16);
+        data.writeFloat(0f);
+        data.writeFloat(1000f);
+        data.writeByte(1);
+        data.writeByte(200);
+        data.writeFloat(540f);
+        data.writeFloat(100f);
+        GestureRecording read = GestureRecording.readFrom(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(1, read.size());
+        assertEquals(8L, read.getTime(0));
+        assertEquals(200, read.getPointerId(0, 0));
+        assertEquals(100f, read.getY(0, 0), 0f);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotARecording() throws IOException {
+        GestureRecording.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6}));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPointerWithoutEvent() {
+        new GestureRecording().addPointer(0, 0f, 0f);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testPointerOutOfRange() {
+        recording.getX(0, 1);
+    }
+}
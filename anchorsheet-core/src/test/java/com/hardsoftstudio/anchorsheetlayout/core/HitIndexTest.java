@@ -0,0 +1,81 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for HitIndex.
+ */
+public class HitIndexTest {
+
+    private HitIndex index;
+
+    @Before
+    public void setUp() {
+        index = new HitIndex();
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(-1, index.find(10, 10));
+    }
+
+    @Test
+    public void testStackedRectangles() {
+        // added out of order, like a depth first walk may find them
+        index.add(0, 0, 600, 1080, 900);
+        index.add(1, 0, 0, 1080, 300);
+        index.add(2, 0, 300, 540, 600);
+        index.add(3, 540, 300, 1080, 600);
+        index.build();
+        assertEquals(1, index.find(500, 100));
+        assertEquals(2, index.find(100, 450));
+        assertEquals(3, index.find(900, 450));
+        assertEquals(0, index.find(500, 899));
+        assertEquals(-1, index.find(500, 950));
+        assertEquals(-1, index.find(1200, 100));
+    }
+
+    @Test
+    public void testTallRectangleBeforeShortOnes() {
+        index.add(7, 0, 0, 100, 2000);
+        index.add(8, 200, 100, 300, 200);
+        index.add(9, 200, 300, 300, 400);
+        index.build();
+        assertEquals(7, index.find(50, 1500));
+        assertEquals(9, index.find(250, 350));
+        assertEquals(-1, index.find(250, 250));
+    }
+
+    @Test
+    public void testOverlapPrefersLowestTop() {
+        index.add(1, 0, 0, 1000, 1000);
+        index.add(2, 100, 100, 200, 200);
+        index.build();
+        assertEquals(2, index.find(150, 150));
+        assertEquals(1, index.find(500, 500));
+    }
+
+    @Test
+    public void testGrowAndRebuild() {
+        for (int i = 0; i < 100; i++) {
+            index.add(i, 0, i * 100, 1080, i * 100 + 99);
+        }
+        index.build();
+        assertEquals(100, index.size());
+        assertEquals(42, index.find(10, 4250));
+        index.clear();
+        index.add(5, 0, 0, 10, 10);
+        index.build();
+        assertEquals(5, index.find(5, 5));
+        assertEquals(-1, index.find(5, 4250));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFindBeforeBuild() {
+        index.add(1, 0, 0, 10, 10);
+        index.find(5, 5);
+    }
+}
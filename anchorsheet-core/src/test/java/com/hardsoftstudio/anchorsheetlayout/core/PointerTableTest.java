@@ -0,0 +1,75 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for PointerTable.
+ */
+public class PointerTableTest {
+
+    private PointerTable table;
+
+    @Before
+    public void setUp() {
+        table = new PointerTable(3);
+    }
+
+    @Test
+    public void testPutAndLookUp() {
+        int slot = table.put(7, 10f, 20f);
+        assertEquals(slot, table.slotOf(7));
+        assertEquals(1, table.size());
+        assertEquals(7, table.getId(slot));
+        assertEquals(10f, table.getInitialX(slot), 0f);
+        assertEquals(20f, table.getLastY(slot), 0f);
+        table.setLast(slot, 15.5f, 30.25f);
+        assertEquals(15.5f, table.getLastX(slot), 0f);
+        assertEquals(30.25f, table.getLastY(slot), 0f);
+        assertEquals(20f, table.getInitialY(slot), 0f);
+    }
+
+    @Test
+    public void testLargeIds() {
+        table.put(40, 1f, 1f);
+        table.put(Integer.MAX_VALUE, 2f, 2f);
+        assertEquals(2f, table.getLastX(table.slotOf(Integer.MAX_VALUE)), 0f);
+        assertEquals(-1, table.slotOf(8));
+    }
+
+    @Test
+    public void testPutAgainRestartsPointer() {
+        int slot = table.put(1, 0f, 0f);
+        table.setLast(slot, 5f, 5f);
+        assertEquals(slot, table.put(1, 8f, 9f));
+        assertEquals(1, table.size());
+        assertEquals(8f, table.getInitialX(slot), 0f);
+        assertEquals(9f, table.getLastY(slot), 0f);
+    }
+
+    @Test
+    public void testRemoveKeepsOtherPointers() {
+        table.put(1, 1f, 1f);
+        table.put(2, 2f, 2f);
+        table.put(3, 3f, 3f);
+        assertTrue(table.remove(1));
+        assertFalse(table.remove(1));
+        assertEquals(2, table.size());
+        assertEquals(-1, table.slotOf(1));
+        assertEquals(2f, table.getLastX(table.slotOf(2)), 0f);
+        assertEquals(3f, table.getLastX(table.slotOf(3)), 0f);
+    }
+
+    @Test
+    public void testFullTable() {
+        table.put(1, 0f, 0f);
+        table.put(2, 0f, 0f);
+        table.put(3, 0f, 0f);
+        assertEquals(-1, table.put(4, 0f, 0f));
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(0, table.put(4, 0f, 0f));
+    }
+}
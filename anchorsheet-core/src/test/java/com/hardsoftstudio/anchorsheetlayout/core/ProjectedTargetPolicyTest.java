@@ -0,0 +1,89 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for ProjectedTargetPolicy, on a sheet with detents at 0, 1000 and 1800.
+ */
+public class ProjectedTargetPolicyTest {
+
+    private SheetModel model;
+
+    @Before
+    public void setUp() {
+        model = new SheetModel();
+        model.setPeekHeight(200);
+        model.setMinOffset(0);
+        model.setAnchorThreshold(0.5f);
+        model.setCanHide(true);
+        model.setParentSize(1080, 2000);
+        model.setTargetPolicy(new ProjectedTargetPolicy());
+    }
+
+    @Test
+    public void testProjection() {
+        ProjectedTargetPolicy policy = new ProjectedTargetPolicy(4f);
+        assertEquals(1000f, policy.project(1800, -3200f), 0.001f);
+        assertEquals(1800f, policy.project(1800, 0f), 0f);
+    }
+
+    @Test
+    public void testFlingStopsAtNearestProjectedDetent() {
+        // projected at 1300
+        assertEquals(1, model.getTargetDetent(1800, -3000f, -10f));
+        // projected at 900, past the anchor but nearer to it
+        assertEquals(1, model.getTargetDetent(1500, -3600f, -10f));
+    }
+
+    @Test
+    public void testStrongFlingSkipsDetents() {
+        model.setTargetPolicy(new ProjectedTargetPolicy(2f));
+        assertEquals(0, model.getTargetDetent(1800, -3000f, -10f));
+        assertEquals(SheetModel.STATE_EXPANDED, model.getTargetState(1800, -3000f, -10f, SheetModel.STATE_DRAGGING));
+    }
+
+    @Test
+    public void testSlowReleaseDoesNotSnapBack() {
+        // dragged up past the middle of anchor and collapsed, released with a small move down
+        assertEquals(1, model.getTargetDetent(1350, 0f, 2f));
+        model.setTargetPolicy(new NextDetentPolicy());
+        assertEquals(1, model.getTargetDetent(1350, 0f, 2f));
+        assertEquals(2, model.getTargetDetent(1350, 300f, 2f));
+    }
+
+    @Test
+    public void testHide() {
+        // projected at 2300, past the middle of collapsed and hidden
+        assertEquals(SheetModel.DETENT_HIDDEN, model.getTargetDetent(1800, 3000f, 10f));
+        // projected at 1850
+        assertEquals(2, model.getTargetDetent(1800, 300f, 10f));
+        model.setCanHide(false);
+        assertEquals(2, model.getTargetDetent(1800, 3000f, 10f));
+    }
+
+    @Test
+    public void testSkipCollapsed() {
+        model.setSkipCollapsed(true);
+        assertEquals(SheetModel.DETENT_HIDDEN, model.getTargetDetent(1500, 600f, 10f));
+        assertEquals(1, model.getTargetDetent(1500, -900f, -10f));
+    }
+
+    @Test
+    public void testClick() {
+        assertEquals(1, model.getTargetDetent(1000, 0f, 0f));
+        assertEquals(SheetModel.DETENT_NONE, model.getTargetDetent(1100, 0f, 0f));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalDecayRate() {
+        new ProjectedTargetPolicy(0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullPolicy() {
+        model.setTargetPolicy(null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the curves of SettleInterpolator.
+ */
+public class SettleInterpolatorTest {
+
+    @Test
+    public void testCurvesStartAndEndAtTheTarget() {
+        SettleInterpolator[] curves = {
+            SettleInterpolator.LINEAR, SettleInterpolator.FAST_OUT_SLOW_IN,
+            SettleInterpolator.DECELERATE, SettleInterpolator.OVERSHOOT
+        };
+        for (SettleInterpolator curve : curves) {
+            assertEquals(0f, curve.getInterpolation(0f), 1e-6f);
+            assertEquals(1f, curve.getInterpolation(1f), 1e-6f);
+            assertEquals(0f, curve.getInterpolation(-1f), 1e-6f);
+            assertEquals(1f, curve.getInterpolation(2f), 1e-6f);
+        }
+    }
+
+    @Test
+    public void testLinearIsExact() {
+        for (float t = 0f; t <= 1f; t += 0.01f) {
+            assertEquals(t, SettleInterpolator.LINEAR.getInterpolation(t), 1e-6f);
+            assertEquals(1f, SettleInterpolator.LINEAR.getSlope(t), 1e-3f);
+        }
+    }
+
+    @Test
+    public void testTableMatchesTheCurve() {
+        SettleInterpolator decelerate = SettleInterpolator.DECELERATE;
+        for (float t = 0f; t <= 1f; t += 0.0137f) {
+            assertEquals(1f - (1f - t) * (1f - t), decelerate.getInterpolation(t), 1e-5f);
+            assertEquals(2f * (1f - t), decelerate.getSlope(t), 0.01f);
+        }
+    }
+
+    @Test
+    public void testCubicBezier() {
+        // CSS ease-in-out is symmetric about the middle
+        SettleInterpolator easeInOut = SettleInterpolator.cubicBezier(0.42f, 0f, 0.58f, 1f);
+        assertEquals(0.5f, easeInOut.getInterpolation(0.5f), 1e-4f);
+        assertEquals(1f - easeInOut.getInterpolation(0.2f), easeInOut.getInterpolation(0.8f), 1e-4f);
+        // fast out: ahead of linear in the middle, and moving forward only
+        float previous = 0f;
+        for (float t = 0.01f; t <= 1f; t += 0.01f) {
+            float value = SettleInterpolator.FAST_OUT_SLOW_IN.getInterpolation(t);
+            assertTrue(value >= previous);
+            previous = value;
+        }
+        assertTrue(SettleInterpolator.FAST_OUT_SLOW_IN.getInterpolation(0.5f) > 0.7f);
+    }
+
+    @Test
+    public void testOvershootPassesTheTarget() {
+        float max = 0f;
+        for (float t = 0f; t <= 1f; t += 0.01f) {
+            max = Math.max(max, SettleInterpolator.OVERSHOOT.getInterpolation(t));
+        }
+        assertTrue(max > 1.05f);
+        assertEquals(0.5f, SettleInterpolator.overshoot(0f).getInterpolation(1f - (float) Math.cbrt(0.5)), 1e-4f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBezierOutOfRange() {
+        SettleInterpolator.cubicBezier(1.5f, 0f, 0.5f, 1f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTension() {
+        SettleInterpolator.overshoot(-1f);
+    }
+}
@@ -0,0 +1,167 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the trajectories of SettleMotion.
+ */
+public class SettleMotionTest {
+
+    private static final float FRAME = 1000f / 120f;
+
+    private SettleMotion motion;
+
+    @Before
+    public void setUp() {
+        motion = new SettleMotion();
+    }
+
+    @Test
+    public void testLinear() {
+        motion.setLinear(1000f, 0f, 200);
+        assertEquals(SettleMotion.MODE_LINEAR, motion.getMode());
+        assertEquals(200, motion.getDuration());
+        assertEquals(1000f, motion.getPosition(0f), 0.001f);
+        assertEquals(500f, motion.getPosition(100f), 0.001f);
+        assertEquals(0f, motion.getPosition(200f), 0.001f);
+        assertEquals(-5000f, motion.getVelocity(50f), 0.01f);
+    }
+
+    @Test
+    public void testSpringStartsWithReleaseVelocity() {
+        motion.setSpring(1000f, 200f, -2500f, SettleMotion.DEFAULT_SPRING_STIFFNESS);
+        assertEquals(SettleMotion.MODE_SPRING, motion.getMode());
+        assertEquals(1000f, motion.getPosition(0f), 0.001f);
+        assertEquals(-2500f, motion.getVelocity(0f), 0.01f);
+    }
+
+    @Test
+    public void testSpringComesToRestAtTarget() {
+        motion.setSpring(1000f, 200f, 0f, SettleMotion.DEFAULT_SPRING_STIFFNESS);
+        long duration = motion.getDuration();
+        assertTrue(duration > 0 && duration < 2000);
+        assertEquals(200f, motion.getPosition(duration - 1), 1f);
+        assertEquals(200f, motion.getPosition(duration), 0.001f);
+        assertEquals(0f, motion.getVelocity(duration), 0.001f);
+    }
+
+    @Test
+    public void testSpringMovesMonotonicallyWithoutOvershoot() {
+        motion.setSpring(1800f, 0f, -3000f, SettleMotion.DEFAULT_SPRING_STIFFNESS);
+        float previous = motion.getPosition(0f);
+        for (float t = FRAME; t <= motion.getDuration() + FRAME; t += FRAME) {
+            float position = motion.getPosition(t);
+            assertTrue(position <= previous);
+            assertTrue(position >= 0f);
+            previous = position;
+        }
+    }
+
+    @Test
+    public void testSpringFlungPastTargetComesBackToRest() {
+        motion.setSpring(600f, 200f, -20000f, SettleMotion.DEFAULT_SPRING_STIFFNESS);
+        long duration = motion.getDuration();
+        assertTrue(duration < 2000);
+        float lowest = Float.MAX_VALUE;
+        for (float t = 0f; t <= duration; t += 1f) {
+            lowest = Math.min(lowest, motion.getPosition(t));
+        }
+        assertTrue("overshoot " + (200f - lowest), lowest < 199f);
+        // the sheet has slowed down when it stops, instead of stopping with the release speed
+        assertEquals(200f, motion.getPosition(duration - 1), 1f);
+        assertEquals(0f, motion.getVelocity(duration - 1), 20f);
+        assertEquals(200f, motion.getPosition(duration), 0.001f);
+        assertVelocityMatchesPosition();
+    }
+
+    @Test
+    public void testSpringVelocityMatchesPosition() {
+        motion.setSpring(1500f, 1000f, 1200f, SettleMotion.DEFAULT_SPRING_STIFFNESS);
+        assertVelocityMatchesPosition();
+    }
+
+    @Test
+    public void testDecayStartsWithReleaseVelocityAndRestsAtTarget() {
+        motion.setDecay(1000f, 0f, -5000f);
+        assertEquals(SettleMotion.MODE_DECAY, motion.getMode());
+        assertEquals(-5000f, motion.getVelocity(0f), 0.01f);
+        long duration = motion.getDuration();
+        assertEquals(0f, motion.getPosition(duration - 1), 1f);
+        assertEquals(0f, motion.getPosition(duration), 0.001f);
+        assertVelocityMatchesPosition();
+    }
+
+    @Test
+    public void testDecayDurationFollowsVelocity() {
+        motion.setDecay(1000f, 0f, -4000f);
+        long slow = motion.getDuration();
+        motion.setDecay(1000f, 0f, -12000f);
+        long fast = motion.getDuration();
+        assertTrue(fast < slow);
+    }
+
+    @Test
+    public void testDecayFallsBackToSpring() {
+        // moving away from the target
+        motion.setDecay(1000f, 0f, 3000f);
+        assertEquals(SettleMotion.MODE_SPRING, motion.getMode());
+        // too slow to come to rest at the target
+        motion.setDecay(1000f, 0f, -500f);
+        assertEquals(SettleMotion.MODE_SPRING, motion.getMode());
+        // already there
+        motion.setDecay(1000f, 1000f, 0f);
+        assertEquals(SettleMotion.MODE_SPRING, motion.getMode());
+        assertEquals(0, motion.getDuration());
+    }
+
+    @Test
+    public void testModelSetsUpSelectedMode() {
+        SheetModel model = new SheetModel();
+        model.setPeekHeight(200);
+        model.setParentSize(1080, 2000);
+        model.setUpSettle(motion, 1500f, 1800, 0f, SheetModel.STATE_COLLAPSED);
+        assertEquals(SettleMotion.MODE_LINEAR, motion.getMode());
+        assertEquals(model.computeSettleDuration(-300, 0), motion.getDuration());
+        model.setSettleMode(SettleMotion.MODE_SPRING);
+        model.setUpSettle(motion, 1500f, 1800, 800f, SheetModel.STATE_COLLAPSED);
+        assertEquals(SettleMotion.MODE_SPRING, motion.getMode());
+        assertEquals(800f, motion.getVelocity(0f), 0.01f);
+    }
+
+    @Test
+    public void testLinearFollowsInterpolatorOfTargetState() {
+        SheetModel model = new SheetModel();
+        model.setPeekHeight(200);
+        model.setParentSize(1080, 2000);
+        model.setSettleInterpolator(SheetModel.STATE_EXPANDED, SettleInterpolator.DECELERATE);
+        model.setUpSettle(motion, 1000f, 0, 0f, SheetModel.STATE_EXPANDED);
+        float half = motion.getDuration() / 2f;
+        assertEquals(250f, motion.getPosition(half), 0.5f);
+        assertVelocityMatchesPosition();
+        model.setUpSettle(motion, 1000f, 0, 0f, SheetModel.STATE_ANCHOR);
+        assertEquals(500f, motion.getPosition(half), 0.5f);
+        assertSame(SettleInterpolator.LINEAR, model.getSettleInterpolator(SheetModel.STATE_COLLAPSED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalSettleInterpolatorState() {
+        new SheetModel().setSettleInterpolator(SheetModel.STATE_SETTLING, SettleInterpolator.LINEAR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalSettleMode() {
+        new SheetModel().setSettleMode(42);
+    }
+
+    // compares the reported velocity with the finite difference of the positions
+    private void assertVelocityMatchesPosition() {
+        float step = 0.5f;
+        for (float t = step; t < motion.getDuration() - step; t += FRAME) {
+            float derivative = (motion.getPosition(t + step) - motion.getPosition(t - step)) / (2 * step) * 1000f;
+            assertEquals(derivative, motion.getVelocity(t), Math.max(5f, Math.abs(derivative) * 0.01f));
+        }
+    }
+}
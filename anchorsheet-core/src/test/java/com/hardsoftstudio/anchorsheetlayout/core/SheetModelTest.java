@@ -0,0 +1,182 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the headless SheetModel.
+ */
+public class SheetModelTest {
+
+    private SheetModel model;
+
+    @Before
+    public void setUp() {
+        model = new SheetModel();
+        model.setPeekHeight(200);
+        model.setMinOffset(0);
+        model.setAnchorThreshold(0.5f);
+        model.setCanHide(true);
+        model.setSkipCollapsed(false);
+        model.setParentSize(1080, 2000);
+    }
+
+    @Test
+    public void testOffsets() {
+        assertEquals(1800, model.getMaxOffset());
+        assertEquals(1000, model.getAnchorOffset());
+        assertEquals(2000, model.getParentHeight());
+    }
+
+    @Test
+    public void testOffsetsFollowParentSize() {
+        model.setParentSize(1080, 1000);
+        assertEquals(800, model.getMaxOffset());
+        assertEquals(500, model.getAnchorOffset());
+    }
+
+    @Test
+    public void testTopForState() {
+        assertEquals(0, model.getTopForState(SheetModel.STATE_EXPANDED));
+        assertEquals(1000, model.getTopForState(SheetModel.STATE_ANCHOR));
+        assertEquals(1800, model.getTopForState(SheetModel.STATE_COLLAPSED));
+        assertEquals(2000, model.getTopForState(SheetModel.STATE_HIDDEN));
+        assertEquals(2000, model.getTopForState(SheetModel.STATE_FORCE_HIDDEN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopForHiddenWhenCannotHide() {
+        model.setCanHide(false);
+        model.getTopForState(SheetModel.STATE_HIDDEN);
+    }
+
+    @Test
+    public void testClampTop() {
+        assertEquals(0, model.clampTop(-50));
+        assertEquals(2000, model.clampTop(2500));
+        model.setCanHide(false);
+        assertEquals(1800, model.clampTop(2500));
+    }
+
+    @Test
+    public void testReleaseWithoutVelocitySnapsToNearest() {
+        assertEquals(SheetModel.STATE_EXPANDED,
+                model.getTargetState(300, 0f, -10f, SheetModel.STATE_DRAGGING));
+        assertEquals(SheetModel.STATE_ANCHOR,
+                model.getTargetState(1200, 0f, -10f, SheetModel.STATE_DRAGGING));
+        assertEquals(SheetModel.STATE_COLLAPSED,
+                model.getTargetState(1700, 0f, 10f, SheetModel.STATE_DRAGGING));
+    }
+
+    @Test
+    public void testReleaseMovingUp() {
+        assertEquals(SheetModel.STATE_ANCHOR,
+                model.getTargetState(1500, -800f, -12f, SheetModel.STATE_DRAGGING));
+        assertEquals(SheetModel.STATE_EXPANDED,
+                model.getTargetState(900, -800f, -12f, SheetModel.STATE_DRAGGING));
+    }
+
+    @Test
+    public void testReleaseMovingDown() {
+        assertEquals(SheetModel.STATE_COLLAPSED,
+                model.getTargetState(1500, 800f, 12f, SheetModel.STATE_DRAGGING));
+        assertEquals(SheetModel.STATE_HIDDEN,
+                model.getTargetState(1850, 2000f, 12f, SheetModel.STATE_DRAGGING));
+        model.setCanHide(false);
+        assertEquals(SheetModel.STATE_COLLAPSED,
+                model.getTargetState(1850, 2000f, 12f, SheetModel.STATE_DRAGGING));
+    }
+
+    @Test
+    public void testReleaseWithoutVerticalMoveFollowsTheVelocity() {
+        assertEquals(SheetModel.STATE_COLLAPSED,
+                model.getTargetState(1000, 500f, 0f, SheetModel.STATE_DRAGGING));
+        assertEquals(SheetModel.STATE_COLLAPSED,
+                model.getTargetState(1234, 500f, 0f, SheetModel.STATE_DRAGGING));
+        assertEquals(SheetModel.STATE_ANCHOR,
+                model.getTargetState(1234, -500f, 0f, SheetModel.STATE_DRAGGING));
+    }
+
+    @Test
+    public void testPresetDetents() {
+        assertEquals(3, model.getDetentCount());
+        assertEquals(0, model.getDetentForState(SheetModel.STATE_EXPANDED));
+        assertEquals(1, model.getDetentForState(SheetModel.STATE_ANCHOR));
+        assertEquals(2, model.getDetentForState(SheetModel.STATE_COLLAPSED));
+        assertEquals(SheetModel.DETENT_HIDDEN, model.getDetentForState(SheetModel.STATE_HIDDEN));
+        assertEquals(1000, model.getDetentTop(1));
+    }
+
+    @Test
+    public void testCustomDetents() {
+        model.setDetentFractions(0.2f, 0.45f, 0.7f, 2f);
+        // expanded, 400, 900, 1400, collapsed; the last fraction is clamped to collapsed
+        assertEquals(5, model.getDetentCount());
+        assertEquals(400, model.getDetentTop(1));
+        assertEquals(1800, model.getDetentTop(4));
+        // anchor rests on the detent closest to the anchor offset
+        assertEquals(2, model.getDetentForState(SheetModel.STATE_ANCHOR));
+        assertEquals(900, model.getTopForState(SheetModel.STATE_ANCHOR));
+        assertEquals(SheetModel.STATE_ANCHOR, model.getStateForDetent(3));
+        assertEquals(SheetModel.STATE_COLLAPSED, model.getStateForDetent(4));
+
+        assertEquals(3, model.getTargetDetent(1300, 0f, 5f));
+        assertEquals(2, model.getTargetDetent(1300, -900f, -5f));
+        assertEquals(3, model.getTargetDetent(1000, 900f, 5f));
+        assertEquals(4, model.getTargetDetent(1500, 900f, 5f));
+        // without a vertical move, the velocity gives the direction
+        assertEquals(3, model.getTargetDetent(1000, 900f, 0f));
+        assertEquals(3, model.getTargetDetent(1100, 900f, 0f));
+        assertEquals(2, model.getTargetDetent(1100, -900f, 0f));
+
+        model.setDetentOffsets(600);
+        assertEquals(3, model.getDetentCount());
+        assertEquals(600, model.getTopForState(SheetModel.STATE_ANCHOR));
+        model.clearDetents();
+        assertEquals(1000, model.getTopForState(SheetModel.STATE_ANCHOR));
+    }
+
+    @Test
+    public void testDetentForTop() {
+        model.setDetentFractions(0.25f, 0.75f);
+        assertEquals(0, model.getDetentForTop(-50));
+        assertEquals(1, model.getDetentForTop(500));
+        assertEquals(3, model.getDetentForTop(1900));
+    }
+
+    @Test
+    public void testDetentsFollowParentSize() {
+        model.setDetentFractions(0.25f, 0.75f);
+        model.setParentSize(1080, 1000);
+        assertEquals(250, model.getDetentTop(1));
+        assertEquals(750, model.getDetentTop(2));
+        assertEquals(800, model.getDetentTop(3));
+    }
+
+    @Test
+    public void testSlideOffset() {
+        assertEquals(1f, model.getSlideOffset(0), 0.0001f);
+        assertEquals(0f, model.getSlideOffset(1800), 0.0001f);
+        assertEquals(-1f, model.getSlideOffset(2000), 0.0001f);
+    }
+
+    @Test
+    public void testTopForSlideOffset() {
+        for (int top = 0; top <= 2000; top += 125) {
+            assertEquals(top, model.getTopForSlideOffset(model.getSlideOffset(top)));
+        }
+        // the same offset in a smaller parent
+        float offset = model.getSlideOffset(900);
+        model.setParentSize(2000, 1080);
+        assertEquals(440, model.getTopForSlideOffset(offset));
+    }
+
+    @Test
+    public void testSettleDuration() {
+        assertEquals(0, model.computeSettleDuration(0, 1000));
+        assertEquals(200, model.computeSettleDuration(800, 0));
+        assertEquals(200, model.computeSettleDuration(800, 3000));
+    }
+}
@@ -0,0 +1,84 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for SlideBindings.
+ */
+public class SlideBindingsTest {
+
+    private SlideBindings bindings;
+
+    @Before
+    public void setUp() {
+        bindings = new SlideBindings();
+    }
+
+    @Test
+    public void testLinearBinding() {
+        int alpha = bindings.add(SlideBindings.PROPERTY_ALPHA, 0f, 1f, 0f, 1f, SlideBindings.CURVE_LINEAR);
+        assertTrue(bindings.evaluate(0.25f));
+        assertEquals(0.25f, bindings.getValue(alpha), 0.0001f);
+        // clamped outside the range
+        bindings.evaluate(-0.5f);
+        assertEquals(0f, bindings.getValue(alpha), 0f);
+        bindings.evaluate(1f);
+        assertEquals(1f, bindings.getValue(alpha), 0f);
+    }
+
+    @Test
+    public void testReversedRangeAndCurves() {
+        int translation = bindings.add(SlideBindings.PROPERTY_TRANSLATION_Y, 1f, 0f, 0f, 200f,
+                SlideBindings.CURVE_LINEAR);
+        int accelerate = bindings.add(SlideBindings.PROPERTY_SCALE_X, 0f, 1f, 0f, 1f,
+                SlideBindings.CURVE_ACCELERATE);
+        int decelerate = bindings.add(SlideBindings.PROPERTY_SCALE_Y, 0f, 1f, 0f, 1f,
+                SlideBindings.CURVE_DECELERATE);
+        int both = bindings.add(SlideBindings.PROPERTY_ROTATION, 0f, 1f, 0f, 1f,
+                SlideBindings.CURVE_ACCELERATE_DECELERATE);
+        bindings.evaluate(0.5f);
+        assertEquals(100f, bindings.getValue(translation), 0.001f);
+        assertEquals(0.25f, bindings.getValue(accelerate), 0.0001f);
+        assertEquals(0.75f, bindings.getValue(decelerate), 0.0001f);
+        assertEquals(0.5f, bindings.getValue(both), 0.0001f);
+    }
+
+    @Test
+    public void testStepBinding() {
+        int alpha = bindings.add(SlideBindings.PROPERTY_ALPHA, 0.5f, 0.5f, 1f, 0f, SlideBindings.CURVE_LINEAR);
+        bindings.evaluate(0.4f);
+        assertEquals(1f, bindings.getValue(alpha), 0f);
+        bindings.evaluate(0.5f);
+        assertEquals(0f, bindings.getValue(alpha), 0f);
+    }
+
+    @Test
+    public void testSameOffsetIsSkipped() {
+        bindings.add(SlideBindings.PROPERTY_ALPHA, 0f, 1f, 0f, 1f, SlideBindings.CURVE_LINEAR);
+        assertTrue(bindings.evaluate(0.3f));
+        assertFalse(bindings.evaluate(0.3f));
+        bindings.add(SlideBindings.PROPERTY_ALPHA, 0f, 1f, 1f, 0f, SlideBindings.CURVE_LINEAR);
+        assertTrue(bindings.evaluate(0.3f));
+    }
+
+    @Test
+    public void testRemoveShiftsLaterBindings() {
+        for (int i = 0; i < 6; i++) {
+            bindings.add(SlideBindings.PROPERTY_TRANSLATION_X, 0f, 1f, 0f, i, SlideBindings.CURVE_LINEAR);
+        }
+        bindings.remove(1);
+        assertEquals(5, bindings.size());
+        bindings.evaluate(1f);
+        assertEquals(0f, bindings.getValue(0), 0f);
+        assertEquals(2f, bindings.getValue(1), 0f);
+        assertEquals(5f, bindings.getValue(4), 0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalProperty() {
+        bindings.add(42, 0f, 1f, 0f, 1f, SlideBindings.CURVE_LINEAR);
+    }
+}
@@ -0,0 +1,76 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for SlideFilter.
+ */
+public class SlideFilterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    public void testPassThrough() {
+        SlideFilter filter = new SlideFilter(0f, 0);
+        assertTrue(filter.isPassThrough());
+        assertTrue(filter.accept(0.5f, 0));
+        assertTrue(filter.accept(0.5f, 0));
+        assertTrue(filter.accept(0.5001f, 0));
+    }
+
+    @Test
+    public void testMinDelta() {
+        SlideFilter filter = new SlideFilter(0.1f, 0);
+        assertFalse(filter.isRateLimited());
+        assertTrue(filter.accept(0f, 0));
+        assertFalse(filter.accept(0.05f, 0));
+        assertFalse(filter.accept(-0.09f, 0));
+        assertTrue(filter.accept(0.1f, 0));
+        assertFalse(filter.accept(0.15f, 0));
+    }
+
+    @Test
+    public void testMaxRate() {
+        SlideFilter filter = new SlideFilter(0f, 60);
+        assertTrue(filter.isRateLimited());
+        assertTrue(filter.accept(0f, 0));
+        assertFalse(filter.accept(0.1f, 8 * MILLIS));
+        assertTrue(filter.accept(0.2f, 17 * MILLIS));
+        assertFalse(filter.accept(0.3f, 20 * MILLIS));
+    }
+
+    @Test
+    public void testFlushDeliversHeldBackOffset() {
+        SlideFilter filter = new SlideFilter(0.1f, 0);
+        filter.accept(0f, 0);
+        filter.accept(0.05f, 0);
+        assertTrue(filter.flush(0.05f, 0));
+        assertFalse(filter.flush(0.05f, 0));
+        // nothing held back
+        assertTrue(filter.accept(0.2f, 0));
+        assertFalse(filter.flush(0.2f, 0));
+    }
+
+    @Test
+    public void testMinDeltaIgnoresTheClock() {
+        SlideFilter filter = new SlideFilter(0.1f, 0);
+        filter.accept(0f, 0);
+        filter.accept(0.05f, 0);
+        // a flush at a real time, then offsets without time as for filters without a rate limit
+        assertTrue(filter.flush(0.05f, 5_000_000_000L));
+        assertTrue(filter.accept(0.2f, 0));
+        assertTrue(filter.accept(0.3f, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDelta() {
+        new SlideFilter(-1f, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRate() {
+        new SlideFilter(0f, -30);
+    }
+}
@@ -0,0 +1,173 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the conflating deliveries of SnapshotStream.
+ */
+public class SnapshotStreamTest {
+
+    private SnapshotStream stream;
+    private Queue<Runnable> tasks;
+    private List<SheetSnapshot> received;
+
+    @Before
+    public void setUp() {
+        stream = new SnapshotStream();
+        tasks = new ArrayDeque<>();
+        received = new ArrayList<>();
+    }
+
+    @Test
+    public void testSlowConsumerReceivesLatest() {
+        stream.subscribe(tasks::add, received::add, null);
+        for (int i = 0; i < 100; i++) {
+            stream.publish(new SheetSnapshot(SheetModel.STATE_DRAGGING, i / 100f, i));
+        }
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(1, received.size());
+        assertEquals(99L, received.get(0).getTimestampNanos());
+        stream.publish(new SheetSnapshot(SheetModel.STATE_EXPANDED, 1f, 100));
+        runTasks();
+        assertEquals(2, received.size());
+        assertEquals(SheetModel.STATE_EXPANDED, received.get(1).getState());
+    }
+
+    @Test
+    public void testPublishedValuesAreDeliveredAsSnapshot() {
+        stream.subscribe(tasks::add, received::add, null);
+        stream.publish(SheetModel.STATE_DRAGGING, 0.25f, 7);
+        stream.publish(SheetModel.STATE_SETTLING, 0.5f, 8);
+        runTasks();
+        assertEquals(1, received.size());
+        assertEquals(SheetModel.STATE_SETTLING, received.get(0).getState());
+        assertEquals(0.5f, received.get(0).getSlideOffset(), 0f);
+        assertEquals(8L, received.get(0).getTimestampNanos());
+        runTasks();
+        assertEquals(1, received.size());
+    }
+
+    @Test
+    public void testInitialSnapshot() {
+        stream.subscribe(tasks::add, received::add, new SheetSnapshot(SheetModel.STATE_COLLAPSED, 0f, 1));
+        runTasks();
+        assertEquals(1, received.size());
+        assertEquals(SheetModel.STATE_COLLAPSED, received.get(0).getState());
+    }
+
+    @Test
+    public void testCancel() {
+        SnapshotStream.Subscription subscription = stream.subscribe(tasks::add, received::add, null);
+        assertTrue(stream.hasSubscribers());
+        stream.publish(new SheetSnapshot(SheetModel.STATE_DRAGGING, 0.5f, 1));
+        subscription.cancel();
+        assertTrue(subscription.isCancelled());
+        assertFalse(stream.hasSubscribers());
+        runTasks();
+        stream.publish(new SheetSnapshot(SheetModel.STATE_DRAGGING, 0.6f, 2));
+        runTasks();
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentDeliveryIsSerialAndOrdered() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        long[] last = {-1};
+        int[] outOfOrder = {0};
+        CountDownLatch done = new CountDownLatch(1);
+        int count = 100_000;
+        stream.subscribe(executor, snapshot -> {
+            if (running.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            if (snapshot.getTimestampNanos() <= last[0]) {
+                outOfOrder[0]++;
+            }
+            last[0] = snapshot.getTimestampNanos();
+            running.decrementAndGet();
+            if (snapshot.getTimestampNanos() == count - 1) {
+                done.countDown();
+            }
+        }, null);
+        for (int i = 0; i < count; i++) {
+            stream.publish(new SheetSnapshot(SheetModel.STATE_DRAGGING, 0f, i));
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, overlaps.get());
+        assertEquals(0, outOfOrder[0]);
+    }
+
+    @Test
+    public void testThrowingConsumerKeepsReceiving() {
+        stream.subscribe(tasks::add, snapshot -> {
+            received.add(snapshot);
+            if (received.size() == 1) {
+                throw new IllegalStateException("consumer failure");
+            }
+        }, null);
+        stream.publish(new SheetSnapshot(SheetModel.STATE_DRAGGING, 0.5f, 0));
+        try {
+            runTasks();
+            fail("the consumer failure was swallowed");
+        } catch (IllegalStateException expected) {
+            // the executor sees the failure of its task
+        }
+        stream.publish(new SheetSnapshot(SheetModel.STATE_EXPANDED, 1f, 1));
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(2, received.size());
+        assertEquals(SheetModel.STATE_EXPANDED, received.get(1).getState());
+    }
+
+    @Test
+    public void testRejectedDeliveryIsScheduledAgain() {
+        AtomicInteger rejections = new AtomicInteger(1);
+        stream.subscribe(task -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("queue full");
+            }
+            tasks.add(task);
+        }, received::add, null);
+        try {
+            stream.publish(new SheetSnapshot(SheetModel.STATE_DRAGGING, 0.5f, 0));
+            fail("the rejection was swallowed");
+        } catch (RejectedExecutionException expected) {
+            // the publisher sees the rejection
+        }
+        stream.publish(new SheetSnapshot(SheetModel.STATE_EXPANDED, 1f, 1));
+        assertEquals(1, tasks.size());
+        runTasks();
+        assertEquals(1, received.size());
+        assertEquals(SheetModel.STATE_EXPANDED, received.get(0).getState());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullConsumer() {
+        stream.subscribe(tasks::add, null, null);
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.hardsoftstudio.anchorsheetlayout.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the velocity estimates of VelocityTracker.
+ */
+public class VelocityTrackerTest {
+
+    private VelocityTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new VelocityTracker();
+    }
+
+    @Test
+    public void testNoSamples() {
+        tracker.computeVelocity();
+        assertEquals(0f, tracker.getXVelocity(), 0f);
+        tracker.addSample(0, 10f, 10f);
+        tracker.computeVelocity();
+        assertEquals(0f, tracker.getYVelocity(), 0f);
+    }
+
+    @Test
+    public void testConstantVelocity() {
+        // 240 Hz panel, 2000 px/s down and 500 px/s left
+        for (int i = 0; i <= 60; i++) {
+            long time = i * 1000L / 240;
+            tracker.addSample(time, 800f - 0.5f * time, 300f + 2f * time);
+        }
+        tracker.computeVelocity();
+        assertEquals(-500f, tracker.getXVelocity(), 1f);
+        assertEquals(2000f, tracker.getYVelocity(), 1f);
+    }
+
+    @Test
+    public void testOldSamplesAreIgnored() {
+        // fast upwards, then slow downwards within the horizon
+        for (long time = 0; time < 200; time += 8) {
+            tracker.addSample(time, 0f, 2000f - 5f * time);
+        }
+        float y = 2000f - 5f * 192;
+        for (long time = 200; time <= 400; time += 8) {
+            y += 8f;
+            tracker.addSample(time, 0f, y);
+        }
+        tracker.computeVelocity();
+        assertEquals(1000f, tracker.getYVelocity(), 1f);
+    }
+
+    @Test
+    public void testPauseStopsTheEstimate() {
+        for (long time = 0; time <= 80; time += 8) {
+            tracker.addSample(time, 0f, 3f * time);
+        }
+        // held still, then lifted
+        tracker.addSample(80 + VelocityTracker.PAUSE_MILLIS + 10, 0f, 240f);
+        tracker.computeVelocity();
+        assertEquals(0f, tracker.getYVelocity(), 0f);
+    }
+
+    @Test
+    public void testOutlierIsRejected() {
+        for (long time = 0; time <= 80; time += 8) {
+            float y = 1000f - time;
+            tracker.addSample(time, 0f, time == 40 ? y + 60f : y);
+        }
+        tracker.computeVelocity();
+        assertEquals(-1000f, tracker.getYVelocity(), 1f);
+    }
+
+    @Test
+    public void testOutlierIsRejectedInShortWindow() {
+        // five samples, the least the tracker looks for an outlier in
+        for (long time = 0; time <= 32; time += 8) {
+            float y = 1000f - time;
+            tracker.addSample(time, 0f, time == 8 ? y + 30f : y);
+        }
+        tracker.computeVelocity();
+        assertEquals(-1000f, tracker.getYVelocity(), 1f);
+    }
+
+    @Test
+    public void testNewestOutlierIsRejectedInShortWindow() {
+        for (long time = 0; time <= 32; time += 8) {
+            float y = 1000f - time;
+            tracker.addSample(time, 0f, time == 32 ? y + 30f : y);
+        }
+        tracker.computeVelocity();
+        assertEquals(-1000f, tracker.getYVelocity(), 1f);
+    }
+
+    @Test
+    public void testNoiseIsNotAnOutlier() {
+        // jitter of a pixel is touch noise: every sample stays in the fit
+        float[] jitter = {0.8f, -1f, 0.5f, -0.6f, 1f};
+        double sumT = 0;
+        double sumV = 0;
+        double sumTT = 0;
+        double sumTV = 0;
+        for (int i = 0; i < jitter.length; i++) {
+            long time = i * 8L;
+            float y = 1000f - time + jitter[i];
+            tracker.addSample(time, 0f, y);
+            double t = time / 1000.0;
+            sumT += t;
+            sumV += y;
+            sumTT += t * t;
+            sumTV += t * y;
+        }
+        int n = jitter.length;
+        double slope = (n * sumTV - sumT * sumV) / (n * sumTT - sumT * sumT);
+        tracker.computeVelocity();
+        assertEquals(slope, tracker.getYVelocity(), 0.5);
+    }
+
+    @Test
+    public void testSameTimeReplacesSample() {
+        tracker.addSample(0, 0f, 0f);
+        tracker.addSample(10, 0f, 50f);
+        tracker.addSample(10, 0f, 10f);
+        tracker.computeVelocity();
+        assertEquals(1000f, tracker.getYVelocity(), 0.01f);
+    }
+
+    @Test
+    public void testClear() {
+        tracker.addSample(0, 0f, 0f);
+        tracker.addSample(10, 0f, 10f);
+        tracker.clear();
+        tracker.addSample(20, 0f, 100f);
+        tracker.computeVelocity();
+        assertEquals(0f, tracker.getYVelocity(), 0f);
+    }
+}
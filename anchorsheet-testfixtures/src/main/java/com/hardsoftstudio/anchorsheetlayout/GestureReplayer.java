@@ -0,0 +1,237 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.GestureRecording;
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.Component;
+import ohos.agp.components.FakeWindow;
+import java.util.Arrays;
+
+/**
+ * Replays a {@link GestureRecording} through the touch listener of an AnchorSheetLayout, and so
+ * through its DragHelper, on the stand-in window. The settle animations run on the
+ * {@link FakeAnimatorClock} at a fixed frame interval, with the times of the recording, so a
+ * replay gives the same trace every time. The trace holds the state and top of the sheet after
+ * every event and every animation frame, and the time spent handling the events.
+ */
+public class GestureReplayer {
+
+    // Longest time the replay waits for the last settle to end, in milliseconds
+    private static final long MAX_SETTLE_MILLIS = 10_000;
+
+    private final AnchorSheetLayout layout;
+    private final Component child;
+    private final long frameMillis;
+
+    /**
+     * Creates the replayer.
+     *
+     * @param layout      bound layout with its child
+     * @param frameMillis interval of the animation frames in milliseconds
+     */
+    public GestureReplayer(AnchorSheetLayout layout, long frameMillis) {
+        if (frameMillis <= 0) {
+            throw new IllegalArgumentException("Illegal frame interval: " + frameMillis);
+        }
+        this.layout = layout;
+        this.child = layout.getComponentAt(0);
+        this.frameMillis = frameMillis;
+    }
+
+    /**
+     * Replays every event of the recording, then the frames of the settle it started.
+     *
+     * @param recording gesture to replay
+     * @return the trace of the sheet
+     */
+    public Trace replay(GestureRecording recording) {
+        Trace trace = new Trace();
+        RecordedTouchEvent event = new RecordedTouchEvent(recording);
+        long base = FakeAnimatorClock.now();
+        long start = recording.size() == 0 ? 0 : recording.getTime(0);
+        long frame = base;
+        for (int i = 0; i < recording.size(); i++) {
+            long time = base + recording.getTime(i) - start;
+            while (frame + frameMillis <= time) {
+                frame += frameMillis;
+                runFrame(trace, frame, base);
+            }
+            FakeAnimatorClock.setTime(time);
+            event.moveTo(i);
+            long startNanos = System.nanoTime();
+            FakeWindow.dispatchTouchEvent(child, event);
+            trace.addEventNanos(System.nanoTime() - startNanos);
+            trace.add(time - base, true, layout.getState(), child.getContentPositionY());
+        }
+        long end = frame + MAX_SETTLE_MILLIS;
+        while (FakeAnimatorClock.hasRunningAnimators() && frame < end) {
+            frame += frameMillis;
+            runFrame(trace, frame, base);
+        }
+        return trace;
+    }
+
+    // advances the animations to the frame time and traces the frame if anything ran
+    private void runFrame(Trace trace, long frame, long base) {
+        if (FakeAnimatorClock.hasRunningAnimators()) {
+            FakeAnimatorClock.advanceTo(frame);
+            trace.add(frame - base, false, layout.getState(), child.getContentPositionY());
+        } else {
+            FakeAnimatorClock.setTime(frame);
+        }
+    }
+
+    /**
+     * State and top of the sheet after every replayed event and animation frame.
+     */
+    public static final class Trace {
+        private static final int INITIAL_CAPACITY = 64;
+
+        private int size;
+        private long[] times = new long[INITIAL_CAPACITY];
+        private boolean[] events = new boolean[INITIAL_CAPACITY];
+        private int[] states = new int[INITIAL_CAPACITY];
+        private float[] tops = new float[INITIAL_CAPACITY];
+
+        private int eventCount;
+        private long totalEventNanos;
+        private long maxEventNanos;
+
+        void add(long time, boolean event, int state, float top) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                events = Arrays.copyOf(events, capacity);
+                states = Arrays.copyOf(states, capacity);
+                tops = Arrays.copyOf(tops, capacity);
+            }
+            times[size] = time;
+            events[size] = event;
+            states[size] = state;
+            tops[size] = top;
+            size++;
+        }
+
+        void addEventNanos(long nanos) {
+            eventCount++;
+            totalEventNanos += nanos;
+            maxEventNanos = Math.max(maxEventNanos, nanos);
+        }
+
+        /**
+         * Returns the number of entries.
+         *
+         * @return count of events and frames
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Returns the time of an entry since the first event.
+         *
+         * @param index index of the entry
+         * @return time in milliseconds
+         */
+        public long getTime(int index) {
+            return times[index];
+        }
+
+        /**
+         * Returns whether an entry follows an event rather than an animation frame.
+         *
+         * @param index index of the entry
+         * @return true for an event
+         */
+        public boolean isEvent(int index) {
+            return events[index];
+        }
+
+        /**
+         * Returns the state of the sheet at an entry.
+         *
+         * @param index index of the entry
+         * @return one of the AnchorSheetLayout states
+         */
+        public int getState(int index) {
+            return states[index];
+        }
+
+        /**
+         * Returns the top of the sheet at an entry.
+         *
+         * @param index index of the entry
+         * @return top in pixels
+         */
+        public float getTop(int index) {
+            return tops[index];
+        }
+
+        /**
+         * Returns the state of the sheet at the end of the replay.
+         *
+         * @return one of the AnchorSheetLayout states, or -1 if nothing was replayed
+         */
+        public int getFinalState() {
+            return size == 0 ? -1 : states[size - 1];
+        }
+
+        /**
+         * Returns the top of the sheet at the end of the replay.
+         *
+         * @return top in pixels, or NaN if nothing was replayed
+         */
+        public float getFinalTop() {
+            return size == 0 ? Float.NaN : tops[size - 1];
+        }
+
+        /**
+         * Returns the time spent handling the events, which unlike the rest of the trace varies
+         * from one replay to the next.
+         *
+         * @return time in nanoseconds
+         */
+        public long getTotalEventNanos() {
+            return totalEventNanos;
+        }
+
+        /**
+         * Returns the longest time spent handling one event.
+         *
+         * @return time in nanoseconds
+         */
+        public long getMaxEventNanos() {
+            return maxEventNanos;
+        }
+
+        /**
+         * Returns whether another trace has the same entries, whatever the timings.
+         *
+         * @param other trace to compare with
+         * @return true if the sheet went through the same states and tops at the same times
+         */
+        public boolean sameAs(Trace other) {
+            if (size != other.size) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (times[i] != other.times[i] || events[i] != other.events[i] || states[i] != other.states[i]
+                        || Float.compare(tops[i], other.tops[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                builder.append(times[i]).append(events[i] ? " event " : " frame ")
+                        .append(states[i]).append(' ').append(tops[i]).append('\n');
+            }
+            builder.append(eventCount).append(" events in ").append(totalEventNanos)
+                    .append(" ns, longest ").append(maxEventNanos).append(" ns\n");
+            return builder.toString();
+        }
+    }
+}
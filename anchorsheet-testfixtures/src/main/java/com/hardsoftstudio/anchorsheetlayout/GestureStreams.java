@@ -0,0 +1,82 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.multimodalinput.event.MmiPoint;
+import ohos.multimodalinput.event.TouchEvent;
+
+/**
+ * Builds synthetic touch streams for the benchmarks and the JVM tests.
+ */
+public final class GestureStreams {
+
+    // Touch sampling rate of the simulated panel
+    public static final int SAMPLE_RATE_HZ = 120;
+
+    // Events in one drag: a down, the moves and an up
+    public static final int DRAG_EVENTS = 64;
+
+    private GestureStreams() {
+    }
+
+    /**
+     * Creates a vertical drag which starts at startY, travels by distance pixels with a smooth
+     * velocity profile and ends with a pointer up.
+     *
+     * @param x        X coordinate of the pointer
+     * @param startY   Y coordinate of the pointer down
+     * @param distance vertical distance travelled, negative for an upward drag
+     * @return DRAG_EVENTS events ordered by time
+     */
+    public static TouchEvent[] drag(float x, float startY, float distance) {
+        TouchEvent[] events = new TouchEvent[DRAG_EVENTS];
+        long frame = 1000L / SAMPLE_RATE_HZ;
+        int moves = DRAG_EVENTS - 2;
+        events[0] = new SyntheticTouchEvent(TouchEvent.PRIMARY_POINT_DOWN, x, startY, 0);
+        float y = startY;
+        for (int i = 1; i <= moves; i++) {
+            float progress = (float) i / moves;
+            y = startY + distance * (float) (0.5 - 0.5 * Math.cos(Math.PI * progress));
+            events[i] = new SyntheticTouchEvent(TouchEvent.POINT_MOVE, x, y, i * frame);
+        }
+        events[DRAG_EVENTS - 1] = new SyntheticTouchEvent(TouchEvent.PRIMARY_POINT_UP, x, y,
+                (DRAG_EVENTS - 1) * frame);
+        return events;
+    }
+
+    /**
+     * Creates a tap: a pointer down, moves which wobble by up to jitter pixels around it, as a
+     * finger does, and a pointer up.
+     *
+     * @param x      X coordinate of the pointer
+     * @param y      Y coordinate of the pointer
+     * @param jitter largest vertical distance of the moves from the pointer down
+     * @return the events ordered by time
+     */
+    public static TouchEvent[] tap(float x, float y, float jitter) {
+        long frame = 1000L / SAMPLE_RATE_HZ;
+        return new TouchEvent[] {
+            new SyntheticTouchEvent(TouchEvent.PRIMARY_POINT_DOWN, x, y, 0),
+            new SyntheticTouchEvent(TouchEvent.POINT_MOVE, x, y + jitter, frame),
+            new SyntheticTouchEvent(TouchEvent.POINT_MOVE, x, y - jitter, 2 * frame),
+            new SyntheticTouchEvent(TouchEvent.PRIMARY_POINT_UP, x, y, 3 * frame)
+        };
+    }
+
+    /**
+     * Moves a stream to a component which is not at the origin of the screen: the positions in
+     * the component are kept, the positions on the screen are offset.
+     *
+     * @param events  the events, with single pointers
+     * @param screenX X coordinate of the origin of the component on the screen
+     * @param screenY Y coordinate of the origin of the component on the screen
+     * @return the moved events
+     */
+    public static TouchEvent[] onScreenAt(TouchEvent[] events, float screenX, float screenY) {
+        TouchEvent[] moved = new TouchEvent[events.length];
+        for (int i = 0; i < events.length; i++) {
+            MmiPoint position = events[i].getPointerPosition(0);
+            moved[i] = new SyntheticTouchEvent(events[i].getAction(), position.getX(), position.getY(),
+                    events[i].getOccurredTime(), screenX, screenY);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,68 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.GestureRecording;
+import ohos.multimodalinput.event.MmiPoint;
+import ohos.multimodalinput.event.TouchEvent;
+
+/**
+ * Touch event which reads an event of a {@link GestureRecording}; one instance is moved over
+ * every event of the recording during a replay.
+ */
+public class RecordedTouchEvent extends TouchEvent {
+    private final GestureRecording recording;
+    private int event;
+
+    /**
+     * Creates the event, positioned on the first event of the recording.
+     *
+     * @param recording recording to read
+     */
+    public RecordedTouchEvent(GestureRecording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Moves to another event of the recording.
+     *
+     * @param event index of the event
+     */
+    public void moveTo(int event) {
+        this.event = event;
+    }
+
+    @Override
+    public int getAction() {
+        return recording.getAction(event);
+    }
+
+    @Override
+    public int getIndex() {
+        return recording.getActionIndex(event);
+    }
+
+    @Override
+    public int getPointerCount() {
+        return recording.getPointerCount(event);
+    }
+
+    @Override
+    public int getPointerId(int index) {
+        return recording.getPointerId(event, index);
+    }
+
+    @Override
+    public MmiPoint getPointerPosition(int index) {
+        return new MmiPoint(recording.getX(event, index), recording.getY(event, index));
+    }
+
+    @Override
+    public MmiPoint getPointerScreenPosition(int index) {
+        return new MmiPoint(recording.getX(event, index) + recording.getOffsetX(event),
+                recording.getY(event, index) + recording.getOffsetY(event));
+    }
+
+    @Override
+    public long getOccurredTime() {
+        return recording.getTime(event);
+    }
+}
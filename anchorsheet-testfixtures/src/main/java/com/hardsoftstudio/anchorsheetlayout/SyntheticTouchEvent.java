@@ -0,0 +1,83 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.multimodalinput.event.MmiPoint;
+import ohos.multimodalinput.event.TouchEvent;
+
+/**
+ * Single pointer touch event with a fixed action, position and time, used to build synthetic
+ * gesture streams.
+ */
+public class SyntheticTouchEvent extends TouchEvent {
+    private final int action;
+    private final float x;
+    private final float y;
+    private final long time;
+    private final float screenX;
+    private final float screenY;
+
+    /**
+     * Creates the event.
+     *
+     * @param action action of the event, one of the {@link TouchEvent} constants
+     * @param x      X coordinate of the pointer
+     * @param y      Y coordinate of the pointer
+     * @param time   occurrence time in milliseconds
+     */
+    public SyntheticTouchEvent(int action, float x, float y, long time) {
+        this(action, x, y, time, 0f, 0f);
+    }
+
+    /**
+     * Creates the event of a component which is not at the origin of the screen.
+     *
+     * @param action  action of the event, one of the {@link TouchEvent} constants
+     * @param x       X coordinate of the pointer
+     * @param y       Y coordinate of the pointer
+     * @param time    occurrence time in milliseconds
+     * @param screenX X coordinate of the origin of the component on the screen
+     * @param screenY Y coordinate of the origin of the component on the screen
+     */
+    public SyntheticTouchEvent(int action, float x, float y, long time, float screenX, float screenY) {
+        this.action = action;
+        this.x = x;
+        this.y = y;
+        this.time = time;
+        this.screenX = screenX;
+        this.screenY = screenY;
+    }
+
+    @Override
+    public int getAction() {
+        return action;
+    }
+
+    @Override
+    public int getIndex() {
+        return 0;
+    }
+
+    @Override
+    public int getPointerCount() {
+        return 1;
+    }
+
+    @Override
+    public int getPointerId(int index) {
+        return 0;
+    }
+
+    @Override
+    public MmiPoint getPointerPosition(int index) {
+        return new MmiPoint(x, y);
+    }
+
+    @Override
+    public MmiPoint getPointerScreenPosition(int index) {
+        return new MmiPoint(screenX + x, screenY + y);
+    }
+
+    @Override
+    public long getOccurredTime() {
+        return time;
+    }
+}
@@ -0,0 +1,23 @@
+package ohos.aafwk.content;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code IntentParams}, for running the library on a plain JVM.
+ */
+public class IntentParams {
+    private final Map<String, Object> params = new HashMap<>();
+
+    public boolean hasParam(String key) {
+        return params.containsKey(key);
+    }
+
+    public void setParam(String key, Object value) {
+        params.put(key, value);
+    }
+
+    public Object getParam(String key) {
+        return params.get(key);
+    }
+}
@@ -0,0 +1,106 @@
+package ohos.agp.animation;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code Animator}, for running the library on a plain JVM.
+ * Animators never run by themselves; they move when the {@link FakeAnimatorClock} is advanced.
+ */
+public class Animator {
+    /**
+     * Animation curves.
+     */
+    public static final class CurveType {
+        public static final int LINEAR = 0;
+        public static final int ACCELERATE_DECELERATE = 1;
+        public static final int DECELERATE = 3;
+
+        private CurveType() {
+        }
+    }
+
+    /**
+     * Listener for animator state changes.
+     */
+    public interface StateChangedListener {
+        void onStart(Animator animator);
+
+        void onStop(Animator animator);
+
+        void onCancel(Animator animator);
+
+        void onEnd(Animator animator);
+
+        void onPause(Animator animator);
+
+        void onResume(Animator animator);
+    }
+
+    private long duration;
+    private int loopedCount;
+    private int curveType;
+    private boolean running;
+    private long startTime;
+    private StateChangedListener stateChangedListener;
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setLoopedCount(int count) {
+        this.loopedCount = count;
+    }
+
+    public void setCurveType(int curveType) {
+        this.curveType = curveType;
+    }
+
+    public void setStateChangedListener(StateChangedListener listener) {
+        this.stateChangedListener = listener;
+    }
+
+    public void start() {
+        running = true;
+        startTime = FakeAnimatorClock.now();
+        FakeAnimatorClock.started(this);
+        if (stateChangedListener != null) {
+            stateChangedListener.onStart(this);
+        }
+    }
+
+    public void cancel() {
+        if (running) {
+            running = false;
+            FakeAnimatorClock.stopped(this);
+            if (stateChangedListener != null) {
+                stateChangedListener.onCancel(this);
+            }
+        }
+    }
+
+    public void end() {
+        if (running) {
+            running = false;
+            FakeAnimatorClock.stopped(this);
+            if (stateChangedListener != null) {
+                stateChangedListener.onEnd(this);
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    void onFrame(long now) {
+        if (now - startTime >= duration) {
+            end();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ohos.agp.animation;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code AnimatorValue}, for running the library on a plain
+ * JVM.
+ */
+public class AnimatorValue extends Animator {
+    /**
+     * Listener for animation value updates.
+     */
+    public interface ValueUpdateListener {
+        void onUpdate(AnimatorValue animatorValue, float value);
+    }
+
+    private ValueUpdateListener valueUpdateListener;
+
+    public void setValueUpdateListener(ValueUpdateListener listener) {
+        this.valueUpdateListener = listener;
+    }
+
+    @Override
+    void onFrame(long now) {
+        long duration = getDuration();
+        float fraction = duration <= 0 ? 1f : Math.min(1f, (float) (now - getStartTime()) / duration);
+        if (valueUpdateListener != null) {
+            valueUpdateListener.onUpdate(this, fraction);
+        }
+        if (fraction >= 1f) {
+            end();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ohos.agp.animation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic clock of the stand-in animators: a started animator only moves when the clock is
+ * advanced, and then reports the fraction of its duration elapsed on the clock.
+ */
+public final class FakeAnimatorClock {
+    private static final List<Animator> RUNNING = new ArrayList<>();
+    private static long now;
+
+    private FakeAnimatorClock() {
+    }
+
+    /**
+     * Returns the time of the clock.
+     *
+     * @return time in milliseconds
+     */
+    public static long now() {
+        return now;
+    }
+
+    /**
+     * Moves the clock to the given time without running a frame, e.g. to the time of an input
+     * event, so the animators it starts begin at that time.
+     *
+     * @param millis time in milliseconds, not before the current time
+     */
+    public static void setTime(long millis) {
+        now = Math.max(now, millis);
+    }
+
+    /**
+     * Moves the clock to the given time and runs one frame of every running animator.
+     *
+     * @param millis time in milliseconds, not before the current time
+     */
+    public static void advanceTo(long millis) {
+        now = Math.max(now, millis);
+        Animator[] animators = RUNNING.toArray(new Animator[0]);
+        for (Animator animator : animators) {
+            animator.onFrame(now);
+        }
+    }
+
+    /**
+     * Returns whether an animator is running.
+     *
+     * @return true if an animator waits for frames
+     */
+    public static boolean hasRunningAnimators() {
+        return !RUNNING.isEmpty();
+    }
+
+    /**
+     * Returns the number of running animators.
+     *
+     * @return count of animators waiting for frames
+     */
+    public static int getRunningCount() {
+        return RUNNING.size();
+    }
+
+    /**
+     * Stops every animator without notifying them and moves the clock back to 0.
+     */
+    public static void reset() {
+        RUNNING.clear();
+        now = 0;
+    }
+
+    static void started(Animator animator) {
+        if (!RUNNING.contains(animator)) {
+            RUNNING.add(animator);
+        }
+    }
+
+    static void stopped(Animator animator) {
+        RUNNING.remove(animator);
+    }
+}
@@ -0,0 +1,16 @@
+package ohos.agp.components;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code Attr}, for running the library on a plain JVM.
+ */
+public interface Attr {
+    String getName();
+
+    String getStringValue();
+
+    int getIntegerValue();
+
+    boolean getBoolValue();
+
+    float getFloatValue();
+}
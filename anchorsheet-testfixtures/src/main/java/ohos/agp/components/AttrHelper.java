@@ -0,0 +1,21 @@
+package ohos.agp.components;
+
+import ohos.app.Context;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code AttrHelper}, for running the library on a plain
+ * JVM. The stand-in display has a density of 1, so a vp is a pixel.
+ */
+public final class AttrHelper {
+
+    private AttrHelper() {
+    }
+
+    public static float getDensity(Context context) {
+        return 1f;
+    }
+
+    public static int vp2px(float vp, Context context) {
+        return Math.round(vp * getDensity(context));
+    }
+}
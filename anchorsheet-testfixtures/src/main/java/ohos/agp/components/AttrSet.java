@@ -0,0 +1,16 @@
+package ohos.agp.components;
+
+import java.util.Optional;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code AttrSet}, for running the library on a plain JVM.
+ */
+public interface AttrSet {
+    Optional<String> getStyle();
+
+    int getLength();
+
+    Optional<Attr> getAttr(int index);
+
+    Optional<Attr> getAttr(String name);
+}
@@ -0,0 +1,252 @@
+package ohos.agp.components;
+
+import ohos.app.Context;
+import ohos.multimodalinput.event.TouchEvent;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code Component}, for running the library on a plain JVM.
+ * It only keeps the geometry and listeners the library uses; nothing is drawn.
+ */
+public class Component {
+    public static final int DRAG_HORIZONTAL = 0;
+    public static final int DRAG_VERTICAL = 1;
+    public static final int DRAG_LEFT = 2;
+    public static final int DRAG_RIGHT = 3;
+    public static final int DRAG_UP = 4;
+    public static final int DRAG_DOWN = 5;
+
+    /**
+     * Listener for window bind and unbind events.
+     */
+    public interface BindStateChangedListener {
+        void onComponentBoundToWindow(Component component);
+
+        void onComponentUnboundFromWindow(Component component);
+    }
+
+    /**
+     * Listener for touch events.
+     */
+    public interface TouchEventListener {
+        boolean onTouchEvent(Component component, TouchEvent touchEvent);
+    }
+
+    /**
+     * Listener for layout refreshes.
+     */
+    public interface LayoutRefreshedListener {
+        void onRefreshed(Component component);
+    }
+
+    private final Context context;
+    private int id = -1;
+    private ComponentParent parent;
+    private int left;
+    private int top;
+    private int right;
+    private int bottom;
+    private float contentPositionX;
+    private float contentPositionY;
+    private float alpha = 1f;
+    private float translationX;
+    private float translationY;
+    private float scaleX = 1f;
+    private float scaleY = 1f;
+    private float rotation;
+    private ComponentContainer.LayoutConfig layoutConfig;
+    private BindStateChangedListener bindStateChangedListener;
+    private TouchEventListener touchEventListener;
+    private LayoutRefreshedListener layoutRefreshedListener;
+    private ComponentTreeObserver treeObserver;
+
+    public Component(Context context) {
+        this(context, null);
+    }
+
+    public Component(Context context, AttrSet attrSet) {
+        this.context = context;
+    }
+
+    public Context getContext() {
+        return context;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public ComponentContainer.LayoutConfig getLayoutConfig() {
+        return layoutConfig;
+    }
+
+    public void setLayoutConfig(ComponentContainer.LayoutConfig config) {
+        this.layoutConfig = config;
+    }
+
+    public ComponentParent getComponentParent() {
+        return parent;
+    }
+
+    void setComponentParent(ComponentParent parent) {
+        this.parent = parent;
+    }
+
+    public void setComponentPosition(int left, int top, int right, int bottom) {
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.contentPositionX = left;
+        this.contentPositionY = top;
+    }
+
+    public int getLeft() {
+        return left;
+    }
+
+    public int getTop() {
+        return top;
+    }
+
+    public int getRight() {
+        return right;
+    }
+
+    public int getBottom() {
+        return bottom;
+    }
+
+    public int getWidth() {
+        return right - left;
+    }
+
+    public int getHeight() {
+        return bottom - top;
+    }
+
+    public float getContentPositionX() {
+        return contentPositionX;
+    }
+
+    public float getContentPositionY() {
+        return contentPositionY;
+    }
+
+    public void setContentPositionX(float x) {
+        this.contentPositionX = x;
+    }
+
+    public void setContentPositionY(float y) {
+        this.contentPositionY = y;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+    public void setAlpha(float alpha) {
+        this.alpha = alpha;
+    }
+
+    public float getTranslationX() {
+        return translationX;
+    }
+
+    public void setTranslationX(float translationX) {
+        this.translationX = translationX;
+    }
+
+    public float getTranslationY() {
+        return translationY;
+    }
+
+    public void setTranslationY(float translationY) {
+        this.translationY = translationY;
+    }
+
+    public float getScaleX() {
+        return scaleX;
+    }
+
+    public void setScaleX(float scaleX) {
+        this.scaleX = scaleX;
+    }
+
+    public float getScaleY() {
+        return scaleY;
+    }
+
+    public void setScaleY(float scaleY) {
+        this.scaleY = scaleY;
+    }
+
+    public float getRotation() {
+        return rotation;
+    }
+
+    public void setRotation(float rotation) {
+        this.rotation = rotation;
+    }
+
+    public int[] getLocationOnScreen() {
+        float x = contentPositionX;
+        float y = contentPositionY;
+        for (ComponentParent p = parent; p instanceof Component; p = ((Component) p).parent) {
+            x += ((Component) p).contentPositionX;
+            y += ((Component) p).contentPositionY;
+        }
+        return new int[] {(int) x, (int) y};
+    }
+
+    public boolean canScroll(int direction) {
+        return false;
+    }
+
+    public void setBindStateChangedListener(BindStateChangedListener listener) {
+        this.bindStateChangedListener = listener;
+    }
+
+    public void setTouchEventListener(TouchEventListener listener) {
+        this.touchEventListener = listener;
+    }
+
+    public void setLayoutRefreshedListener(LayoutRefreshedListener listener) {
+        this.layoutRefreshedListener = listener;
+    }
+
+    /**
+     * Returns the observer of the tree, held by its root.
+     *
+     * @return the observer shared by the components of the tree
+     */
+    public ComponentTreeObserver getComponentTreeObserver() {
+        Component root = this;
+        while (root.parent instanceof Component) {
+            root = (Component) root.parent;
+        }
+        if (root.treeObserver == null) {
+            root.treeObserver = new ComponentTreeObserver();
+        }
+        return root.treeObserver;
+    }
+
+    void dispatchRefreshed() {
+        if (layoutRefreshedListener != null) {
+            layoutRefreshedListener.onRefreshed(this);
+        }
+    }
+
+    void dispatchBound() {
+        if (bindStateChangedListener != null) {
+            bindStateChangedListener.onComponentBoundToWindow(this);
+        }
+    }
+
+    boolean dispatchTouchEvent(TouchEvent event) {
+        return touchEventListener != null && touchEventListener.onTouchEvent(this, event);
+    }
+}
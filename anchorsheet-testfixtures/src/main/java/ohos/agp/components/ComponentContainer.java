@@ -0,0 +1,55 @@
+package ohos.agp.components;
+
+import ohos.app.Context;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code ComponentContainer}, for running the library on a
+ * plain JVM.
+ */
+public class ComponentContainer extends Component implements ComponentParent {
+    public static class LayoutConfig {
+        public static final int MATCH_PARENT = -1;
+        public static final int MATCH_CONTENT = -2;
+
+        public int width;
+        public int height;
+
+        public LayoutConfig(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private final List<Component> children = new ArrayList<>();
+
+    public ComponentContainer(Context context) {
+        this(context, null);
+    }
+
+    public ComponentContainer(Context context, AttrSet attrSet) {
+        super(context, attrSet);
+    }
+
+    public void addComponent(Component component) {
+        children.add(component);
+        component.setComponentParent(this);
+    }
+
+    public void removeComponent(Component component) {
+        if (children.remove(component)) {
+            component.setComponentParent(null);
+        }
+    }
+
+    @Override
+    public int getChildCount() {
+        return children.size();
+    }
+
+    @Override
+    public Component getComponentAt(int index) {
+        return children.get(index);
+    }
+}
@@ -0,0 +1,10 @@
+package ohos.agp.components;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code ComponentParent}, for running the library on a plain JVM.
+ */
+public interface ComponentParent {
+    int getChildCount();
+
+    Component getComponentAt(int index);
+}
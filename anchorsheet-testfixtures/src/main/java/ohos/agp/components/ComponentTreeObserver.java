@@ -0,0 +1,36 @@
+package ohos.agp.components;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code ComponentTreeObserver}, for running the library on
+ * a plain JVM. Only the layout listeners are kept.
+ */
+public class ComponentTreeObserver {
+
+    /**
+     * Listener for layout changes anywhere in the tree.
+     */
+    public interface GlobalLayoutListener {
+        void onGlobalLayoutUpdated();
+    }
+
+    private final List<GlobalLayoutListener> layoutListeners = new ArrayList<>();
+
+    public void addTreeLayoutChangedListener(GlobalLayoutListener listener) {
+        if (!layoutListeners.contains(listener)) {
+            layoutListeners.add(listener);
+        }
+    }
+
+    public void removeTreeLayoutChangedListener(GlobalLayoutListener listener) {
+        layoutListeners.remove(listener);
+    }
+
+    void dispatchLayoutUpdated() {
+        for (GlobalLayoutListener listener : new ArrayList<>(layoutListeners)) {
+            listener.onGlobalLayoutUpdated();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ohos.agp.components;
+
+import ohos.app.Context;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code DirectionalLayout}, for running the library on a
+ * plain JVM.
+ */
+public class DirectionalLayout extends ComponentContainer {
+    public DirectionalLayout(Context context) {
+        this(context, null);
+    }
+
+    public DirectionalLayout(Context context, AttrSet attrSet) {
+        super(context, attrSet);
+    }
+}
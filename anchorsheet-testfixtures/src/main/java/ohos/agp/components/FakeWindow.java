@@ -0,0 +1,59 @@
+package ohos.agp.components;
+
+import ohos.multimodalinput.event.TouchEvent;
+
+/**
+ * Drives the stand-in components the way a window would: binds a component tree and delivers
+ * touch events to the listener of a component.
+ */
+public final class FakeWindow {
+    private FakeWindow() {
+    }
+
+    /**
+     * Binds the component and its descendants, parents first.
+     *
+     * @param component root of the tree to bind
+     */
+    public static void bind(Component component) {
+        component.dispatchBound();
+        if (component instanceof ComponentContainer) {
+            ComponentContainer container = (ComponentContainer) component;
+            for (int i = 0; i < container.getChildCount(); i++) {
+                bind(container.getComponentAt(i));
+            }
+        }
+    }
+
+    /**
+     * Notifies the component and its descendants that their layout was refreshed, then the
+     * observer of the tree.
+     *
+     * @param component root of the subtree which was laid out
+     */
+    public static void layout(Component component) {
+        refresh(component);
+        component.getComponentTreeObserver().dispatchLayoutUpdated();
+    }
+
+    private static void refresh(Component component) {
+        component.dispatchRefreshed();
+        if (component instanceof ComponentContainer) {
+            ComponentContainer container = (ComponentContainer) component;
+            for (int i = 0; i < container.getChildCount(); i++) {
+                refresh(container.getComponentAt(i));
+            }
+        }
+    }
+
+    /**
+     * Delivers the event to the touch listener of the component.
+     *
+     * @param component component receiving the event
+     * @param event     the event
+     * @return whether the listener consumed the event
+     */
+    public static boolean dispatchTouchEvent(Component component, TouchEvent event) {
+        return component.dispatchTouchEvent(event);
+    }
+}
@@ -0,0 +1,7 @@
+package ohos.app;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code Context}, for running the library on a plain JVM.
+ */
+public interface Context {
+}
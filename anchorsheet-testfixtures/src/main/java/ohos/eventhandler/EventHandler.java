@@ -0,0 +1,30 @@
+package ohos.eventhandler;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code EventHandler}, for running the library on a plain JVM.
+ * Posted tasks are queued on the runner of the handler and only run by
+ * {@link FakeEventLoop#runPendingTasks()}; delays and priorities are ignored.
+ */
+public class EventHandler {
+    private final EventRunner runner;
+
+    public EventHandler(EventRunner runner) {
+        this.runner = runner;
+    }
+
+    public enum Priority {
+        IMMEDIATE, HIGH, LOW, IDLE
+    }
+
+    public void postTask(Runnable task) {
+        runner.tasks.add(task);
+    }
+
+    public void postTask(Runnable task, long delayTime) {
+        runner.tasks.add(task);
+    }
+
+    public void postTask(Runnable task, long delayTime, Priority priority) {
+        runner.tasks.add(task);
+    }
+}
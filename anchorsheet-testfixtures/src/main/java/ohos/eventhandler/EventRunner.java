@@ -0,0 +1,21 @@
+package ohos.eventhandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code EventRunner}, for running the library on a plain JVM.
+ */
+public final class EventRunner {
+    private static final EventRunner MAIN = new EventRunner();
+
+    // tasks posted by the handlers of the runner, in order
+    final List<Runnable> tasks = new ArrayList<>();
+
+    private EventRunner() {
+    }
+
+    public static EventRunner getMainEventRunner() {
+        return MAIN;
+    }
+}
@@ -0,0 +1,40 @@
+package ohos.eventhandler;
+
+import java.util.List;
+
+/**
+ * Runs the tasks posted to the main event runner, one pass of its loop at a time, so tests decide
+ * when posted work such as a display frame happens.
+ */
+public final class FakeEventLoop {
+    private FakeEventLoop() {
+    }
+
+    /**
+     * Returns the number of tasks waiting on the main runner.
+     *
+     * @return count of posted tasks not run yet
+     */
+    public static int getPendingCount() {
+        return EventRunner.getMainEventRunner().tasks.size();
+    }
+
+    /**
+     * Runs the tasks posted so far, in order. Tasks they post wait for the next call.
+     */
+    public static void runPendingTasks() {
+        List<Runnable> tasks = EventRunner.getMainEventRunner().tasks;
+        Runnable[] pending = tasks.toArray(new Runnable[0]);
+        tasks.clear();
+        for (Runnable task : pending) {
+            task.run();
+        }
+    }
+
+    /**
+     * Drops the tasks posted so far without running them.
+     */
+    public static void reset() {
+        EventRunner.getMainEventRunner().tasks.clear();
+    }
+}
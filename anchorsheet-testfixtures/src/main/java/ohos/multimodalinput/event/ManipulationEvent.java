@@ -0,0 +1,11 @@
+package ohos.multimodalinput.event;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code ManipulationEvent}, for running the library on a
+ * plain JVM.
+ */
+public abstract class ManipulationEvent extends MultimodalEvent {
+    public abstract int getPointerCount();
+
+    public abstract int getPointerId(int index);
+}
@@ -0,0 +1,22 @@
+package ohos.multimodalinput.event;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code MmiPoint}, for running the library on a plain JVM.
+ */
+public class MmiPoint {
+    private final float x;
+    private final float y;
+
+    public MmiPoint(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+}
@@ -0,0 +1,9 @@
+package ohos.multimodalinput.event;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code MultimodalEvent}, for running the library on a plain
+ * JVM.
+ */
+public abstract class MultimodalEvent {
+    public abstract long getOccurredTime();
+}
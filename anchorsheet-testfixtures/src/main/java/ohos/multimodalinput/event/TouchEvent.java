@@ -0,0 +1,23 @@
+package ohos.multimodalinput.event;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code TouchEvent}, for running the library on a plain JVM.
+ * Like the platform class, position getters return a new {@link MmiPoint} on every call.
+ */
+public abstract class TouchEvent extends ManipulationEvent {
+    public static final int NONE = 0;
+    public static final int PRIMARY_POINT_DOWN = 1;
+    public static final int PRIMARY_POINT_UP = 2;
+    public static final int OTHER_POINT_DOWN = 3;
+    public static final int OTHER_POINT_UP = 4;
+    public static final int POINT_MOVE = 5;
+    public static final int CANCEL = 6;
+
+    public abstract int getAction();
+
+    public abstract int getIndex();
+
+    public abstract MmiPoint getPointerPosition(int index);
+
+    public abstract MmiPoint getPointerScreenPosition(int index);
+}
@@ -0,0 +1,24 @@
+package ohos.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lightweight stand-in for the HarmonyOS {@code PacMap}, for running the library on a plain JVM.
+ */
+public class PacMap {
+    private final Map<String, Object> values = new HashMap<>();
+
+    public boolean hasKey(String key) {
+        return values.containsKey(key);
+    }
+
+    public void putIntValue(String key, int value) {
+        values.put(key, value);
+    }
+
+    public int getIntValue(String key, int defaultValue) {
+        Object value = values.get(key);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+}
@@ -0,0 +1,151 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.Component;
+import ohos.agp.components.ComponentContainer;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.app.Context;
+import ohos.eventhandler.FakeEventLoop;
+import ohos.multimodalinput.event.TouchEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the lazily created content of AnchorSheetLayout, run on the JVM stand-ins of
+ * the SDK.
+ */
+public class SheetContentTest {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final long FRAME_MILLIS = 16;
+
+    private AnchorSheetLayout layout;
+    private DirectionalLayout child;
+
+    // content created by the provider, null until then
+    private Component content;
+    private int creations;
+
+    @Before
+    public void setUp() {
+        FakeAnimatorClock.reset();
+        FakeEventLoop.reset();
+        layout = new AnchorSheetLayout(null, null);
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        layout.setCanHide(true);
+        child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        layout.addComponent(child);
+        content = null;
+        creations = 0;
+    }
+
+    @Test
+    public void testHiddenSheetCreatesContentWhenShown() {
+        layout.setState(AnchorSheetLayout.STATE_HIDDEN);
+        layout.setContentProvider(this::createContent);
+        FakeWindow.bind(layout);
+        assertFalse(layout.isContentInflated());
+        assertEquals(0, creations);
+        assertEquals(0, child.getChildCount());
+
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        assertTrue(layout.isContentInflated());
+        assertEquals(1, creations);
+        assertSame(content, child.getComponentAt(0));
+        settle();
+        layout.setState(AnchorSheetLayout.STATE_HIDDEN);
+        settle();
+        layout.setState(AnchorSheetLayout.STATE_EXPANDED);
+        assertEquals(1, creations);
+    }
+
+    @Test
+    public void testVisibleSheetCreatesContentOnLayout() {
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        layout.setContentProvider(this::createContent);
+        assertEquals(0, creations);
+        FakeWindow.bind(layout);
+        assertTrue(layout.isContentInflated());
+        assertEquals(1, creations);
+    }
+
+    @Test
+    public void testIdleHintCreatesContent() {
+        layout.setState(AnchorSheetLayout.STATE_HIDDEN);
+        layout.setContentProvider(this::createContent);
+        FakeWindow.bind(layout);
+        layout.inflateContentWhenIdle();
+        assertEquals(0, creations);
+        FakeEventLoop.runPendingTasks();
+        assertTrue(layout.isContentInflated());
+        assertEquals(1, creations);
+
+        // showing the sheet does not create the content again
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        assertEquals(1, creations);
+        assertEquals(1, child.getChildCount());
+    }
+
+    @Test
+    public void testProviderWithoutChildAddsPlaceholder() {
+        AnchorSheetLayout empty = new AnchorSheetLayout(null, null);
+        empty.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        empty.setCanHide(true);
+        empty.setState(AnchorSheetLayout.STATE_HIDDEN);
+        empty.setContentProvider(this::createContent);
+        assertEquals(1, empty.getChildCount());
+        FakeWindow.bind(empty);
+        assertEquals(0, creations);
+
+        empty.inflateContent();
+        ComponentContainer placeholder = (ComponentContainer) empty.getComponentAt(0);
+        assertSame(content, placeholder.getComponentAt(0));
+    }
+
+    @Test
+    public void testScrollableInCreatedContentIsFound() {
+        layout.setState(AnchorSheetLayout.STATE_HIDDEN);
+        layout.setContentProvider(context -> {
+            creations++;
+            Component list = new Component(context) {
+                @Override
+                public boolean canScroll(int direction) {
+                    return true;
+                }
+            };
+            list.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+            content = list;
+            return list;
+        });
+        FakeWindow.bind(layout);
+        layout.setState(AnchorSheetLayout.STATE_EXPANDED);
+        settle();
+
+        // a drag down on the list scrolls it instead of moving the sheet
+        for (TouchEvent event : GestureStreams.drag(PARENT_WIDTH / 2f, 400f, 600f)) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+    }
+
+    private Component createContent(Context context) {
+        creations++;
+        content = new DirectionalLayout(context);
+        return content;
+    }
+
+    // runs animation frames until the settle ends
+    private void settle() {
+        for (int i = 0; i < 1000 && FakeAnimatorClock.hasRunningAnimators(); i++) {
+            FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        }
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+}
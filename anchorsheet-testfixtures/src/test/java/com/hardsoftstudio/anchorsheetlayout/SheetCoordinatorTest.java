@@ -0,0 +1,113 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for SheetCoordinator, run on the JVM stand-ins of the SDK.
+ */
+public class SheetCoordinatorTest {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final long FRAME_MILLIS = 16;
+
+    private SheetCoordinator coordinator;
+    private AnchorSheetLayout results;
+    private AnchorSheetLayout details;
+    private AnchorSheetLayout navigation;
+
+    @Before
+    public void setUp() {
+        FakeAnimatorClock.reset();
+        coordinator = new SheetCoordinator();
+        results = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        details = createSheet(AnchorSheetLayout.STATE_COLLAPSED);
+        navigation = createSheet(AnchorSheetLayout.STATE_HIDDEN);
+        coordinator.register(results);
+        coordinator.register(details);
+        coordinator.register(navigation);
+    }
+
+    @Test
+    public void testSettlesShareOneAnimator() {
+        results.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        details.setState(AnchorSheetLayout.STATE_ANCHOR);
+        assertTrue(coordinator.isSettling());
+        assertEquals(1, FakeAnimatorClock.getRunningCount());
+        settle();
+        assertFalse(coordinator.isSettling());
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, results.getState());
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, details.getState());
+        assertEquals(PARENT_HEIGHT - results.getPeekHeight(), top(results), 0f);
+        assertEquals(details.getAnchorOffset(), top(details), 0f);
+    }
+
+    @Test
+    public void testSettleStartedLateRunsToTheEnd() {
+        results.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        details.setState(AnchorSheetLayout.STATE_EXPANDED);
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, results.getState());
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, details.getState());
+        assertEquals(details.getMinOffset(), top(details), 0f);
+    }
+
+    @Test
+    public void testCollapseOthersOnExpand() {
+        coordinator.addRule(SheetCoordinator.collapseOthersOnExpand());
+        details.setState(AnchorSheetLayout.STATE_EXPANDED);
+        assertEquals(AnchorSheetLayout.STATE_SETTLING, results.getState());
+        assertEquals(1, FakeAnimatorClock.getRunningCount());
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, details.getState());
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, results.getState());
+        assertEquals(AnchorSheetLayout.STATE_HIDDEN, navigation.getState());
+    }
+
+    @Test
+    public void testUnregisteredSheetSettlesOnItsOwn() {
+        coordinator.unregister(results);
+        assertEquals(2, coordinator.getSheetCount());
+        results.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        assertFalse(coordinator.isSettling());
+        assertTrue(FakeAnimatorClock.hasRunningAnimators());
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, results.getState());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRegisterWithTwoCoordinators() {
+        new SheetCoordinator().register(results);
+    }
+
+    private AnchorSheetLayout createSheet(int state) {
+        AnchorSheetLayout sheet = new AnchorSheetLayout(null, null);
+        sheet.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        DirectionalLayout child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        sheet.addComponent(child);
+        sheet.setCanHide(true);
+        sheet.setState(state);
+        FakeWindow.bind(sheet);
+        return sheet;
+    }
+
+    private static float top(AnchorSheetLayout sheet) {
+        return sheet.getComponentAt(0).getContentPositionY();
+    }
+
+    // runs animation frames until the settles end
+    private void settle() {
+        for (int i = 0; i < 1000 && FakeAnimatorClock.hasRunningAnimators(); i++) {
+            FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        }
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+}
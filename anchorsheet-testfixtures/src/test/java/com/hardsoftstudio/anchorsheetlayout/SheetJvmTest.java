@@ -0,0 +1,488 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.GestureRecording;
+import com.hardsoftstudio.anchorsheetlayout.core.ProjectedTargetPolicy;
+import com.hardsoftstudio.anchorsheetlayout.core.SheetSnapshot;
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.Component;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.eventhandler.FakeEventLoop;
+import ohos.multimodalinput.event.TouchEvent;
+import ohos.utils.PacMap;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for full gestures on AnchorSheetLayout, run on the JVM stand-ins of the SDK.
+ */
+public class SheetJvmTest {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final long FRAME_MILLIS = 16;
+
+    private AnchorSheetLayout layout;
+    private DirectionalLayout child;
+
+    @Before
+    public void setUp() {
+        FakeAnimatorClock.reset();
+        FakeEventLoop.reset();
+        layout = new AnchorSheetLayout(null, null);
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        layout.addComponent(child);
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        FakeWindow.bind(layout);
+    }
+
+    @Test
+    public void testLaidOutAtState() {
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, layout.getState());
+        assertEquals(layout.getAnchorOffset(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testFollowsResizeDespiteLayoutListener() {
+        int[] refreshes = new int[1];
+        layout.setLayoutRefreshedListener(component -> refreshes[0]++);
+        float top = child.getContentPositionY();
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT / 2);
+        FakeWindow.layout(layout);
+        assertEquals(1, refreshes[0]);
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, layout.getState());
+        assertEquals(layout.getAnchorOffset(), child.getContentPositionY(), 0f);
+        assertTrue(child.getContentPositionY() < top);
+    }
+
+    @Test
+    public void testDragUpSettlesExpanded() {
+        List<Integer> states = recordStates();
+        drag(layout.getAnchorOffset() + 100f, -600f);
+        assertEquals(AnchorSheetLayout.STATE_SETTLING, layout.getState());
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+        assertEquals(3, states.size());
+        assertEquals(AnchorSheetLayout.STATE_DRAGGING, (int) states.get(0));
+        assertEquals(AnchorSheetLayout.STATE_SETTLING, (int) states.get(1));
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, (int) states.get(2));
+    }
+
+    @Test
+    public void testDragsSheetAwayFromTheScreenOrigin() {
+        // the sheet fills the second pane of a screen split in two
+        DirectionalLayout screen = new DirectionalLayout(null);
+        screen.setComponentPosition(0, 0, 2 * PARENT_WIDTH, PARENT_HEIGHT);
+        layout.setComponentPosition(PARENT_WIDTH, 0, 2 * PARENT_WIDTH, PARENT_HEIGHT);
+        screen.addComponent(layout);
+        TouchEvent[] drag = GestureStreams.drag(PARENT_WIDTH / 2f, layout.getAnchorOffset() + 100f, -600f);
+        for (TouchEvent event : GestureStreams.onScreenAt(drag, PARENT_WIDTH, 0f)) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testCoalescedDragMovesOncePerFrame() {
+        int[] slides = new int[1];
+        layout.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+            @Override
+            public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                // Do nothing
+            }
+
+            @Override
+            public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                slides[0]++;
+            }
+        });
+        PacMap start = new PacMap();
+        layout.saveState(start);
+        TouchEvent[] gesture = GestureStreams.drag(PARENT_WIDTH / 2f, layout.getAnchorOffset() + 100f, -600f);
+
+        // the panel reports four events per frame
+        layout.setDragCoalescing(true);
+        FakeWindow.dispatchTouchEvent(child, gesture[0]);
+        slides[0] = 0;
+        int frames = 0;
+        for (int i = 1; i < gesture.length - 1; i++) {
+            FakeWindow.dispatchTouchEvent(child, gesture[i]);
+            assertTrue(FakeEventLoop.getPendingCount() <= 1);
+            if (i % 4 == 0 || i == gesture.length - 2) {
+                int before = slides[0];
+                FakeEventLoop.runPendingTasks();
+                frames++;
+                assertTrue("slides of frame " + frames + ": " + (slides[0] - before), slides[0] - before <= 1);
+            }
+        }
+        assertTrue(slides[0] <= frames);
+        float coalescedTop = child.getContentPositionY();
+        FakeWindow.dispatchTouchEvent(child, gesture[gesture.length - 1]);
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+
+        // the same movement as one event at a time
+        layout.restoreState(start);
+        layout.setDragCoalescing(false);
+        for (int i = 0; i < gesture.length - 1; i++) {
+            FakeWindow.dispatchTouchEvent(child, gesture[i]);
+        }
+        assertEquals(child.getContentPositionY(), coalescedTop, 0f);
+        assertEquals(0, FakeEventLoop.getPendingCount());
+    }
+
+    @Test
+    public void testSlideFilterKeepsWorkingAcrossGestures() {
+        int[] slides = new int[1];
+        layout.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+            @Override
+            public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                // Do nothing
+            }
+
+            @Override
+            public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                slides[0]++;
+            }
+        }, 0.05f, 0);
+        for (int i = 0; i < 3; i++) {
+            slides[0] = 0;
+            float top = child.getContentPositionY();
+            drag(top + 100f, i % 2 == 0 ? -600f : 600f);
+            settle();
+            assertTrue("slides of gesture " + i + ": " + slides[0], slides[0] > 3);
+        }
+    }
+
+    @Test
+    public void testMetricsCountTheSlidesDelivered() {
+        List<Float> all = recordSlides(0f);
+        List<Float> filtered = recordSlides(0.05f);
+        int[] counted = new int[1];
+        layout.setSheetMetricsListener((bottomSheet, metrics) -> counted[0] += metrics.getSlideDispatchCount());
+        drag(layout.getAnchorOffset() + 100f, -600f);
+        settle();
+        assertTrue("slides held back: " + filtered.size(), filtered.size() < all.size());
+        assertEquals(all.size() + filtered.size(), counted[0]);
+        // the offset at release reaches the filtered callback too
+        assertEquals(all.get(all.size() - 1), filtered.get(filtered.size() - 1));
+    }
+
+    @Test
+    public void testTouchFollowsMovedScrollable() {
+        // a list inside a container of the sheet, which a layout of the container moves
+        DirectionalLayout container = new DirectionalLayout(null);
+        container.setComponentPosition(0, 1200, PARENT_WIDTH, 1700);
+        Component list = new Component(null) {
+            @Override
+            public boolean canScroll(int direction) {
+                return true;
+            }
+        };
+        list.setComponentPosition(0, 0, PARENT_WIDTH, 500);
+        container.addComponent(list);
+        child.addComponent(container);
+        int[] refreshes = new int[1];
+        container.setLayoutRefreshedListener(component -> refreshes[0]++);
+        layout.registerScrollableChild(list);
+        layout.setState(AnchorSheetLayout.STATE_EXPANDED);
+        settle();
+        for (TouchEvent event : GestureStreams.tap(PARENT_WIDTH / 2f, 400f, 0f)) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+
+        container.setContentPositionY(200);
+        FakeWindow.layout(container);
+        assertEquals(1, refreshes[0]);
+        List<Integer> states = recordStates();
+        drag(400f, 600f);
+        settle();
+        assertTrue(states.isEmpty());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testTapDoesNotDrag() {
+        List<Integer> states = recordStates();
+        float top = child.getContentPositionY();
+        for (TouchEvent event : GestureStreams.tap(PARENT_WIDTH / 2f, top + 100f, layout.getTouchSlop())) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+        assertTrue(states.isEmpty());
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, layout.getState());
+        assertEquals(top, child.getContentPositionY(), 0f);
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+
+    @Test
+    public void testReleaseAfterHorizontalMoveSettles() {
+        layout.setPeekHeight(300);
+        float top = child.getContentPositionY();
+        releaseAfterSideMove(GestureStreams.drag(PARENT_WIDTH / 2f, top + 100f, 300f), 0);
+        assertNotEquals(AnchorSheetLayout.STATE_DRAGGING, layout.getState());
+        settle();
+        assertSheetRestsAndDragsAgain();
+    }
+
+    @Test
+    public void testSlowReleaseAfterHorizontalMoveSettles() {
+        // the projection keeps a slow release where it is
+        layout.setTargetPolicy(new ProjectedTargetPolicy());
+        layout.setPeekHeight(300);
+        float top = child.getContentPositionY();
+        releaseAfterSideMove(GestureStreams.drag(PARENT_WIDTH / 2f, top + 100f, 300f), 500);
+        assertNotEquals(AnchorSheetLayout.STATE_DRAGGING, layout.getState());
+        settle();
+        assertSheetRestsAndDragsAgain();
+    }
+
+    @Test
+    public void testClampedReleaseSettles() {
+        layout.setPeekHeight(300);
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        settle();
+        float top = child.getContentPositionY();
+        drag(top + 50f, 400f);
+        assertNotEquals(AnchorSheetLayout.STATE_DRAGGING, layout.getState());
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, layout.getState());
+        assertEquals(top, child.getContentPositionY(), 0f);
+        assertSheetRestsAndDragsAgain();
+    }
+
+    @Test
+    public void testSettlingSheetIsCaughtOnDown() {
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        float top = child.getContentPositionY();
+        FakeWindow.dispatchTouchEvent(child, GestureStreams.tap(PARENT_WIDTH / 2f, top + 100f, 0f)[0]);
+        assertEquals(AnchorSheetLayout.STATE_DRAGGING, layout.getState());
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+        assertEquals(top, child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testRestingSheetFollowsItsDetent() {
+        float top = child.getContentPositionY();
+        layout.setDetentOffsets((int) top + 200);
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, layout.getState());
+        assertEquals(top + 200, child.getContentPositionY(), 0f);
+        assertEquals(layout.getDetentOffset(layout.getDetent()), child.getContentPositionY(), 0f);
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+
+        layout.clearDetents();
+        assertEquals(top, child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testDetentSetBeforeLayoutHasItsState() {
+        AnchorSheetLayout sheet = new AnchorSheetLayout(null, null);
+        sheet.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        DirectionalLayout sheetChild = new DirectionalLayout(null);
+        sheetChild.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        sheet.addComponent(sheetChild);
+        sheet.setDetent(2);
+        assertEquals(2, sheet.getDetent());
+        FakeWindow.bind(sheet);
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, sheet.getState());
+        assertEquals(PARENT_HEIGHT - sheet.getPeekHeight(), sheetChild.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testSettlingSheetHeadsForItsNewDetent() {
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        int anchor = layout.getAnchorOffset() - 300;
+        layout.setDetentOffsets(anchor);
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, layout.getState());
+        assertEquals(anchor, child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testSetStateMovesWithTheClock() {
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        assertEquals(AnchorSheetLayout.STATE_SETTLING, layout.getState());
+        float start = child.getContentPositionY();
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        assertTrue(child.getContentPositionY() > start);
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, layout.getState());
+        assertEquals(PARENT_HEIGHT - layout.getPeekHeight(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testSetStateRetargetsTheSettle() {
+        List<Integer> states = recordStates();
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        float top = child.getContentPositionY();
+        layout.setState(AnchorSheetLayout.STATE_EXPANDED);
+        assertEquals(1, FakeAnimatorClock.getRunningCount());
+        assertEquals(top, child.getContentPositionY(), 0f);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        assertTrue(child.getContentPositionY() < top);
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+        assertFalse(states.contains(AnchorSheetLayout.STATE_COLLAPSED));
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, (int) states.get(states.size() - 1));
+    }
+
+    @Test
+    public void testSettlesReuseOneAnimator() {
+        int[] states = {AnchorSheetLayout.STATE_COLLAPSED, AnchorSheetLayout.STATE_EXPANDED,
+            AnchorSheetLayout.STATE_ANCHOR};
+        for (int state : states) {
+            layout.setState(state);
+            assertEquals(1, FakeAnimatorClock.getRunningCount());
+            settle();
+            assertEquals(state, layout.getState());
+        }
+        drag(layout.getAnchorOffset() + 100f, -600f);
+        assertEquals(1, FakeAnimatorClock.getRunningCount());
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+    }
+
+    @Test
+    public void testDragInterruptsTheSettle() {
+        layout.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        drag(child.getContentPositionY() + 100f, -800f);
+        assertEquals(1, FakeAnimatorClock.getRunningCount());
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testSnapshotsAreConflated() {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        List<SheetSnapshot> snapshots = new ArrayList<>();
+        layout.subscribeSnapshots(tasks::add, snapshots::add);
+        runTasks(tasks);
+        assertEquals(1, snapshots.size());
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, snapshots.get(0).getState());
+
+        drag(layout.getAnchorOffset() + 100f, -600f);
+        settle();
+        assertEquals(1, tasks.size());
+        runTasks(tasks);
+        assertEquals(2, snapshots.size());
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, snapshots.get(1).getState());
+        assertEquals(1f, snapshots.get(1).getSlideOffset(), 0f);
+    }
+
+    @Test
+    public void testReplayIsDeterministic() {
+        PacMap start = new PacMap();
+        layout.saveState(start);
+        GestureRecording recording = new GestureRecording();
+        layout.setGestureRecording(recording);
+        drag(layout.getAnchorOffset() + 100f, 500f);
+        layout.setGestureRecording(null);
+        assertEquals(GestureStreams.DRAG_EVENTS, recording.size());
+
+        GestureReplayer replayer = new GestureReplayer(layout, FRAME_MILLIS);
+        layout.restoreState(start);
+        GestureReplayer.Trace first = replayer.replay(recording);
+        layout.restoreState(start);
+        GestureReplayer.Trace second = replayer.replay(recording);
+        assertTrue(first.sameAs(second));
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, first.getFinalState());
+        assertEquals(PARENT_HEIGHT - layout.getPeekHeight(), first.getFinalTop(), 0f);
+    }
+
+    // records the states the sheet goes through
+    private List<Integer> recordStates() {
+        List<Integer> states = new ArrayList<>();
+        layout.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+            @Override
+            public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                states.add(newState);
+            }
+
+            @Override
+            public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                // Do nothing
+            }
+        });
+        return states;
+    }
+
+    // records the slide offsets delivered to a callback with the given smallest change
+    private List<Float> recordSlides(float minSlideDelta) {
+        List<Float> offsets = new ArrayList<>();
+        layout.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+            @Override
+            public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                // Do nothing
+            }
+
+            @Override
+            public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                offsets.add(slideOffset);
+            }
+        }, minSlideDelta, 0);
+        return offsets;
+    }
+
+    // drags the sheet by distance pixels, starting at startY
+    private void drag(float startY, float distance) {
+        for (TouchEvent event : GestureStreams.drag(PARENT_WIDTH / 2f, startY, distance)) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+    }
+
+    // dispatches a drag whose last move is only horizontal, pause milliseconds before its up
+    private void releaseAfterSideMove(TouchEvent[] gesture, long pause) {
+        for (int i = 0; i < gesture.length - 1; i++) {
+            FakeWindow.dispatchTouchEvent(child, gesture[i]);
+        }
+        TouchEvent up = gesture[gesture.length - 1];
+        float x = up.getPointerPosition(0).getX() + 100f;
+        float y = up.getPointerPosition(0).getY();
+        long time = up.getOccurredTime();
+        FakeWindow.dispatchTouchEvent(child, new SyntheticTouchEvent(TouchEvent.POINT_MOVE, x, y, time));
+        FakeWindow.dispatchTouchEvent(child,
+                new SyntheticTouchEvent(TouchEvent.PRIMARY_POINT_UP, x, y, time + pause));
+    }
+
+    // asserts that the sheet rests at its detent and can be dragged again
+    private void assertSheetRestsAndDragsAgain() {
+        assertEquals(layout.getDetentOffset(layout.getDetent()), child.getContentPositionY(), 0f);
+        List<Integer> states = recordStates();
+        drag(child.getContentPositionY() + 50f, -300f);
+        assertFalse(states.isEmpty());
+        assertEquals(AnchorSheetLayout.STATE_DRAGGING, (int) states.get(0));
+    }
+
+    private static void runTasks(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    // runs animation frames until the settle ends
+    private void settle() {
+        for (int i = 0; i < 1000 && FakeAnimatorClock.hasRunningAnimators(); i++) {
+            FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        }
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+}
@@ -0,0 +1,151 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.Component;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.multimodalinput.event.TouchEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for the hand-off of scrolls and flings between the scrollable children of
+ * AnchorSheetLayout and the sheet, run on the JVM stand-ins of the SDK.
+ */
+public class SheetNestedScrollTest {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final long FRAME_MILLIS = 16;
+
+    private AnchorSheetLayout layout;
+    private DirectionalLayout child;
+    private ListStub list;
+
+    @Before
+    public void setUp() {
+        FakeAnimatorClock.reset();
+        layout = new AnchorSheetLayout(null, null);
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        list = new ListStub();
+        list.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        child.addComponent(list);
+        layout.addComponent(child);
+        layout.setState(AnchorSheetLayout.STATE_EXPANDED);
+        FakeWindow.bind(layout);
+    }
+
+    @Test
+    public void testListReachingItsStartHandsTheDragToTheSheet() {
+        list.atStart = false;
+        TouchEvent[] gesture = GestureStreams.drag(PARENT_WIDTH / 2f, 400f, 900f);
+        FakeWindow.dispatchTouchEvent(child, gesture[0]);
+        for (int i = 1; i < gesture.length - 1; i++) {
+            if (i == gesture.length / 4) {
+                // the list scrolled back to its first item
+                list.atStart = true;
+            }
+            FakeWindow.dispatchTouchEvent(child, gesture[i]);
+            if (i < gesture.length / 4) {
+                assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+            }
+        }
+        assertEquals(AnchorSheetLayout.STATE_DRAGGING, layout.getState());
+        assertTrue(child.getContentPositionY() > layout.getMinOffset());
+        FakeWindow.dispatchTouchEvent(child, gesture[gesture.length - 1]);
+        settle();
+        assertNotEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+    }
+
+    @Test
+    public void testListScrollsWhileItIsNotAtItsStart() {
+        list.atStart = false;
+        for (TouchEvent event : GestureStreams.drag(PARENT_WIDTH / 2f, 400f, 900f)) {
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testPreScrollExpandsTheSheetBeforeTheList() {
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        settle();
+        int distance = layout.getAnchorOffset() - layout.getMinOffset();
+        int consumed = 0;
+        int step;
+        do {
+            step = layout.dispatchNestedPreScroll(-50);
+            consumed += step;
+        } while (step == -50);
+        assertEquals(-distance, consumed);
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+
+        // expanded, the list scrolls by the rest
+        assertEquals(0, layout.dispatchNestedPreScroll(-50));
+        assertEquals(0, layout.dispatchNestedScroll(-50));
+    }
+
+    @Test
+    public void testUnconsumedScrollAndReleaseMoveTheSheet() {
+        assertFalse(layout.dispatchNestedPreFling(2500f));
+        assertEquals(200, layout.dispatchNestedScroll(200));
+        assertEquals(AnchorSheetLayout.STATE_DRAGGING, layout.getState());
+        assertEquals(layout.getMinOffset() + 200, child.getContentPositionY(), 0f);
+        assertTrue(layout.dispatchNestedPreFling(2500f));
+        settle();
+        assertTrue(layout.getState() == AnchorSheetLayout.STATE_ANCHOR
+                || layout.getState() == AnchorSheetLayout.STATE_COLLAPSED);
+    }
+
+    @Test
+    public void testStopWithoutFlingSettlesAtNearestDetent() {
+        layout.dispatchNestedScroll(100);
+        layout.stopNestedScroll();
+        settle();
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertEquals(layout.getMinOffset(), child.getContentPositionY(), 0f);
+    }
+
+    @Test
+    public void testFlingMomentumAtTheStartOfTheListMovesTheSheet() {
+        assertFalse(layout.dispatchNestedFling(-3000f));
+        assertTrue(layout.dispatchNestedFling(3000f));
+        assertEquals(AnchorSheetLayout.STATE_SETTLING, layout.getState());
+        settle();
+        assertNotEquals(AnchorSheetLayout.STATE_EXPANDED, layout.getState());
+        assertTrue(child.getContentPositionY() > layout.getMinOffset());
+    }
+
+    // runs animation frames until the settle ends
+    private void settle() {
+        for (int i = 0; i < 1000 && FakeAnimatorClock.hasRunningAnimators(); i++) {
+            FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        }
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+
+    /**
+     * Scrollable component which can always scroll forward, and back while it is not at the start
+     * of its content.
+     */
+    private static final class ListStub extends Component {
+        private boolean atStart = true;
+
+        ListStub() {
+            super(null);
+        }
+
+        @Override
+        public boolean canScroll(int direction) {
+            return direction != DRAG_DOWN || !atStart;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import com.hardsoftstudio.anchorsheetlayout.core.SheetSnapshot;
+import ohos.aafwk.content.IntentParams;
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.Component;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.utils.PacMap;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Before;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Testing Class for saving and restoring the state of AnchorSheetLayout across the recreation of
+ * a slice, run on the JVM stand-ins of the SDK.
+ */
+public class SheetStateTest {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+    private static final long FRAME_MILLIS = 16;
+
+    // counts the callbacks of a sheet
+    private int notifications;
+
+    @Before
+    public void setUp() {
+        FakeAnimatorClock.reset();
+        notifications = 0;
+    }
+
+    @Test
+    public void testRestoreBeforeLayoutPositionsDirectly() {
+        AnchorSheetLayout saved = createSheet(AnchorSheetLayout.STATE_EXPANDED);
+        FakeWindow.bind(saved);
+        settle();
+        PacMap outState = new PacMap();
+        saved.saveState(outState);
+
+        AnchorSheetLayout restored = createSheet(AnchorSheetLayout.STATE_COLLAPSED);
+        restored.restoreState(outState);
+        countNotifications(restored);
+        FakeWindow.bind(restored);
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, restored.getState());
+        assertEquals(restored.getMinOffset(), top(restored), 0f);
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+        assertEquals(0, notifications);
+    }
+
+    @Test
+    public void testRestoreIntermediateDetentFromIntentParams() {
+        AnchorSheetLayout saved = createSheet(AnchorSheetLayout.STATE_COLLAPSED);
+        saved.setDetentOffsets(600, 1000);
+        FakeWindow.bind(saved);
+        saved.setDetent(2);
+        settle();
+        IntentParams outState = new IntentParams();
+        saved.saveState(outState);
+
+        AnchorSheetLayout restored = createSheet(AnchorSheetLayout.STATE_COLLAPSED);
+        restored.setDetentOffsets(600, 1000);
+        restored.restoreState(outState);
+        countNotifications(restored);
+        FakeWindow.bind(restored);
+        assertEquals(2, restored.getDetent());
+        assertEquals(1000f, top(restored), 0f);
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+        assertEquals(0, notifications);
+    }
+
+    @Test
+    public void testSettlingSheetIsSavedAtItsTarget() {
+        AnchorSheetLayout saved = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        FakeWindow.bind(saved);
+        saved.setState(AnchorSheetLayout.STATE_COLLAPSED);
+        FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        PacMap outState = new PacMap();
+        saved.saveState(outState);
+        FakeAnimatorClock.reset();
+
+        AnchorSheetLayout restored = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        restored.restoreState(outState);
+        FakeWindow.bind(restored);
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, restored.getState());
+        assertEquals(PARENT_HEIGHT - restored.getPeekHeight(), top(restored), 0f);
+    }
+
+    @Test
+    public void testRestoreAfterLayoutJumpsWithoutAnimating() {
+        AnchorSheetLayout sheet = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        FakeWindow.bind(sheet);
+        PacMap outState = new PacMap();
+        sheet.saveState(outState);
+        sheet.setState(AnchorSheetLayout.STATE_EXPANDED);
+        settle();
+
+        sheet.restoreState(outState);
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, sheet.getState());
+        assertEquals(sheet.getAnchorOffset(), top(sheet), 0f);
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+
+    @Test
+    public void testRestoreAfterLayoutNotifies() {
+        AnchorSheetLayout sheet = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        FakeWindow.bind(sheet);
+        PacMap outState = new PacMap();
+        sheet.saveState(outState);
+        sheet.setState(AnchorSheetLayout.STATE_EXPANDED);
+        settle();
+
+        List<Integer> states = new ArrayList<>();
+        List<Integer> detents = new ArrayList<>();
+        sheet.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+            @Override
+            public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                states.add(newState);
+            }
+
+            @Override
+            public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                // Do nothing
+            }
+
+            @Override
+            public void onDetentChanged(@NotNull Component bottomSheet, int detent) {
+                detents.add(detent);
+            }
+        });
+        List<SheetSnapshot> snapshots = new ArrayList<>();
+        sheet.subscribeSnapshots(Runnable::run, snapshots::add);
+        List<Integer> coordinated = new ArrayList<>();
+        SheetCoordinator coordinator = new SheetCoordinator();
+        coordinator.addRule((c, s, state) -> coordinated.add(state));
+        coordinator.register(sheet);
+
+        sheet.restoreState(outState);
+        assertEquals(1, states.size());
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, (int) states.get(0));
+        assertEquals(1, detents.size());
+        assertEquals(sheet.getDetent(), (int) detents.get(0));
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, snapshots.get(snapshots.size() - 1).getState());
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, (int) coordinated.get(coordinated.size() - 1));
+    }
+
+    @Test
+    public void testSheetsWithDistinctIdsShareTheMap() {
+        AnchorSheetLayout first = createSheet(AnchorSheetLayout.STATE_EXPANDED);
+        first.setId(1);
+        AnchorSheetLayout second = createSheet(AnchorSheetLayout.STATE_COLLAPSED);
+        second.setId(2);
+        FakeWindow.bind(first);
+        FakeWindow.bind(second);
+        settle();
+        PacMap outState = new PacMap();
+        first.saveState(outState);
+        second.saveState(outState);
+
+        AnchorSheetLayout restoredFirst = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        restoredFirst.setId(1);
+        AnchorSheetLayout restoredSecond = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        restoredSecond.setId(2);
+        restoredFirst.restoreState(outState);
+        restoredSecond.restoreState(outState);
+        FakeWindow.bind(restoredFirst);
+        FakeWindow.bind(restoredSecond);
+        assertEquals(AnchorSheetLayout.STATE_EXPANDED, restoredFirst.getState());
+        assertEquals(AnchorSheetLayout.STATE_COLLAPSED, restoredSecond.getState());
+    }
+
+    @Test
+    public void testMapWithoutSavedSheetIsIgnored() {
+        AnchorSheetLayout sheet = createSheet(AnchorSheetLayout.STATE_ANCHOR);
+        sheet.restoreState(new PacMap());
+        sheet.restoreState(new IntentParams());
+        FakeWindow.bind(sheet);
+        assertEquals(AnchorSheetLayout.STATE_ANCHOR, sheet.getState());
+        assertEquals(sheet.getAnchorOffset(), top(sheet), 0f);
+    }
+
+    // creates a sheet with a child, not bound to the window yet
+    private AnchorSheetLayout createSheet(int state) {
+        AnchorSheetLayout sheet = new AnchorSheetLayout(null, null);
+        sheet.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        DirectionalLayout child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        sheet.addComponent(child);
+        sheet.setState(state);
+        return sheet;
+    }
+
+    private void countNotifications(AnchorSheetLayout sheet) {
+        sheet.addAnchorSheetCallback(new AnchorSheetLayout.AnchorSheetCallback() {
+            @Override
+            public void onStateChanged(@NotNull Component bottomSheet, int newState) {
+                notifications++;
+            }
+
+            @Override
+            public void onSlide(@NotNull Component bottomSheet, float slideOffset) {
+                notifications++;
+            }
+
+            @Override
+            public void onDetentChanged(@NotNull Component bottomSheet, int detent) {
+                notifications++;
+            }
+        });
+    }
+
+    private static float top(AnchorSheetLayout sheet) {
+        return sheet.getComponentAt(0).getContentPositionY();
+    }
+
+    // runs animation frames until the settle ends
+    private void settle() {
+        for (int i = 0; i < 1000 && FakeAnimatorClock.hasRunningAnimators(); i++) {
+            FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + FRAME_MILLIS);
+        }
+        assertFalse(FakeAnimatorClock.hasRunningAnimators());
+    }
+}
@@ -0,0 +1,195 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.animation.FakeAnimatorClock;
+import ohos.agp.components.Component;
+import ohos.agp.components.DirectionalLayout;
+import ohos.agp.components.FakeWindow;
+import ohos.multimodalinput.event.MmiPoint;
+import ohos.multimodalinput.event.TouchEvent;
+import ohos.utils.PacMap;
+import org.junit.Before;
+import org.junit.Test;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Testing Class for the allocations of the touch path: every step of a steady drag must read the
+ * pointers once and allocate nothing.
+ */
+public class TouchAllocationTest {
+
+    private static final int PARENT_WIDTH = 1080;
+    private static final int PARENT_HEIGHT = 2000;
+
+    // Drags run before measuring, so classes are loaded and lazy state is created
+    private static final int WARM_UP_DRAGS = 50;
+
+    // Smallest object on the JVM, in bytes
+    private static final long SMALLEST_OBJECT = 16;
+
+    private AnchorSheetLayout layout;
+    private DirectionalLayout child;
+    private final PacMap startState = new PacMap();
+    private CountingTouchEvent[] gesture;
+
+    @Before
+    public void setUp() {
+        FakeAnimatorClock.reset();
+        layout = new AnchorSheetLayout(null, null);
+        layout.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        child = new DirectionalLayout(null);
+        child.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT);
+        layout.addComponent(child);
+        layout.setState(AnchorSheetLayout.STATE_ANCHOR);
+        FakeWindow.bind(layout);
+        layout.saveState(startState);
+
+        TouchEvent[] drag = GestureStreams.drag(PARENT_WIDTH / 2f, layout.getAnchorOffset() + 100f, -600f);
+        gesture = new CountingTouchEvent[drag.length];
+        for (int i = 0; i < drag.length; i++) {
+            MmiPoint position = drag[i].getPointerPosition(0);
+            gesture[i] = new CountingTouchEvent(drag[i].getAction(), position, drag[i].getOccurredTime());
+        }
+    }
+
+    @Test
+    public void testDragStepsReadEachPointerOnce() {
+        runDrag();
+        for (int i = 1; i < gesture.length - 1; i++) {
+            assertEquals("reads of step " + i, 1, gesture[i].reads);
+        }
+    }
+
+    @Test
+    public void testDragStepsDoNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        // a consumer whose deliveries run after the drag, as on another thread
+        Queue<Runnable> deliveries = new ArrayDeque<>();
+        int[] delivered = new int[1];
+        layout.subscribeSnapshots(deliveries::add, snapshot -> delivered[0]++);
+        for (int i = 0; i < WARM_UP_DRAGS; i++) {
+            runDrag();
+            runTasks(deliveries);
+        }
+        delivered[0] = 0;
+
+        layout.restoreState(startState);
+        FakeWindow.dispatchTouchEvent(child, gesture[0]);
+        long overhead = -threads.getThreadAllocatedBytes(thread);
+        overhead += threads.getThreadAllocatedBytes(thread);
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 1; i < gesture.length - 1; i++) {
+            FakeWindow.dispatchTouchEvent(child, gesture[i]);
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+        FakeWindow.dispatchTouchEvent(child, gesture[gesture.length - 1]);
+        assertTrue("drag steps allocated " + allocated + " bytes", allocated < SMALLEST_OBJECT);
+        runTasks(deliveries);
+        assertTrue(delivered[0] > 0);
+    }
+
+    @Test
+    public void testDownOnExpandedSheetReadsThePointerOnce() {
+        Component list = new Component(null) {
+            @Override
+            public boolean canScroll(int direction) {
+                return true;
+            }
+        };
+        list.setComponentPosition(0, 0, PARENT_WIDTH, PARENT_HEIGHT / 2);
+        child.addComponent(list);
+        layout.registerScrollableChild(list);
+        layout.setState(AnchorSheetLayout.STATE_EXPANDED);
+        for (int i = 0; i < 1000 && FakeAnimatorClock.hasRunningAnimators(); i++) {
+            FakeAnimatorClock.advanceTo(FakeAnimatorClock.now() + 16);
+        }
+
+        // on the list, then below it
+        for (float y : new float[] {100f, PARENT_HEIGHT - 100f}) {
+            CountingTouchEvent down = new CountingTouchEvent(TouchEvent.PRIMARY_POINT_DOWN,
+                    new MmiPoint(PARENT_WIDTH / 2f, y), 0);
+            FakeWindow.dispatchTouchEvent(child, down);
+            assertEquals(1, down.reads);
+            FakeWindow.dispatchTouchEvent(child, new CountingTouchEvent(TouchEvent.PRIMARY_POINT_UP,
+                    new MmiPoint(PARENT_WIDTH / 2f, y), 8));
+        }
+    }
+
+    private static void runTasks(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    // replays the drag from the anchor
+    private void runDrag() {
+        layout.restoreState(startState);
+        for (CountingTouchEvent event : gesture) {
+            event.reads = 0;
+            FakeWindow.dispatchTouchEvent(child, event);
+        }
+    }
+
+    /**
+     * Single pointer event which returns the same point on every read, unlike the platform, so
+     * only the allocations of the sheet are measured, and counts the reads.
+     */
+    private static final class CountingTouchEvent extends TouchEvent {
+        private final int action;
+        private final MmiPoint position;
+        private final long time;
+        private int reads;
+
+        CountingTouchEvent(int action, MmiPoint position, long time) {
+            this.action = action;
+            this.position = position;
+            this.time = time;
+        }
+
+        @Override
+        public int getAction() {
+            return action;
+        }
+
+        @Override
+        public int getIndex() {
+            return 0;
+        }
+
+        @Override
+        public int getPointerCount() {
+            return 1;
+        }
+
+        @Override
+        public int getPointerId(int index) {
+            return 0;
+        }
+
+        @Override
+        public MmiPoint getPointerPosition(int index) {
+            reads++;
+            return position;
+        }
+
+        @Override
+        public MmiPoint getPointerScreenPosition(int index) {
+            reads++;
+            return position;
+        }
+
+        @Override
+        public long getOccurredTime() {
+            return time;
+        }
+    }
+}
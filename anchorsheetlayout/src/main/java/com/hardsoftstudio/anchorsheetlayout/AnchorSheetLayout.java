@@ -16,21 +16,43 @@
 
 package com.hardsoftstudio.anchorsheetlayout;
 
-import ohos.agp.animation.Animator;
-import ohos.agp.animation.AnimatorValue;
 import ohos.agp.components.Attr;
+import ohos.agp.components.AttrHelper;
 import ohos.agp.components.AttrSet;
 import ohos.agp.components.Component;
 import ohos.agp.components.ComponentContainer;
+import ohos.agp.components.ComponentParent;
+import ohos.agp.components.ComponentTreeObserver;
+import ohos.agp.components.DirectionalLayout;
+import ohos.aafwk.content.IntentParams;
 import ohos.app.Context;
+import ohos.eventhandler.EventHandler;
+import ohos.eventhandler.EventRunner;
+import ohos.multimodalinput.event.MmiPoint;
 import ohos.multimodalinput.event.TouchEvent;
+import ohos.utils.PacMap;
+import com.hardsoftstudio.anchorsheetlayout.core.GestureMetrics;
+import com.hardsoftstudio.anchorsheetlayout.core.GestureRecording;
+import com.hardsoftstudio.anchorsheetlayout.core.HitIndex;
+import com.hardsoftstudio.anchorsheetlayout.core.SettleInterpolator;
+import com.hardsoftstudio.anchorsheetlayout.core.SettleMotion;
+import com.hardsoftstudio.anchorsheetlayout.core.SheetModel;
+import com.hardsoftstudio.anchorsheetlayout.core.SheetSnapshot;
+import com.hardsoftstudio.anchorsheetlayout.core.SlideBindings;
+import com.hardsoftstudio.anchorsheetlayout.core.SlideFilter;
+import com.hardsoftstudio.anchorsheetlayout.core.SnapshotStream;
+import com.hardsoftstudio.anchorsheetlayout.core.TargetPolicy;
+import com.hardsoftstudio.anchorsheetlayout.core.VelocityTracker;
 import org.jetbrains.annotations.NotNull;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * AnchorSheetLayout is a custom layout where it can support only one child. So, for adding multiple
@@ -61,6 +83,61 @@ public class AnchorSheetLayout extends ComponentContainer {
          *                    between hidden and collapsed states.
          */
         public abstract void onSlide(@NotNull Component bottomSheet, float slideOffset);
+
+        /**
+         * Called when the bottom sheet comes to rest at a different detent.
+         *
+         * @param bottomSheet The bottom sheet view.
+         * @param detent      The index of the detent, 0 being expanded and
+         *                    {@link #getDetentCount()} - 1 collapsed, or {@link #DETENT_HIDDEN}.
+         */
+        public void onDetentChanged(@NotNull Component bottomSheet, int detent) {
+            // Do nothing by default
+        }
+    }
+
+    /**
+     * Listener for the performance metrics of the sheet. A gesture runs from the pointer down,
+     * or a call to {@link #setState(int)}, until the sheet rests again or a new gesture starts.
+     */
+    public interface SheetMetricsListener {
+        /**
+         * Called once per gesture with the work done by the sheet.
+         *
+         * @param bottomSheet The bottom sheet view.
+         * @param metrics     The metrics of the gesture. The instance is reused for the next
+         *                    gesture, copy the values to keep them.
+         */
+        void onGestureMetrics(@NotNull Component bottomSheet, @NotNull GestureMetrics metrics);
+    }
+
+    /**
+     * Creates the content of the sheet the first time it is needed, see
+     * {@link #setContentProvider(ContentProvider)}.
+     */
+    public interface ContentProvider {
+        /**
+         * Creates the content of the sheet, which is added to the child of the layout.
+         *
+         * @param context The context of the layout
+         * @return The content of the sheet
+         */
+        @NotNull
+        Component createContent(@NotNull Context context);
+    }
+
+    /**
+     * A registered callback with the filter of its slide events.
+     */
+    private static final class CallbackEntry {
+        final AnchorSheetCallback callback;
+        // null when every slide is delivered
+        final SlideFilter filter;
+
+        CallbackEntry(AnchorSheetCallback callback, SlideFilter filter) {
+            this.callback = callback;
+            this.filter = filter;
+        }
     }
 
     /**
@@ -72,37 +149,42 @@ public class AnchorSheetLayout extends ComponentContainer {
     /**
      * The bottom sheet is dragging.
      */
-    public static final int STATE_DRAGGING = 1;
+    public static final int STATE_DRAGGING = SheetModel.STATE_DRAGGING;
 
     /**
      * The bottom sheet is settling.
      */
-    public static final int STATE_SETTLING = 2;
+    public static final int STATE_SETTLING = SheetModel.STATE_SETTLING;
 
     /**
      * The bottom sheet is expanded.
      */
-    public static final int STATE_EXPANDED = 3;
+    public static final int STATE_EXPANDED = SheetModel.STATE_EXPANDED;
 
     /**
      * The bottom sheet is collapsed.
      */
-    public static final int STATE_COLLAPSED = 4;
+    public static final int STATE_COLLAPSED = SheetModel.STATE_COLLAPSED;
 
     /**
      * The bottom sheet is hidden.
      */
-    public static final int STATE_HIDDEN = 5;
+    public static final int STATE_HIDDEN = SheetModel.STATE_HIDDEN;
 
     /**
      * The bottom sheet is anchor.
      */
-    public static final int STATE_ANCHOR = 6;
+    public static final int STATE_ANCHOR = SheetModel.STATE_ANCHOR;
 
     /**
      * The bottom sheet is forced to be hidden programmatically.
      */
-    public static final int STATE_FORCE_HIDDEN = 7;
+    public static final int STATE_FORCE_HIDDEN = SheetModel.STATE_FORCE_HIDDEN;
+
+    /**
+     * Detent index of the hidden sheet.
+     */
+    public static final int DETENT_HIDDEN = SheetModel.DETENT_HIDDEN;
 
     /**
      * The possible states of the sheet.
@@ -119,49 +201,211 @@ public class AnchorSheetLayout extends ComponentContainer {
     @Retention(RetentionPolicy.SOURCE)
     public @interface State {
     }
-    // Threshold to make sheet hide
-    private static final float HIDE_THRESHOLD = 0.25f;
 
-    // Resistance given to vertical velocity
-    private static final float HIDE_FRICTION = 0.1f;
+    /**
+     * The sheet settles at constant speed, in at most 200 milliseconds.
+     */
+    public static final int SETTLE_LINEAR = SettleMotion.MODE_LINEAR;
+
+    /**
+     * The sheet settles along a critically damped spring which starts with the release velocity.
+     */
+    public static final int SETTLE_SPRING = SettleMotion.MODE_SPRING;
+
+    /**
+     * The sheet decelerates from the release velocity and comes to rest at the target.
+     */
+    public static final int SETTLE_DECAY = SettleMotion.MODE_DECAY;
+
+    /**
+     * The possible settle modes of the sheet.
+     */
+    @IntDef({
+        SETTLE_LINEAR,
+        SETTLE_SPRING,
+        SETTLE_DECAY
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface SettleMode {
+    }
+
+    /**
+     * Opacity of a bound component.
+     */
+    public static final int PROPERTY_ALPHA = SlideBindings.PROPERTY_ALPHA;
+
+    /**
+     * Horizontal translation of a bound component.
+     */
+    public static final int PROPERTY_TRANSLATION_X = SlideBindings.PROPERTY_TRANSLATION_X;
+
+    /**
+     * Vertical translation of a bound component.
+     */
+    public static final int PROPERTY_TRANSLATION_Y = SlideBindings.PROPERTY_TRANSLATION_Y;
+
+    /**
+     * Horizontal scale of a bound component.
+     */
+    public static final int PROPERTY_SCALE_X = SlideBindings.PROPERTY_SCALE_X;
+
+    /**
+     * Vertical scale of a bound component.
+     */
+    public static final int PROPERTY_SCALE_Y = SlideBindings.PROPERTY_SCALE_Y;
+
+    /**
+     * Rotation of a bound component in degrees.
+     */
+    public static final int PROPERTY_ROTATION = SlideBindings.PROPERTY_ROTATION;
+
+    /**
+     * The properties of a component which can be bound to the slide offset.
+     */
+    @IntDef({
+        PROPERTY_ALPHA,
+        PROPERTY_TRANSLATION_X,
+        PROPERTY_TRANSLATION_Y,
+        PROPERTY_SCALE_X,
+        PROPERTY_SCALE_Y,
+        PROPERTY_ROTATION
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface BindingProperty {
+    }
+
+    /**
+     * The bound property follows the slide offset at a constant rate.
+     */
+    public static final int CURVE_LINEAR = SlideBindings.CURVE_LINEAR;
+
+    /**
+     * The bound property starts slowly and speeds up.
+     */
+    public static final int CURVE_ACCELERATE = SlideBindings.CURVE_ACCELERATE;
+
+    /**
+     * The bound property starts quickly and slows down.
+     */
+    public static final int CURVE_DECELERATE = SlideBindings.CURVE_DECELERATE;
+
+    /**
+     * The bound property starts and ends slowly.
+     */
+    public static final int CURVE_ACCELERATE_DECELERATE = SlideBindings.CURVE_ACCELERATE_DECELERATE;
 
+    /**
+     * The easing curves of a binding.
+     */
+    @IntDef({
+        CURVE_LINEAR,
+        CURVE_ACCELERATE,
+        CURVE_DECELERATE,
+        CURVE_ACCELERATE_DECELERATE
+    })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface BindingCurve {
+    }
     // Default values
     private static final float ANCHOR_THRESHOLD = 0.50f;
     private static final int DEFAULT_PEEK_HEIGHT = 217;
     private static final int DEFAULT_MIN_OFFSET = 0;
     private static final boolean CAN_HIDE = true;
     private static final boolean SKIP_COLLAPSED = false;
+    private static final long DRAG_FRAME_INTERVAL_MS = 16;
+    private static final float DEFAULT_TOUCH_SLOP_VP = 8f;
+
+    // Offsets, snapping rules and settle timing of the sheet
+    private final SheetModel mModel = new SheetModel();
 
-    // Decides the height of the Sheet in Anchor State
-    private float anchorThreshold = ANCHOR_THRESHOLD;
+    @State
+    private int mState = STATE_COLLAPSED;
 
-    // Distance between Layout Top and Child Top in Hidden State
-    private int minOffset;
+    // Detent the sheet rests at, DETENT_NONE until the first layout
+    private int mDetent = SheetModel.DETENT_NONE;
 
-    // Distance between Layout Top and Child Top in Expanded State
-    private int mMaxOffset;
+    // Detent reached by the settle in flight
+    private int mSettleDetent;
 
-    // Distance between Layout Top and Child Top in Anchor State
-    private int mAnchorOffset;
+    private DragHelper mDragHelper;
 
-    // Says whether Anchor Sheet can go to Hidden State
-    private boolean canHide;
+    // Whether the drag is applied once per frame rather than on every touch event
+    private boolean mDragCoalescing;
 
-    // Whether to avoid Collapse State when Sheet is moving down
-    private boolean skipCollapsed;
+    // Vertical distance in pixels a pointer moves before the sheet is dragged
+    private int mTouchSlop;
 
-    @State
-    private int mState = STATE_COLLAPSED;
+    // Posts the coalesced drag frames and the idle inflation on the main thread, created on first use
+    private EventHandler mMainHandler;
 
-    private DragHelper mDragHelper;
+    // Runs the coalesced drag at the next boundary of the frame interval
+    private final DragHelper.FrameScheduler mFrameScheduler = frame -> {
+        long now = System.nanoTime() / 1_000_000;
+        getMainHandler().postTask(frame, DRAG_FRAME_INTERVAL_MS - now % DRAG_FRAME_INTERVAL_MS);
+    };
+
+    // Moves the sheet to its resting position, reused by every settle
+    private final SettleAnimator mSettleAnimator = new SettleAnimator(new SettleAnimator.Listener() {
+        @Override
+        public void onSettleUpdate(float top) {
+            child.setContentPositionY(top);
+            onTopChanged((int) top);
+            if (mMetrics != null) {
+                mMetrics.recordSettleFrame(System.nanoTime());
+            }
+        }
+
+        @Override
+        public void onSettleEnd(int state) {
+            setStateInternal(state);
+            setDetentInternal(mSettleDetent);
+            if (mMetrics != null) {
+                mMetrics.endSettle(System.nanoTime(), true);
+                reportGestureMetrics();
+            }
+        }
+    });
 
-    private int mParentHeight;
+    // Coordinator the sheet is registered with, null when the sheet settles on its own
+    private SheetCoordinator mCoordinator;
 
     // reference to one and only child
     private WeakReference<ComponentContainer> mViewRef;
 
+    // Creates the content of the sheet, null without one or once the content is created
+    private ContentProvider mContentProvider;
+
+    // Callback set with setAnchorSheetCallback, also present in mCallbacks
     private AnchorSheetCallback mCallback;
 
+    // Registered callbacks with their slide filters, replaced as a whole on every change so a
+    // dispatch in progress keeps iterating the array it started with
+    private CallbackEntry[] mCallbacks = new CallbackEntry[0];
+
+    // Whether any callback limits its slide rate, the only case the dispatch reads the clock
+    private boolean mSlideRateLimited;
+
+    // Properties bound to the slide offset, and the component of each binding
+    private final SlideBindings mBindings = new SlideBindings();
+    private Component[] mBoundComponents = new Component[0];
+
+    private SheetMetricsListener mMetricsListener;
+
+    // Metrics of the current gesture, null when no metrics listener is set
+    private GestureMetrics mMetrics;
+
+    // Whether mMetrics holds values which have not been reported yet
+    private boolean mMetricsPending;
+
+    // Receives the touch events of the sheet, null when not recording
+    private GestureRecording mRecording;
+
+    // Publishes the state and slide offset to the subscribed consumers
+    private final SnapshotStream mSnapshots = new SnapshotStream();
+
+    // Listener of the application, called after the sheet followed the refreshed layout
+    private LayoutRefreshedListener mLayoutRefreshedListener;
+
     // Touched scrollable component
     private boolean mIsTouchOnScroll = false;
 
@@ -174,9 +418,38 @@ public class AnchorSheetLayout extends ComponentContainer {
     // last touch point
     private float lastY = 0;
 
+    // Whether the sheet is moved by the scroll of a scrollable child
+    private boolean mNestedScrolling;
+
+    // Distance the sheet moved in the nested scroll in progress
+    private int mNestedDy;
+
+    // Velocity of the touch routed to a scrollable child, for handing its release to the sheet
+    private final VelocityTracker mNestedVelocity = new VelocityTracker();
+
     // list for storing all the scrollable children references
     private final List<WeakReference<Component>> mChildrenList = new ArrayList<>();
 
+    // whether the child has been searched for scrollable children once
+    private boolean mScrollablesDiscovered;
+
+    // deepest level below the child searched for scrollable children
+    private int mScrollableDiscoveryDepth = Integer.MAX_VALUE;
+
+    // bounds of the scrollable children in child coordinates, ids are positions in mChildrenList
+    private final HitIndex mScrollableIndex = new HitIndex();
+
+    // whether mScrollableIndex holds every registered scrollable child at its current bounds
+    private boolean mScrollableIndexValid;
+
+    // Marks the scrollable index stale after any layout of the window, as any component between
+    // the scrollable children and the child may have moved
+    private final ComponentTreeObserver.GlobalLayoutListener mTreeLayoutListener =
+            () -> mScrollableIndexValid = false;
+
+    // left, top, right and bottom of a scrollable child, computed without allocating
+    private final int[] mScrollableBounds = new int[4];
+
     // XML attribute
     private static final String ATTR_PEEK_HEIGHT = "peekHeight";
     private static final String ATTR_MIN_OFFSET = "minOffset";
@@ -184,8 +457,9 @@ public class AnchorSheetLayout extends ComponentContainer {
     private static final String ATTR_SKIP_COLLAPSED = "skipCollapsed";
     private static final String ATTR_ANCHOR_THRESHOLD = "anchorThreshold";
 
-    // Height of the Sheet when in Collapsed State
-    private int peekHeight;
+    // Saved state keys, followed by the component id
+    private static final String KEY_STATE = "anchorSheetLayout.state.";
+    private static final String KEY_DETENT = "anchorSheetLayout.detent.";
 
     /**
      * Constructor of the AnchorSheetLayout.
@@ -195,38 +469,102 @@ public class AnchorSheetLayout extends ComponentContainer {
      */
     public AnchorSheetLayout(Context context, AttrSet attrs) {
         super(context, attrs);
+        mTouchSlop = AttrHelper.vp2px(DEFAULT_TOUCH_SLOP_VP, context);
         if (attrs != null) {
             Optional<Attr> value = attrs.getAttr(ATTR_PEEK_HEIGHT);
-            this.peekHeight = value.map(Attr::getIntegerValue).orElse(DEFAULT_PEEK_HEIGHT);
+            mModel.setPeekHeight(value.map(Attr::getIntegerValue).orElse(DEFAULT_PEEK_HEIGHT));
 
             value = attrs.getAttr(ATTR_MIN_OFFSET);
-            this.minOffset = value.map(Attr::getIntegerValue).orElse(DEFAULT_MIN_OFFSET);
+            mModel.setMinOffset(value.map(Attr::getIntegerValue).orElse(DEFAULT_MIN_OFFSET));
 
             value = attrs.getAttr(ATTR_CAN_HIDE);
-            this.canHide = value.map(Attr::getBoolValue).orElse(CAN_HIDE);
+            mModel.setCanHide(value.map(Attr::getBoolValue).orElse(CAN_HIDE));
 
             value = attrs.getAttr(ATTR_ANCHOR_THRESHOLD);
-            this.anchorThreshold = value.map(Attr::getFloatValue).orElse(ANCHOR_THRESHOLD);
+            mModel.setAnchorThreshold(value.map(Attr::getFloatValue).orElse(ANCHOR_THRESHOLD));
 
             value = attrs.getAttr(ATTR_SKIP_COLLAPSED);
-            this.skipCollapsed = value.map(Attr::getBoolValue).orElse(SKIP_COLLAPSED);
+            mModel.setSkipCollapsed(value.map(Attr::getBoolValue).orElse(SKIP_COLLAPSED));
         }
         this.setBindStateChangedListener(new BindStateChangedListener() {
             @Override
             public void onComponentBoundToWindow(Component component) {
                 mDragHelper = DragHelper.create((ComponentContainer) component, mDragCallback);
-                mParentHeight = component.getHeight();
-                setAnchorOffset(anchorThreshold);
-                setPeekHeight(peekHeight);
+                mDragHelper.setFrameScheduler(mDragCoalescing ? mFrameScheduler : null);
+                mDragHelper.setTouchSlop(mTouchSlop);
+                mModel.setVelocityBounds(mDragHelper.getMinVelocity(), mDragHelper.getMaxVelocity());
+                updateParentSize(component.getWidth(), component.getHeight());
+                component.getComponentTreeObserver().addTreeLayoutChangedListener(mTreeLayoutListener);
+                mScrollableIndexValid = false;
             }
 
             @Override
             public void onComponentUnboundFromWindow(Component component) {
-                // Do nothing
+                component.getComponentTreeObserver().removeTreeLayoutChangedListener(mTreeLayoutListener);
+            }
+        });
+        super.setLayoutRefreshedListener(component -> {
+            updateParentSize(component.getWidth(), component.getHeight());
+            if (mLayoutRefreshedListener != null) {
+                mLayoutRefreshedListener.onRefreshed(component);
             }
         });
     }
 
+    /**
+     * Sets the listener notified when the layout is refreshed. The sheet keeps following the size
+     * of the layout: the listener is called after the offsets are updated.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    @Override
+    public void setLayoutRefreshedListener(LayoutRefreshedListener listener) {
+        mLayoutRefreshedListener = listener;
+    }
+
+    /**
+     * Recomputes the offsets when the size of the layout changed, e.g. on rotation or a window
+     * resize, and moves the sheet to the same detent, or the same slide offset while it is being
+     * dragged, without animating. Layouts which keep their size cost one comparison.
+     *
+     * @param width  New width of the layout
+     * @param height New height of the layout
+     */
+    private void updateParentSize(int width, int height) {
+        if (width == mModel.getParentWidth() && height == mModel.getParentHeight()) {
+            return;
+        }
+        ComponentContainer sheet = child;
+        if (sheet == null || mDetent == SheetModel.DETENT_NONE) {
+            // not positioned yet, the child bind uses the new offsets
+            mModel.setParentSize(width, height);
+            return;
+        }
+        float slideOffset = mModel.getSlideOffset((int) sheet.getContentPositionY());
+        mModel.setParentSize(width, height);
+        if (mSettleAnimator.isRunning()) {
+            // jump to where the settle was heading
+            mSettleAnimator.cancel();
+            if (mMetrics != null) {
+                mMetrics.endSettle(System.nanoTime(), false);
+            }
+            setStateInternal(mSettleAnimator.getTargetState());
+            setDetentInternal(mSettleDetent);
+        }
+        int top;
+        if (mState == STATE_DRAGGING) {
+            top = mModel.getTopForSlideOffset(slideOffset);
+        } else if (mDetent >= 0) {
+            mDetent = Math.min(mDetent, mModel.getDetentCount() - 1);
+            top = mModel.getDetentTop(mDetent);
+        } else {
+            top = mModel.getParentHeight();
+        }
+        sheet.setContentPositionY(top);
+        onTopChanged(top);
+        mScrollableIndexValid = false;
+    }
+
     private final DragHelper.Callback mDragCallback = new DragHelper.Callback() {
 
         // called whenever dragHelper is trying to capture the view
@@ -238,24 +576,56 @@ public class AnchorSheetLayout extends ComponentContainer {
             return mViewRef != null && mViewRef.get() == child;
         }
 
+        // called when the sheet is captured again, stops the settle in flight
+        @Override
+        public void onViewCaptured(@NotNull Component capturedChild) {
+            mSettleAnimator.cancel();
+        }
+
         // called when the position of the view is changed
         @Override
         public void onViewPositionChanged(@NotNull Component changedView, int left, int top, int dx, int dy) {
+            onTopChanged(top);
             dispatchOnSlide(top);
         }
 
-        // provides CallBack call
+        // provides CallBack call to the callbacks whose filter accepts the offset
         private void dispatchOnSlide(int top) {
+            dispatchOnSlide(top, false);
+        }
+
+        // provides CallBack call with the final offset to the callbacks which missed it
+        private void flushOnSlide(int top) {
+            dispatchOnSlide(top, true);
+        }
+
+        private void dispatchOnSlide(int top, boolean flush) {
+            CallbackEntry[] callbacks = mCallbacks;
             Component bottomSheet = mViewRef.get();
-            if (bottomSheet != null && mCallback != null) {
-                if (top > mMaxOffset) {
-                    mCallback.onSlide(bottomSheet, (float) (mMaxOffset - top)
-                            / (mParentHeight - mMaxOffset));
+            if (bottomSheet == null || callbacks.length == 0) {
+                return;
+            }
+            long start = mMetrics == null ? 0 : System.nanoTime();
+            long now = mSlideRateLimited ? System.nanoTime() : 0;
+            float slideOffset = mModel.getSlideOffset(top);
+            int delivered = 0;
+            for (CallbackEntry entry : callbacks) {
+                SlideFilter filter = entry.filter;
+                boolean deliver;
+                if (filter == null) {
+                    // every offset was delivered as it came, so none is left to flush
+                    deliver = !flush;
                 } else {
-                    mCallback.onSlide(bottomSheet,
-                            (float) (mMaxOffset - top) / (mMaxOffset - minOffset));
+                    deliver = flush ? filter.flush(slideOffset, now) : filter.accept(slideOffset, now);
+                }
+                if (deliver) {
+                    entry.callback.onSlide(bottomSheet, slideOffset);
+                    delivered++;
                 }
             }
+            if (mMetrics != null) {
+                mMetrics.recordSlideDispatch(delivered, System.nanoTime() - start);
+            }
         }
 
         // called when the state of the captured view is changed
@@ -270,48 +640,19 @@ public class AnchorSheetLayout extends ComponentContainer {
         @Override
         public void onViewReleased(@NotNull Component releasedChild, float xvel, float yvel, float dx, float dy) {
             int currentTop = (int) releasedChild.getContentPositionY();
-            @State int targetState;
-
-            if (yvel == 0.f) { // velocity is zero
-                if (Math.abs(currentTop - minOffset) < Math.abs(currentTop - mAnchorOffset)) {
-                    targetState = STATE_EXPANDED;
-                } else if (Math.abs(currentTop - mAnchorOffset) < Math.abs(currentTop - mMaxOffset)) {
-                    targetState = STATE_ANCHOR;
-                } else {
-                    targetState = STATE_COLLAPSED;
-                }
-            } else if (dy < 0) { // moving up
-                if (currentTop < mAnchorOffset) {
-                    targetState = STATE_EXPANDED;
-                } else {
-                    targetState = STATE_ANCHOR;
-                }
-            } else if (dy > 0) { // moving down
-                if ((isCanHide() && shouldHide(releasedChild, yvel)) || getSkipCollapsed()) {
-                    targetState = STATE_HIDDEN;
-                } else {
-                    targetState = STATE_COLLAPSED;
-                }
-            } else { // just a click
-                if (currentTop == mAnchorOffset) {
-                    targetState = STATE_ANCHOR;
-                } else if (currentTop == minOffset) {
-                    targetState = STATE_EXPANDED;
-                } else if (currentTop == mMaxOffset) {
-                    targetState = STATE_COLLAPSED;
-                } else {
-                    targetState = mState;
-                }
-            }
-            if (targetState != mState) {
-                startSettlingAnimation(releasedChild, targetState, (int) yvel);
+            flushOnSlide(currentTop);
+            int detent = mModel.getTargetDetent(currentTop, yvel, dy);
+            if (detent == SheetModel.DETENT_NONE) {
+                // the policy keeps the sheet where it is, which must still be a resting position
+                detent = mModel.getDetentForTop(currentTop);
             }
+            startSettlingAnimation(releasedChild, mModel.getStateForDetent(detent), detent, yvel);
         }
 
         // returns the vertical position of the captured view when it's been dragged
         @Override
         public int clampViewPositionVertical(@NotNull Component child, int top, int dy) {
-            return Math.min(canHide ? mParentHeight : mMaxOffset, Math.max(minOffset, top));
+            return mModel.clampTop(top);
         }
 
         // returns the horizontal position of the captured view when it's been dragged
@@ -323,11 +664,7 @@ public class AnchorSheetLayout extends ComponentContainer {
         // possible vertical drag
         @Override
         public int getViewVerticalDragRange(@NotNull Component child) {
-            if (canHide) {
-                return mParentHeight - minOffset;
-            } else {
-                return mMaxOffset - minOffset;
-            }
+            return mModel.getVerticalDragRange();
         }
     };
 
@@ -348,27 +685,12 @@ public class AnchorSheetLayout extends ComponentContainer {
         child.setBindStateChangedListener(new BindStateChangedListener() {
             @Override
             public void onComponentBoundToWindow(Component component) {
-                mChildrenList.clear();
-                // find all the scrollable children
-                findScrollingChild(child);
-                // set the child position
-                switch (mState) {
-                    case STATE_EXPANDED:
-                        child.setContentPositionY(minOffset);
-                        break;
-                    case STATE_COLLAPSED:
-                        child.setContentPositionY(mMaxOffset);
-                        break;
-                    case STATE_ANCHOR:
-                        child.setContentPositionY(mAnchorOffset);
-                        break;
-                    case STATE_HIDDEN:
-                    case STATE_FORCE_HIDDEN:
-                        child.setContentPositionY(mParentHeight);
-                        break;
-                    default:
-                        break;
+                if (!mScrollablesDiscovered) {
+                    // find the scrollable children once, later changes are registered incrementally
+                    mScrollablesDiscovered = true;
+                    discoverScrollableChildren(child);
                 }
+                positionAtRest();
             }
 
             @Override
@@ -378,45 +700,104 @@ public class AnchorSheetLayout extends ComponentContainer {
         });
     }
 
+    /**
+     * Places the child at the detent of the current state directly, without animating or
+     * notifying the callbacks.
+     */
+    private void positionAtRest() {
+        if (mDetent == SheetModel.DETENT_NONE) {
+            mDetent = mModel.getDetentForState(mState);
+        } else if (mDetent >= 0) {
+            // set before the detents were laid out
+            mDetent = Math.min(mDetent, mModel.getDetentCount() - 1);
+            mState = mModel.getStateForDetent(mDetent);
+        }
+        if (mDetent != SheetModel.DETENT_HIDDEN) {
+            inflateContent();
+        }
+        switch (mState) {
+            case STATE_EXPANDED:
+            case STATE_COLLAPSED:
+            case STATE_ANCHOR:
+                child.setContentPositionY(mModel.getDetentTop(mDetent));
+                break;
+            case STATE_FORCE_HIDDEN:
+            case STATE_HIDDEN:
+                child.setContentPositionY(mModel.getParentHeight());
+                break;
+            default:
+                break;
+        }
+        onTopChanged((int) child.getContentPositionY());
+    }
+
     private final TouchEventListener touchEventListener = (component, event) -> {
+        if (mRecording != null) {
+            record(mRecording, event);
+        }
+        DragHelper dragHelper = mDragHelper;
+        if (dragHelper == null) {
+            throw new IllegalArgumentException("ViewDragHelper may not be null");
+        }
         int action = event.getAction();
-        float currentY = event.getPointerScreenPosition(0).getY();
+        if (mMetrics != null && action == TouchEvent.PRIMARY_POINT_DOWN) {
+            // a new gesture interrupts the previous one
+            reportGestureMetrics();
+        }
+        // the pointers are read once, here and in the drag helper alike
+        dragHelper.readPointers(event);
 
         switch (action) {
             case TouchEvent.PRIMARY_POINT_DOWN:
                 mFirstMove = true;
-                lastY = currentY;
                 if (mState == STATE_EXPANDED) {
-                    // traverse through all the children and see whether touch given to any scrollable child
-                    for (WeakReference<Component> componentWeakReference : mChildrenList) {
-                        float x = getTouchX(event, 0);
-                        float y = getTouchY(event, 0);
-                        Component listView = componentWeakReference.get();
-                        float listX1 = listView.getContentPositionX();
-                        float listX2 = listView.getContentPositionX() + listView.getWidth();
-                        float listY1 = listView.getContentPositionY();
-                        float listY2 = listView.getContentPositionY() + listView.getHeight();
-                        if (listX1 <= x && listX2 >= x && listY1 <= y && listY2 >= y) {
-                            mScrollView = componentWeakReference.get();
-                            if (listView.canScroll(DRAG_DOWN)) {
-                                mIsTouchOnScroll = true;
-                                return true;
-                            }
+                    // see whether touch given to any scrollable child, indexed in child coordinates
+                    float screenY = dragHelper.getPointerY(0);
+                    Component listView = findScrollableChildAt(
+                            dragHelper.getPointerX(0) - dragHelper.getParentScreenX() - child.getContentPositionX(),
+                            screenY - dragHelper.getParentScreenY() - child.getContentPositionY());
+                    if (listView != null) {
+                        mScrollView = listView;
+                        lastY = screenY;
+                        mNestedVelocity.clear();
+                        mNestedVelocity.addSample(event.getOccurredTime(), 0, lastY);
+                        if (listView.canScroll(DRAG_DOWN)) {
+                            mIsTouchOnScroll = true;
+                            return true;
                         }
                     }
                 }
                 break;
             case TouchEvent.PRIMARY_POINT_UP:
+            case TouchEvent.CANCEL:
                 mScrollView = null;
-                mIsTouchOnScroll = false;
+                if (mIsTouchOnScroll) {
+                    mIsTouchOnScroll = false;
+                    if (mNestedScrolling) {
+                        // the sheet takes the release of the gesture it was handed
+                        mNestedVelocity.addSample(event.getOccurredTime(), 0, dragHelper.getPointerY(0));
+                        mNestedVelocity.computeVelocity();
+                        dispatchNestedPreFling(action == TouchEvent.CANCEL ? 0 : mNestedVelocity.getYVelocity());
+                    }
+                    return true;
+                }
                 break;
             case TouchEvent.POINT_MOVE:
+                if (mScrollView == null) {
+                    // the drag of the sheet itself reads the pointers in the drag helper only
+                    mFirstMove = false;
+                    break;
+                }
+                float currentY = dragHelper.getPointerY(0);
                 float deltaY = currentY - lastY;
-                if (mFirstMove && mScrollView != null && deltaY <= 0) {
+                if (mFirstMove && deltaY <= 0) {
                     mIsTouchOnScroll = true;
                 }
                 mFirstMove = false;
                 if (mIsTouchOnScroll) {
+                    mNestedVelocity.addSample(event.getOccurredTime(), 0, currentY);
+                    handOffScroll((int) deltaY);
+                    lastY += (int) deltaY;
                     return true;
                 }
                 lastY  = currentY;
@@ -424,126 +805,481 @@ public class AnchorSheetLayout extends ComponentContainer {
             default:
                 break;
         }
-        if (mDragHelper != null) {
-            mDragHelper.captureChildView(child);
-            mDragHelper.processTouchEvent(event);
+        if (mMetrics == null) {
+            dragHelper.processReadTouchEvent(event);
         } else {
-            throw new IllegalArgumentException("ViewDragHelper may not be null");
+            processTouchEventWithMetrics(event);
+        }
+        if (action == TouchEvent.PRIMARY_POINT_DOWN && mState == STATE_SETTLING) {
+            // a moving sheet is caught without waiting for the touch slop
+            dragHelper.captureChildView(child);
         }
         return true;
     };
 
     /**
-     * Stores references of all the scrollable components present in the child.
+     * Lets the drag helper process the event, whose pointers it read, while recording it in the
+     * gesture metrics.
      *
-     * @param component One and Only Child
+     * @param event The dispatched touch event
      */
-    private void findScrollingChild(Component component) {
-        if (component.canScroll(DRAG_DOWN) || component.canScroll(DRAG_UP)) {
-            mChildrenList.add(new WeakReference<>(component));
-            return;
+    private void processTouchEventWithMetrics(TouchEvent event) {
+        mMetricsPending = true;
+        long start = System.nanoTime();
+        mDragHelper.processReadTouchEvent(event);
+        mMetrics.recordTouchEvent(System.nanoTime() - start);
+        int action = event.getAction();
+        if ((action == TouchEvent.PRIMARY_POINT_UP || action == TouchEvent.CANCEL) && !mSettleAnimator.isRunning()) {
+            // released without settling, the gesture is over
+            reportGestureMetrics();
         }
-        if (component instanceof ComponentContainer) {
-            ComponentContainer group = (ComponentContainer) component;
-            for (int i = 0, count = group.getChildCount(); i < count; i++) {
-                Component scrollingChild = group.getComponentAt(i);
-                findScrollingChild(scrollingChild);
+    }
+
+    /**
+     * Reports the metrics of the current gesture, if any, and clears them for the next one.
+     */
+    private void reportGestureMetrics() {
+        if (mMetricsPending) {
+            mMetricsPending = false;
+            mMetrics.endSettle(System.nanoTime(), false);
+            Component bottomSheet = mViewRef != null ? mViewRef.get() : null;
+            if (bottomSheet != null) {
+                mMetricsListener.onGestureMetrics(bottomSheet, mMetrics);
             }
         }
+        mMetrics.reset();
     }
 
     /**
-     * Sets the height of the bottom sheet when it is collapsed.
+     * Sets the provider of the sheet content, which is then created only when the sheet first
+     * leaves the hidden states, or earlier on {@link #inflateContent()} or
+     * {@link #inflateContentWhenIdle()}. Until then the child is an empty placeholder: the child
+     * declared in the layout if there is one, else a container filling the layout. A sheet which
+     * starts hidden thus costs no inflation at start-up.
      *
-     * @param peekHeight The height of the collapsed bottom sheet in pixels.
+     * @param provider Creates the content, which is added to the child
      */
-    public final void setPeekHeight(int peekHeight) {
-        this.peekHeight = Math.max(0, peekHeight);
-        mMaxOffset = mParentHeight - peekHeight;
+    public void setContentProvider(@NotNull ContentProvider provider) {
+        if (child == null) {
+            DirectionalLayout placeholder = new DirectionalLayout(getContext());
+            placeholder.setLayoutConfig(new LayoutConfig(LayoutConfig.MATCH_PARENT, LayoutConfig.MATCH_PARENT));
+            addComponent(placeholder);
+        }
+        mContentProvider = provider;
+        if (mDragHelper != null && mDetent != SheetModel.DETENT_NONE && mDetent != SheetModel.DETENT_HIDDEN) {
+            // already laid out and visible
+            inflateContent();
+        }
     }
 
     /**
-     * Gets the height of the bottom sheet when it is collapsed.
-     *
-     * @return The height of the collapsed bottom sheet in pixels.
+     * Creates the content of the sheet now, if it is provided by a {@link ContentProvider} and
+     * not created yet.
      */
-    public final int getPeekHeight() {
-        return peekHeight;
+    public void inflateContent() {
+        ContentProvider provider = mContentProvider;
+        if (provider == null) {
+            return;
+        }
+        mContentProvider = null;
+        Component content = provider.createContent(getContext());
+        child.addComponent(content);
+        if (mScrollablesDiscovered) {
+            discoverScrollableChildren(content);
+        }
     }
 
     /**
-     * Gets the distance between parent top and child top when sheet is expanded.
-     *
-     * @return The possible minimum distance between parent top and child top
+     * Creates the content of the sheet once the main thread is idle, e.g. after the first frame
+     * of the slice, so the sheet opens without inflating.
      */
-    public int getMinOffset() {
-        return minOffset;
+    public void inflateContentWhenIdle() {
+        if (mContentProvider != null) {
+            getMainHandler().postTask(this::inflateContent, 0, EventHandler.Priority.IDLE);
+        }
     }
 
     /**
-     * Sets the distance between parent top and child top when sheet is expanded.
+     * Gets whether the content of the sheet is created.
      *
-     * @param minOffset The possible minimum distance between parent top and child top
+     * @return false while a {@link ContentProvider} waits to create the content
      */
-    public void setMinOffset(int minOffset) {
-        this.minOffset = minOffset;
+    public boolean isContentInflated() {
+        return mContentProvider == null;
+    }
+
+    // handler of the main thread
+    private EventHandler getMainHandler() {
+        if (mMainHandler == null) {
+            mMainHandler = new EventHandler(EventRunner.getMainEventRunner());
+        }
+        return mMainHandler;
     }
 
     /**
-     * Get the size in pixels from the anchor state to the top of the parent (Expanded state).
+     * Finds the scrollable child under the given point.
      *
-     * @return pixel size of the anchor state
+     * @param x X coordinate in the child coordinate system
+     * @param y Y coordinate in the child coordinate system
+     * @return The scrollable child under (x, y) or null if none found.
      */
-    public int getAnchorOffset() {
-        return mAnchorOffset;
+    private Component findScrollableChildAt(float x, float y) {
+        if (!mScrollableIndexValid) {
+            buildScrollableIndex();
+        }
+        int id = mScrollableIndex.find(x, y);
+        return id < 0 ? null : mChildrenList.get(id).get();
     }
 
     /**
-     * The multiplier between 0..1 to calculate the Anchor offset.
-     *
-     * @return float between 0..1
+     * Indexes the bounds of the scrollable children, relative to the one and only child.
      */
-    public float getAnchorThreshold() {
-        return anchorThreshold;
+    private void buildScrollableIndex() {
+        mScrollableIndex.clear();
+        int[] bounds = mScrollableBounds;
+        int i = 0;
+        while (i < mChildrenList.size()) {
+            if (!computeScrollableBounds(mChildrenList.get(i).get())) {
+                // collected or no longer inside the sheet
+                mChildrenList.remove(i);
+                continue;
+            }
+            mScrollableIndex.add(i, bounds[0], bounds[1], bounds[2], bounds[3]);
+            i++;
+        }
+        mScrollableIndex.build();
+        mScrollableIndexValid = true;
     }
 
     /**
-     * Set the offset for the anchor state. Number between 0..1
-     * i.e: Anchor the panel at 1/3 of the screen: setAnchorOffset(0.25).
+     * Computes the bounds of a scrollable child relative to the one and only child into
+     * mScrollableBounds.
      *
-     * @param threshold {@link Float} from 0..1
+     * @param scrollable The scrollable child, or null if collected
+     * @return false if the component is no longer inside the sheet
      */
-    public void setAnchorOffset(float threshold) {
-        this.anchorThreshold = threshold;
-        this.mAnchorOffset = (int) Math.max(mParentHeight * anchorThreshold, minOffset);
+    private boolean computeScrollableBounds(Component scrollable) {
+        float left = 0;
+        float top = 0;
+        Component component = scrollable;
+        while (component != null && component != child) {
+            left += component.getContentPositionX();
+            top += component.getContentPositionY();
+            ComponentParent parent = component.getComponentParent();
+            component = parent instanceof Component ? (Component) parent : null;
+        }
+        if (component == null) {
+            return false;
+        }
+        mScrollableBounds[0] = (int) left;
+        mScrollableBounds[1] = (int) top;
+        mScrollableBounds[2] = (int) left + scrollable.getWidth();
+        mScrollableBounds[3] = (int) top + scrollable.getHeight();
+        return true;
     }
 
     /**
-     * Sets whether this bottom sheet can hide when it is swiped down.
+     * Stores references of all the scrollable components present in the component.
      *
-     * @param hideable {@code true} to make this bottom sheet hideable.
+     * @param component Component to search
+     * @param depth Level of the component below the searched root
      */
-    public void setCanHide(boolean hideable) {
-        this.canHide = hideable;
+    private void findScrollingChild(Component component, int depth) {
+        if (component.canScroll(DRAG_DOWN) || component.canScroll(DRAG_UP)) {
+            registerScrollableChild(component);
+            return;
+        }
+        if (depth < mScrollableDiscoveryDepth && component instanceof ComponentContainer) {
+            ComponentContainer group = (ComponentContainer) component;
+            for (int i = 0, count = group.getChildCount(); i < count; i++) {
+                Component scrollingChild = group.getComponentAt(i);
+                findScrollingChild(scrollingChild, depth + 1);
+            }
+        }
     }
 
     /**
-     * Gets whether this bottom sheet can hide when it is swiped down.
+     * Searches the given part of the sheet content for scrollable components and registers them.
+     * The child is searched once when it is first bound to the window; call this for content
+     * added afterwards, e.g. once an asynchronous load completes, instead of rescanning the sheet.
      *
-     * @return {@code true} if this bottom sheet can hide.
+     * @param subtree Component inside the sheet to search, with its descendants
      */
-    public boolean isCanHide() {
-        return canHide;
+    public void discoverScrollableChildren(@NotNull Component subtree) {
+        findScrollingChild(subtree, 0);
     }
 
     /**
-     * Sets whether this bottom sheet should skip the collapsed state when it is being hidden
-     * after it is expanded once. Setting this to true has no effect unless the sheet is hideable.
+     * Registers a scrollable component of the sheet content, so that touches starting on it
+     * scroll it rather than drag the expanded sheet. Registering a component twice has no effect.
+     * Components which leave the sheet are dropped automatically.
+     *
+     * @param scrollable Scrollable component inside the sheet
+     */
+    public void registerScrollableChild(@NotNull Component scrollable) {
+        if (indexOfScrollableChild(scrollable) < 0) {
+            mChildrenList.add(new WeakReference<>(scrollable));
+            mScrollableIndexValid = false;
+        }
+    }
+
+    /**
+     * Unregisters a scrollable component, touches starting on it drag the sheet again.
+     *
+     * @param scrollable Component previously registered or discovered
+     */
+    public void unregisterScrollableChild(@NotNull Component scrollable) {
+        int index = indexOfScrollableChild(scrollable);
+        if (index >= 0) {
+            mChildrenList.remove(index);
+            mScrollableIndexValid = false;
+        }
+    }
+
+    // position of the component in mChildrenList, or -1
+    private int indexOfScrollableChild(Component scrollable) {
+        for (int i = 0, count = mChildrenList.size(); i < count; i++) {
+            if (mChildrenList.get(i).get() == scrollable) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Limits how deep below the searched component scrollable components are looked for, which
+     * bounds the cost of searching large sheets. Scrollable components deeper than this have to
+     * be registered with {@link #registerScrollableChild(Component)}.
+     *
+     * @param depth Number of levels searched below the component, 0 to only check the component
+     */
+    public void setScrollableDiscoveryDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Discovery depth must not be negative: " + depth);
+        }
+        mScrollableDiscoveryDepth = depth;
+    }
+
+    /**
+     * Gets how deep below the searched component scrollable components are looked for.
+     *
+     * @return Number of levels searched, {@link Integer#MAX_VALUE} when unbounded
+     */
+    public int getScrollableDiscoveryDepth() {
+        return mScrollableDiscoveryDepth;
+    }
+
+    /**
+     * Moves the sheet by the part of a touch on a scrollable child which the child cannot
+     * scroll: down once the child shows the start of its content, and back up until the sheet
+     * is expanded again.
+     *
+     * @param dy Movement of the touch in pixels, positive downwards
+     */
+    private void handOffScroll(int dy) {
+        if (dy > 0 && (mNestedScrolling || !mScrollView.canScroll(DRAG_DOWN))) {
+            dispatchNestedScroll(dy);
+        } else if (dy < 0 && mNestedScrolling) {
+            dispatchNestedPreScroll(dy);
+        }
+    }
+
+    /**
+     * Offers the movement of a touch to the sheet before a scrollable child scrolls by it. Moving
+     * up, the sheet consumes the movement until it is expanded. Scrollables which handle their
+     * own touch events call this, and scroll by the rest; registered scrollables are handled by
+     * the sheet.
+     *
+     * @param dy Movement of the touch in pixels, positive downwards
+     * @return The part of dy consumed by the sheet
+     */
+    public int dispatchNestedPreScroll(int dy) {
+        return dy < 0 ? moveNested(dy) : 0;
+    }
+
+    /**
+     * Offers the movement of a touch which a scrollable child could not scroll by to the sheet.
+     * Moving down at the start of the content, the sheet consumes the movement and collapses.
+     *
+     * @param dyUnconsumed Movement left by the scrollable in pixels, positive downwards
+     * @return The part of dyUnconsumed consumed by the sheet
+     */
+    public int dispatchNestedScroll(int dyUnconsumed) {
+        return dyUnconsumed > 0 ? moveNested(dyUnconsumed) : 0;
+    }
+
+    /**
+     * Offers the release of a touch to the sheet before a scrollable child flings. The sheet
+     * takes the release when the gesture moved it, and settles in the direction of the velocity.
+     *
+     * @param velocityY Release velocity in pixels per second, positive downwards
+     * @return true if the sheet consumed the fling and the scrollable should not fling
+     */
+    public boolean dispatchNestedPreFling(float velocityY) {
+        if (!mNestedScrolling) {
+            return false;
+        }
+        mNestedScrolling = false;
+        float yvel = clampVelocity(velocityY);
+        mDragCallback.onViewReleased(child, 0, yvel, 0, yvel == 0 ? mNestedDy : yvel);
+        return true;
+    }
+
+    /**
+     * Hands the momentum left to the sheet when the fling of a scrollable child reaches the start
+     * of its content, so the sheet goes on moving down within the same gesture.
+     *
+     * @param velocityY Velocity left in pixels per second, positive downwards
+     * @return true if the sheet took the momentum
+     */
+    public boolean dispatchNestedFling(float velocityY) {
+        float yvel = clampVelocity(velocityY);
+        if (yvel <= 0 || child == null || mDragHelper == null || mState == STATE_DRAGGING) {
+            return false;
+        }
+        int top = (int) child.getContentPositionY();
+        int detent = mModel.getTargetDetent(top, yvel, yvel);
+        if (detent == SheetModel.DETENT_NONE || detent == mDetent) {
+            return false;
+        }
+        startSettlingAnimation(child, mModel.getStateForDetent(detent), detent, yvel);
+        return true;
+    }
+
+    /**
+     * Ends the nested scroll of a touch released without a fling. A sheet moved by the touch
+     * settles at its nearest detent.
+     */
+    public void stopNestedScroll() {
+        dispatchNestedPreFling(0);
+    }
+
+    // moves the sheet for a scrollable child and returns the distance moved
+    private int moveNested(int dy) {
+        if (child == null || mDragHelper == null || (mState == STATE_DRAGGING && !mNestedScrolling)) {
+            // not laid out, or dragged directly
+            return 0;
+        }
+        int top = (int) child.getContentPositionY();
+        int newTop = mModel.clampTop(top + dy);
+        if (newTop == top) {
+            return 0;
+        }
+        if (!mNestedScrolling) {
+            mNestedScrolling = true;
+            mNestedDy = 0;
+            mSettleAnimator.cancel();
+            setStateInternal(STATE_DRAGGING);
+        }
+        child.setContentPositionY(newTop);
+        mNestedDy += newTop - top;
+        mDragCallback.onViewPositionChanged(child, child.getLeft(), newTop, 0, newTop - top);
+        if (newTop == mModel.getDetentTop(0)) {
+            // expanded again, the scrollable takes the rest of the touch
+            mNestedScrolling = false;
+            mDragCallback.onViewReleased(child, 0, 0, 0, 0);
+        }
+        return newTop - top;
+    }
+
+    // drops velocities below the fling threshold and caps the others, as the drag does
+    private float clampVelocity(float velocity) {
+        if (mDragHelper == null || Math.abs(velocity) < mDragHelper.getMinVelocity()) {
+            return 0;
+        }
+        return Math.max(-mDragHelper.getMaxVelocity(), Math.min(mDragHelper.getMaxVelocity(), velocity));
+    }
+
+    /**
+     * Sets the height of the bottom sheet when it is collapsed.
+     *
+     * @param peekHeight The height of the collapsed bottom sheet in pixels.
+     */
+    public final void setPeekHeight(int peekHeight) {
+        mModel.setPeekHeight(peekHeight);
+    }
+
+    /**
+     * Gets the height of the bottom sheet when it is collapsed.
+     *
+     * @return The height of the collapsed bottom sheet in pixels.
+     */
+    public final int getPeekHeight() {
+        return mModel.getPeekHeight();
+    }
+
+    /**
+     * Gets the distance between parent top and child top when sheet is expanded.
+     *
+     * @return The possible minimum distance between parent top and child top
+     */
+    public int getMinOffset() {
+        return mModel.getMinOffset();
+    }
+
+    /**
+     * Sets the distance between parent top and child top when sheet is expanded.
+     *
+     * @param minOffset The possible minimum distance between parent top and child top
+     */
+    public void setMinOffset(int minOffset) {
+        mModel.setMinOffset(minOffset);
+    }
+
+    /**
+     * Get the size in pixels from the anchor state to the top of the parent (Expanded state).
+     *
+     * @return pixel size of the anchor state
+     */
+    public int getAnchorOffset() {
+        return mModel.getAnchorOffset();
+    }
+
+    /**
+     * The multiplier between 0..1 to calculate the Anchor offset.
+     *
+     * @return float between 0..1
+     */
+    public float getAnchorThreshold() {
+        return mModel.getAnchorThreshold();
+    }
+
+    /**
+     * Set the offset for the anchor state. Number between 0..1
+     * i.e: Anchor the panel at 1/3 of the screen: setAnchorOffset(0.25).
+     *
+     * @param threshold {@link Float} from 0..1
+     */
+    public void setAnchorOffset(float threshold) {
+        mModel.setAnchorThreshold(threshold);
+    }
+
+    /**
+     * Sets whether this bottom sheet can hide when it is swiped down.
+     *
+     * @param hideable {@code true} to make this bottom sheet hideable.
+     */
+    public void setCanHide(boolean hideable) {
+        mModel.setCanHide(hideable);
+    }
+
+    /**
+     * Gets whether this bottom sheet can hide when it is swiped down.
+     *
+     * @return {@code true} if this bottom sheet can hide.
+     */
+    public boolean isCanHide() {
+        return mModel.isCanHide();
+    }
+
+    /**
+     * Sets whether this bottom sheet should skip the collapsed state when it is being hidden
+     * after it is expanded once. Setting this to true has no effect unless the sheet is hideable.
      *
      * @param skipCollapsed True if the bottom sheet should skip the collapsed state.
      */
     public void setSkipCollapsed(boolean skipCollapsed) {
-        this.skipCollapsed = skipCollapsed;
+        mModel.setSkipCollapsed(skipCollapsed);
     }
 
     /**
@@ -553,16 +1289,498 @@ public class AnchorSheetLayout extends ComponentContainer {
      * @return Whether the bottom sheet should skip the collapsed state.
      */
     public boolean getSkipCollapsed() {
-        return skipCollapsed;
+        return mModel.getSkipCollapsed();
     }
 
     /**
-     * Sets a callback to be notified of bottom sheet events.
+     * Sets the detents between the expanded and the collapsed ones, as fractions of the layout
+     * height measured from its top. The sheet rests at the nearest detent when released slowly
+     * and at the next detent in the direction of a fling. {@link #STATE_ANCHOR} is the state of
+     * every intermediate detent, and {@link #setState(int)} with it goes to the detent closest to
+     * the anchor threshold.
      *
-     * @param callback The callback to notify when bottom sheet events occur.
+     * @param fractions Tops of the intermediate detents as fractions of the layout height.
+     */
+    public void setDetents(float... fractions) {
+        mModel.setDetentFractions(fractions);
+        onDetentsChanged();
+    }
+
+    /**
+     * Sets the detents between the expanded and the collapsed ones, as distances in pixels
+     * between the layout top and the sheet top. See {@link #setDetents(float...)}.
+     *
+     * @param offsets Tops of the intermediate detents in pixels.
+     */
+    public void setDetentOffsets(int... offsets) {
+        mModel.setDetentOffsets(offsets);
+        onDetentsChanged();
+    }
+
+    /**
+     * Restores the single intermediate detent at the anchor threshold.
+     */
+    public void clearDetents() {
+        mModel.clearDetents();
+        onDetentsChanged();
+    }
+
+    // moves the sheet to the detent of its state after the detents changed
+    private void onDetentsChanged() {
+        ComponentContainer sheet = child;
+        if (sheet == null || mDragHelper == null || mDetent == SheetModel.DETENT_NONE) {
+            // not positioned yet, the child bind uses the new detents
+            return;
+        }
+        if (mState == STATE_SETTLING) {
+            if (mSettleDetent >= 0) {
+                // head for the detent of the target state instead
+                int target = mSettleAnimator.getTargetState();
+                startSettlingAnimation(sheet, target, mModel.getDetentForState(target), 0);
+            }
+            return;
+        }
+        if (mState == STATE_DRAGGING || mDetent < 0) {
+            // the release settles at the new detents, a hidden sheet stays hidden
+            return;
+        }
+        mDetent = mModel.getDetentForState(mState);
+        int top = mModel.getDetentTop(mDetent);
+        sheet.setContentPositionY(top);
+        onTopChanged(top);
+        mScrollableIndexValid = false;
+    }
+
+    /**
+     * Gets the number of detents, the expanded and collapsed ones included.
+     *
+     * @return count of detents.
+     */
+    public int getDetentCount() {
+        return mModel.getDetentCount();
+    }
+
+    /**
+     * Gets the distance between the layout top and the sheet top at a detent.
+     *
+     * @param detent Index of the detent, 0 being expanded.
+     * @return offset in pixels.
+     */
+    public int getDetentOffset(int detent) {
+        return mModel.getDetentTop(detent);
+    }
+
+    /**
+     * Gets the detent the sheet last came to rest at.
+     *
+     * @return Index of the detent, 0 being expanded, or {@link #DETENT_HIDDEN}.
+     */
+    public int getDetent() {
+        return mDetent == SheetModel.DETENT_NONE ? mModel.getDetentForState(mState) : mDetent;
+    }
+
+    /**
+     * Moves the sheet to a detent.
+     *
+     * @param detent Index of the detent, 0 being expanded and {@link #getDetentCount()} - 1
+     *               collapsed.
+     */
+    public void setDetent(int detent) {
+        boolean laidOut = mViewRef != null && mDragHelper != null;
+        if (detent < 0 || (laidOut && detent >= mModel.getDetentCount())) {
+            throw new IllegalArgumentException("Illegal detent argument: " + detent);
+        }
+        if (!laidOut) {
+            // The view is not laid out yet; the detent is resolved once it is
+            mState = mModel.getStateForDetent(detent);
+            mDetent = detent;
+            return;
+        }
+        ComponentContainer viewChild = mViewRef.get();
+        if (viewChild == null || (detent == mDetent && mState != STATE_SETTLING && mState != STATE_DRAGGING)) {
+            return;
+        }
+        startSettlingAnimation(viewChild, mModel.getStateForDetent(detent), detent, 0);
+    }
+
+    /**
+     * Sets how the sheet moves to its resting position once released or when its state is set.
+     *
+     * @param settleMode One of {@link #SETTLE_LINEAR}, {@link #SETTLE_SPRING} or
+     *                   {@link #SETTLE_DECAY}.
+     */
+    public void setSettleMode(@SettleMode int settleMode) {
+        mModel.setSettleMode(settleMode);
+    }
+
+    /**
+     * Gets how the sheet moves to its resting position.
+     *
+     * @return One of {@link #SETTLE_LINEAR}, {@link #SETTLE_SPRING} or {@link #SETTLE_DECAY}.
+     */
+    @SettleMode
+    public int getSettleMode() {
+        return mModel.getSettleMode();
+    }
+
+    /**
+     * Sets the curve the sheet follows when it settles to a state in {@link #SETTLE_LINEAR}
+     * mode, e.g. {@link SettleInterpolator#FAST_OUT_SLOW_IN} to expand and
+     * {@link SettleInterpolator#DECELERATE} to collapse. Linear by default.
+     *
+     * @param state        The target state: expanded, collapsed, anchor or one of the hidden states.
+     * @param interpolator The curve.
+     */
+    public void setSettleInterpolator(@State int state, @NotNull SettleInterpolator interpolator) {
+        mModel.setSettleInterpolator(state, interpolator);
+    }
+
+    /**
+     * Gets the curve the sheet follows when it settles to a state in {@link #SETTLE_LINEAR} mode.
+     *
+     * @param state The target state.
+     * @return The curve.
+     */
+    public SettleInterpolator getSettleInterpolator(@State int state) {
+        return mModel.getSettleInterpolator(state);
+    }
+
+    /**
+     * Sets the policy which decides the detent at which the sheet settles after a release. The
+     * default {@link com.hardsoftstudio.anchorsheetlayout.core.NextDetentPolicy} goes to the next
+     * detent in the direction of the release;
+     * {@link com.hardsoftstudio.anchorsheetlayout.core.ProjectedTargetPolicy} goes to the detent
+     * nearest to where the release velocity would carry the sheet.
+     *
+     * @param policy The target policy
+     */
+    public void setTargetPolicy(@NotNull TargetPolicy policy) {
+        mModel.setTargetPolicy(policy);
+    }
+
+    /**
+     * Gets the policy which decides the detent at which the sheet settles after a release.
+     *
+     * @return The target policy
+     */
+    public TargetPolicy getTargetPolicy() {
+        return mModel.getTargetPolicy();
+    }
+
+    /**
+     * Sets whether the drag is applied once per display frame. Touch panels often report
+     * several events per frame; when coalescing, their movement is accumulated and the sheet is
+     * moved, and {@link AnchorSheetCallback#onSlide} called, once per frame. The release velocity
+     * still uses every event. Disabled by default.
+     *
+     * @param coalescing true to move the sheet once per frame while dragging.
+     */
+    public void setDragCoalescing(boolean coalescing) {
+        mDragCoalescing = coalescing;
+        if (mDragHelper != null) {
+            mDragHelper.setFrameScheduler(coalescing ? mFrameScheduler : null);
+        }
+    }
+
+    /**
+     * Gets whether the drag is applied once per display frame.
+     *
+     * @return true if the sheet moves once per frame while dragging.
+     */
+    public boolean isDragCoalescing() {
+        return mDragCoalescing;
+    }
+
+    /**
+     * Sets the vertical distance a pointer moves before the sheet is dragged. Until then the
+     * touch is not a drag: the sheet stays still and its state does not change, so taps on the
+     * content do not move the sheet. A sheet which is settling is caught on the pointer down.
+     * Defaults to 8vp.
+     *
+     * @param touchSlop Distance in pixels, 0 to drag on the first movement.
+     */
+    public void setTouchSlop(int touchSlop) {
+        if (touchSlop < 0) {
+            throw new IllegalArgumentException("Touch slop must not be negative: " + touchSlop);
+        }
+        mTouchSlop = touchSlop;
+        if (mDragHelper != null) {
+            mDragHelper.setTouchSlop(touchSlop);
+        }
+    }
+
+    /**
+     * Gets the vertical distance a pointer moves before the sheet is dragged.
+     *
+     * @return The touch slop in pixels.
+     */
+    public int getTouchSlop() {
+        return mTouchSlop;
+    }
+
+    /**
+     * Binds a property of a component to the slide offset between collapsed (0) and expanded (1).
+     * The sheet updates the property itself whenever it moves, including while settling.
+     *
+     * @param component The component to update.
+     * @param property  The property to update, one of the PROPERTY constants.
+     * @param from      Value of the property when the sheet is collapsed or lower.
+     * @param to        Value of the property when the sheet is expanded.
+     * @param curve     Easing between the values, one of the CURVE constants.
+     */
+    public void bind(@NotNull Component component, @BindingProperty int property, float from, float to,
+                     @BindingCurve int curve) {
+        bind(component, property, 0f, 1f, from, to, curve);
+    }
+
+    /**
+     * Binds a property of a component to a range of the slide offset. The sheet updates the
+     * property itself whenever it moves, including while settling. The component is referenced
+     * until it is unbound.
+     *
+     * @param component   The component to update.
+     * @param property    The property to update, one of the PROPERTY constants.
+     * @param startOffset Slide offset at which the property has the from value, within [-1,1].
+     * @param endOffset   Slide offset at which the property has the to value, within [-1,1].
+     * @param from        Value of the property at the start offset and beyond.
+     * @param to          Value of the property at the end offset and beyond.
+     * @param curve       Easing between the values, one of the CURVE constants.
+     */
+    public void bind(@NotNull Component component, @BindingProperty int property, float startOffset,
+                     float endOffset, float from, float to, @BindingCurve int curve) {
+        int index = mBindings.add(property, startOffset, endOffset, from, to, curve);
+        if (index == mBoundComponents.length) {
+            mBoundComponents = Arrays.copyOf(mBoundComponents, Math.max(4, index * 2));
+        }
+        mBoundComponents[index] = component;
+        if (child != null) {
+            applyBindings((int) child.getContentPositionY());
+        }
+    }
+
+    /**
+     * Removes every binding of a component. Its properties keep their current values.
+     *
+     * @param component The bound component.
+     */
+    public void unbind(@NotNull Component component) {
+        int size = mBindings.size();
+        for (int i = size - 1; i >= 0; i--) {
+            if (mBoundComponents[i] == component) {
+                mBindings.remove(i);
+                System.arraycopy(mBoundComponents, i + 1, mBoundComponents, i, size - i - 1);
+                mBoundComponents[--size] = null;
+            }
+        }
+    }
+
+    // updates what follows the top of the sheet: the bound properties and the snapshot stream
+    private void onTopChanged(int top) {
+        applyBindings(top);
+        if (mSnapshots.hasSubscribers()) {
+            mSnapshots.publish(mState, mModel.getSlideOffset(top), System.nanoTime());
+        }
+    }
+
+    // evaluates the bindings for the top of the sheet and applies the changed values
+    private void applyBindings(int top) {
+        SlideBindings bindings = mBindings;
+        if (bindings.size() == 0 || !bindings.evaluate(mModel.getSlideOffset(top))) {
+            return;
+        }
+        for (int i = 0, count = bindings.size(); i < count; i++) {
+            Component component = mBoundComponents[i];
+            float value = bindings.getValue(i);
+            switch (bindings.getProperty(i)) {
+                case PROPERTY_ALPHA:
+                    component.setAlpha(value);
+                    break;
+                case PROPERTY_TRANSLATION_X:
+                    component.setTranslationX(value);
+                    break;
+                case PROPERTY_TRANSLATION_Y:
+                    component.setTranslationY(value);
+                    break;
+                case PROPERTY_SCALE_X:
+                    component.setScaleX(value);
+                    break;
+                case PROPERTY_SCALE_Y:
+                    component.setScaleY(value);
+                    break;
+                default:
+                    component.setRotation(value);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Sets a callback to be notified of bottom sheet events, replacing the callback previously
+     * set with this method. Callbacks added with {@link #addAnchorSheetCallback} are kept.
+     *
+     * @param callback The callback to notify when bottom sheet events occur, or null.
      */
     public void setAnchorSheetCallback(AnchorSheetCallback callback) {
+        if (mCallback != null) {
+            removeAnchorSheetCallback(mCallback);
+        }
         mCallback = callback;
+        if (callback != null) {
+            addAnchorSheetCallback(callback);
+        }
+    }
+
+    /**
+     * Adds a callback to be notified of every bottom sheet event.
+     *
+     * @param callback The callback to notify when bottom sheet events occur.
+     */
+    public void addAnchorSheetCallback(@NotNull AnchorSheetCallback callback) {
+        addAnchorSheetCallback(callback, 0f, 0);
+    }
+
+    /**
+     * Adds a callback whose slide events are thinned out. A slide is delivered once the offset
+     * moved by at least minSlideDelta since the last delivered one, and no more often than
+     * maxSlideRateHz; the final offset of a drag is always delivered. State changes are not
+     * filtered. Adding a callback again replaces its limits.
+     *
+     * @param callback       The callback to notify when bottom sheet events occur.
+     * @param minSlideDelta  Smallest change of the slide offset delivered, 0 for every change.
+     * @param maxSlideRateHz Largest number of slide events per second, 0 for no limit.
+     */
+    public void addAnchorSheetCallback(@NotNull AnchorSheetCallback callback, float minSlideDelta,
+                                       int maxSlideRateHz) {
+        SlideFilter filter = new SlideFilter(minSlideDelta, maxSlideRateHz);
+        removeAnchorSheetCallback(callback);
+        CallbackEntry[] callbacks = Arrays.copyOf(mCallbacks, mCallbacks.length + 1);
+        callbacks[mCallbacks.length] = new CallbackEntry(callback, filter.isPassThrough() ? null : filter);
+        setCallbacks(callbacks);
+    }
+
+    /**
+     * Removes a callback. It may still receive the event being dispatched when it is removed.
+     *
+     * @param callback The callback to remove.
+     */
+    public void removeAnchorSheetCallback(@NotNull AnchorSheetCallback callback) {
+        for (int i = 0; i < mCallbacks.length; i++) {
+            if (mCallbacks[i].callback == callback) {
+                CallbackEntry[] callbacks = new CallbackEntry[mCallbacks.length - 1];
+                System.arraycopy(mCallbacks, 0, callbacks, 0, i);
+                System.arraycopy(mCallbacks, i + 1, callbacks, i, callbacks.length - i);
+                setCallbacks(callbacks);
+                if (mCallback == callback) {
+                    mCallback = null;
+                }
+                return;
+            }
+        }
+    }
+
+    // publishes a new callback array
+    private void setCallbacks(CallbackEntry[] callbacks) {
+        boolean rateLimited = false;
+        for (CallbackEntry entry : callbacks) {
+            rateLimited |= entry.filter != null && entry.filter.isRateLimited();
+        }
+        mCallbacks = callbacks;
+        mSlideRateLimited = rateLimited;
+    }
+
+    /**
+     * Subscribes a consumer to the state and slide offset of the sheet, delivered on an executor
+     * rather than inside the callbacks, e.g. to update map padding or analytics off the UI
+     * thread. The consumer first receives the current snapshot, then one for every state change
+     * and movement of the sheet. Snapshots are conflated: a consumer still busy with one only
+     * receives the latest published meanwhile, and the sheet never waits for it. Subscribe from
+     * the UI thread of the sheet.
+     *
+     * @param executor Runs the consumer.
+     * @param consumer Receives the snapshots.
+     * @return The subscription, to cancel when the consumer is done.
+     */
+    public SnapshotStream.Subscription subscribeSnapshots(@NotNull Executor executor,
+                                                          @NotNull Consumer<SheetSnapshot> consumer) {
+        // the current snapshot once laid out
+        SheetSnapshot initial = child != null && mDragHelper != null ? getSnapshot() : null;
+        return mSnapshots.subscribe(executor, consumer, initial);
+    }
+
+    /**
+     * Subscribes a consumer to the state and slide offset of the sheet, delivered on an event
+     * runner. See {@link #subscribeSnapshots(Executor, Consumer)}.
+     *
+     * @param runner   Runs the consumer, e.g. one created with {@link EventRunner#create(boolean)}.
+     * @param consumer Receives the snapshots.
+     * @return The subscription, to cancel when the consumer is done.
+     */
+    public SnapshotStream.Subscription subscribeSnapshots(@NotNull EventRunner runner,
+                                                          @NotNull Consumer<SheetSnapshot> consumer) {
+        EventHandler handler = new EventHandler(runner);
+        return subscribeSnapshots(handler::postTask, consumer);
+    }
+
+    // state and slide offset of the sheet now
+    private SheetSnapshot getSnapshot() {
+        return new SheetSnapshot(mState, getCurrentSlideOffset(), System.nanoTime());
+    }
+
+    // slide offset of the sheet now
+    private float getCurrentSlideOffset() {
+        return child != null ? mModel.getSlideOffset((int) child.getContentPositionY()) : 0f;
+    }
+
+    /**
+     * Sets a listener to be notified of the performance metrics of every gesture, measured
+     * against a 60 Hz frame budget. Metrics are only collected while a listener is set.
+     *
+     * @param listener The listener, or null to stop collecting metrics
+     */
+    public void setSheetMetricsListener(SheetMetricsListener listener) {
+        setSheetMetricsListener(listener, GestureMetrics.DEFAULT_FRAME_BUDGET_NANOS);
+    }
+
+    /**
+     * Sets a listener to be notified of the performance metrics of every gesture. Metrics are
+     * only collected while a listener is set.
+     *
+     * @param listener         The listener, or null to stop collecting metrics
+     * @param frameBudgetNanos Longest acceptable interval between two settle frames
+     */
+    public void setSheetMetricsListener(SheetMetricsListener listener, long frameBudgetNanos) {
+        mMetricsListener = listener;
+        mMetrics = listener == null ? null : new GestureMetrics(frameBudgetNanos);
+        mMetricsPending = false;
+    }
+
+    /**
+     * Records the touch events received by the sheet, e.g. to replay a gesture which settles at
+     * the wrong detent or janks. The events are appended to the recording until recording stops,
+     * and can be saved with {@link GestureRecording#writeTo(java.io.OutputStream)}.
+     *
+     * @param recording The recording to append to, or null to stop recording
+     */
+    public void setGestureRecording(GestureRecording recording) {
+        mRecording = recording;
+    }
+
+    // appends the event with all its pointers
+    private static void record(GestureRecording recording, TouchEvent event) {
+        int count = event.getPointerCount();
+        if (count == 0) {
+            recording.addEvent(event.getAction(), event.getIndex(), event.getOccurredTime(), 0, 0);
+            return;
+        }
+        MmiPoint first = event.getPointerPosition(0);
+        MmiPoint screen = event.getPointerScreenPosition(0);
+        recording.addEvent(event.getAction(), event.getIndex(), event.getOccurredTime(),
+                screen.getX() - first.getX(), screen.getY() - first.getY());
+        recording.addPointer(event.getPointerId(0), first.getX(), first.getY());
+        for (int i = 1; i < count; i++) {
+            MmiPoint position = event.getPointerPosition(i);
+            recording.addPointer(event.getPointerId(i), position.getX(), position.getY());
+        }
     }
 
     /**
@@ -585,9 +1803,176 @@ public class AnchorSheetLayout extends ComponentContainer {
             return;
         }
         mState = state;
+        CallbackEntry[] callbacks = mCallbacks;
+        Component bottomSheet = mViewRef.get();
+        if (bottomSheet != null && callbacks.length > 0) {
+            long start = mMetrics == null ? 0 : System.nanoTime();
+            for (CallbackEntry entry : callbacks) {
+                entry.callback.onStateChanged(bottomSheet, state);
+            }
+            if (mMetrics != null) {
+                mMetrics.recordStateDispatch(System.nanoTime() - start);
+            }
+        }
+        if (mSnapshots.hasSubscribers()) {
+            mSnapshots.publish(mState, getCurrentSlideOffset(), System.nanoTime());
+        }
+        if (mCoordinator != null) {
+            mCoordinator.onSheetStateChanged(this, state == STATE_SETTLING ? getRestingState() : state);
+        }
+    }
+
+    /**
+     * Sets the coordinator which drives the settles of the sheet, see
+     * {@link SheetCoordinator#register(AnchorSheetLayout)}.
+     *
+     * @param coordinator The coordinator, or null for the sheet to settle on its own
+     */
+    void setCoordinator(SheetCoordinator coordinator) {
+        mCoordinator = coordinator;
+        mSettleAnimator.setCoordinator(coordinator);
+    }
+
+    /**
+     * Gets the coordinator which drives the settles of the sheet.
+     *
+     * @return The coordinator, or null when the sheet settles on its own
+     */
+    SheetCoordinator getCoordinator() {
+        return mCoordinator;
+    }
+
+    /**
+     * Saves the state and detent of the sheet, e.g. from onSaveAbilityState. A sheet which is
+     * moving is saved at the detent it is heading to, or the nearest one while dragged. The keys
+     * include the component id, so several sheets with distinct ids can share the map.
+     *
+     * @param outState The map to write to.
+     */
+    public void saveState(@NotNull PacMap outState) {
+        outState.putIntValue(KEY_STATE + getId(), getRestingState());
+        outState.putIntValue(KEY_DETENT + getId(), getRestingDetent());
+    }
+
+    /**
+     * Saves the state and detent of the sheet into intent parameters. See
+     * {@link #saveState(PacMap)}.
+     *
+     * @param outState The parameters to write to.
+     */
+    public void saveState(@NotNull IntentParams outState) {
+        outState.setParam(KEY_STATE + getId(), getRestingState());
+        outState.setParam(KEY_DETENT + getId(), getRestingDetent());
+    }
+
+    /**
+     * Restores the state and detent saved by {@link #saveState(PacMap)}. Called before the first
+     * layout, e.g. from onStart, the sheet is laid out directly at the restored position without
+     * notifying the callbacks. Called later, the sheet jumps there without animating, and the
+     * callbacks and snapshot subscribers are notified as at the end of a settle.
+     *
+     * @param savedState The map to read from; a map without a saved sheet is ignored.
+     */
+    public void restoreState(@NotNull PacMap savedState) {
+        if (savedState.hasKey(KEY_STATE + getId())) {
+            restoreState(savedState.getIntValue(KEY_STATE + getId(), mState),
+                    savedState.getIntValue(KEY_DETENT + getId(), SheetModel.DETENT_NONE));
+        }
+    }
+
+    /**
+     * Restores the state and detent saved by {@link #saveState(IntentParams)}. See
+     * {@link #restoreState(PacMap)}.
+     *
+     * @param savedState The parameters to read from; parameters without a saved sheet are ignored.
+     */
+    public void restoreState(@NotNull IntentParams savedState) {
+        Object state = savedState.getParam(KEY_STATE + getId());
+        Object detent = savedState.getParam(KEY_DETENT + getId());
+        if (state instanceof Integer) {
+            restoreState((Integer) state, detent instanceof Integer ? (Integer) detent : SheetModel.DETENT_NONE);
+        }
+    }
+
+    // applies a saved resting state and detent
+    private void restoreState(int state, int detent) {
+        if (state != STATE_EXPANDED && state != STATE_COLLAPSED && state != STATE_ANCHOR
+                && state != STATE_HIDDEN && state != STATE_FORCE_HIDDEN) {
+            // not a resting state; the detents may not be laid out yet, so they cannot tell
+            return;
+        }
+        boolean hidden = state == STATE_HIDDEN || state == STATE_FORCE_HIDDEN;
+        if (child == null || mDragHelper == null) {
+            // the first layout positions the sheet without notifying
+            mSettleAnimator.cancel();
+            mState = state;
+            mDetent = hidden ? SheetModel.DETENT_HIDDEN : Math.max(detent, SheetModel.DETENT_NONE);
+            return;
+        }
+        // already laid out: jump to the saved detent and notify as a settle ending there would
+        if (hidden) {
+            detent = SheetModel.DETENT_HIDDEN;
+        } else if (detent >= 0) {
+            detent = Math.min(detent, mModel.getDetentCount() - 1);
+            state = mModel.getStateForDetent(detent);
+        } else {
+            detent = mModel.getDetentForState(state);
+        }
+        if (mSettleAnimator.isRunning()) {
+            mSettleAnimator.cancel();
+            if (mMetrics != null) {
+                mMetrics.endSettle(System.nanoTime(), false);
+            }
+        }
+        if (!hidden) {
+            inflateContent();
+        }
+        int top = hidden ? mModel.getParentHeight() : mModel.getDetentTop(detent);
+        child.setContentPositionY(top);
+        onTopChanged(top);
+        setStateInternal(state);
+        setDetentInternal(detent);
+        mScrollableIndexValid = false;
+    }
+
+    // state the sheet is at or heading to
+    int getRestingState() {
+        if (mSettleAnimator.isRunning()) {
+            return mSettleAnimator.getTargetState();
+        }
+        if (mState == STATE_DRAGGING && child != null) {
+            return mModel.getStateForDetent(mModel.getDetentForTop((int) child.getContentPositionY()));
+        }
+        return mState;
+    }
+
+    // detent the sheet is at or heading to
+    private int getRestingDetent() {
+        if (mSettleAnimator.isRunning()) {
+            return mSettleDetent;
+        }
+        if (mState == STATE_DRAGGING && child != null) {
+            return mModel.getDetentForTop((int) child.getContentPositionY());
+        }
+        return getDetent();
+    }
+
+    /**
+     * Provides the detent callback to the section using AnchorSheetLayout.
+     *
+     * @param detent Detent the sheet came to rest at
+     */
+    private void setDetentInternal(int detent) {
+        if (mDetent == detent) {
+            return;
+        }
+        mDetent = detent;
+        CallbackEntry[] callbacks = mCallbacks;
         Component bottomSheet = mViewRef.get();
-        if (bottomSheet != null && mCallback != null) {
-            mCallback.onStateChanged(bottomSheet, state);
+        if (bottomSheet != null) {
+            for (CallbackEntry entry : callbacks) {
+                entry.callback.onDetentChanged(bottomSheet, detent);
+            }
         }
     }
 
@@ -600,15 +1985,7 @@ public class AnchorSheetLayout extends ComponentContainer {
      * @return Whether to hide the sheet or not
      */
     boolean shouldHide(Component child, float yvel) {
-        if (skipCollapsed) {
-            return true;
-        }
-        if (child.getContentPositionY() < mMaxOffset) {
-            // It should not hide, but collapse.
-            return false;
-        }
-        final float newTop = child.getContentPositionY() + yvel * HIDE_FRICTION;
-        return Math.abs(newTop - mMaxOffset) / peekHeight > HIDE_THRESHOLD;
+        return mModel.shouldHide(child.getContentPositionY(), yvel);
     }
 
 
@@ -654,11 +2031,12 @@ public class AnchorSheetLayout extends ComponentContainer {
         if (mState == state) {
             return;
         }
-        if (mViewRef == null) {
+        if (mViewRef == null || mDragHelper == null) {
             // The view is not laid out yet; modify mState and let addComponent handle it later
             if (state == STATE_COLLAPSED || state == STATE_EXPANDED || state == STATE_ANCHOR
-                    || ((canHide && state == STATE_HIDDEN) || state == STATE_FORCE_HIDDEN)) {
+                    || ((isCanHide() && state == STATE_HIDDEN) || state == STATE_FORCE_HIDDEN)) {
                 mState = state;
+                mDetent = SheetModel.DETENT_NONE;
             }
             return;
         }
@@ -670,109 +2048,38 @@ public class AnchorSheetLayout extends ComponentContainer {
     }
 
     /**
-     * Provides animation for settling state of the AnchorSheet.
+     * Provides animation for settling state of the AnchorSheet. A settle which is already running
+     * is retargeted from the current position.
      *
      * @param child The Captured Child
      * @param state The State of the AnchorSheet
      * @param yvel The Vertical Velocity at which view is released
      */
-    private void startSettlingAnimation(Component child, int state, int yvel) {
-        int top;
-        int currentTop = (int) child.getContentPositionY();
-        if (state == STATE_ANCHOR) {
-            top = mAnchorOffset;
-        } else if (state == STATE_COLLAPSED) {
-            top = mMaxOffset;
-        } else if (state == STATE_EXPANDED) {
-            top = minOffset;
-        } else if ((canHide && state == STATE_HIDDEN) || state == STATE_FORCE_HIDDEN) {
-            top = mParentHeight;
-        } else {
-            throw new IllegalArgumentException("Illegal state argument: " + state);
-        }
-        AnimatorValue animatorValue = new AnimatorValue();
-        animatorValue.setDuration(computeSettleDuration(child, currentTop - top, yvel));
-        animatorValue.setLoopedCount(0);
-        animatorValue.setCurveType(Animator.CurveType.LINEAR);
-        animatorValue.setValueUpdateListener((animatorValue1, v) -> {
-            child.setContentPositionY(v * (top - currentTop) + currentTop);
-            if (v > 0.999999f) {
-                setStateInternal(state);
-            } else {
-                setStateInternal(STATE_SETTLING);
-            }
-        });
-        animatorValue.start();
+    private void startSettlingAnimation(Component child, int state, float yvel) {
+        startSettlingAnimation(child, state, mModel.getDetentForState(state), yvel);
     }
 
     /**
-     * Called by {@link #startSettlingAnimation(Component, int, int) } to find
-     * the duration of the animation.
+     * Provides animation for settling the AnchorSheet at a detent.
      *
-     * @param child component on which animation is going
-     * @param dy Y distance
-     * @param yvel Y Velocity
-     * @return time in milliseconds
+     * @param child  The Captured Child
+     * @param state  The State of the AnchorSheet at the detent
+     * @param detent The detent, or {@link #DETENT_HIDDEN}
+     * @param yvel   The Vertical Velocity at which view is released
      */
-    private int computeSettleDuration(Component child, int dy, int yvel) {
-        yvel = this.clampMag(yvel, (int) mDragHelper.getMinVelocity(), (int) mDragHelper.getMaxVelocity());
-        return this.computeAxisDuration(dy, yvel, mDragHelper.getCallback().getViewVerticalDragRange(child));
-    }
-
-    /**
-     * Time taken for settling.
-     *
-     * @param delta distance
-     * @param velocity velocity with it travels
-     * @param motionRange possible vertical drag range
-     * @return Time taken for settling
-     */
-    private int computeAxisDuration(int delta, int velocity, int motionRange) {
-        if (delta == 0) {
-            return 0;
-        } else {
-            int width = this.getWidth();
-            int halfWidth = width / 2;
-            float distanceRatio = Math.min(1.0F, (float) Math.abs(delta) / (float) width);
-            float distance = halfWidth + halfWidth
-                    * this.distanceInfluenceForSnapDuration(distanceRatio);
-            velocity = Math.abs(velocity);
-            int duration;
-            if (velocity > 0) {
-                duration = 4 * Math.round(1000.0F * Math.abs(distance / velocity));
-            } else {
-                float range = (float) Math.abs(delta) / (float) motionRange;
-                duration = (int) ((range + 1.0F) * 256.0F);
-            }
-            return Math.min(duration, 200);
+    private void startSettlingAnimation(Component child, int state, int detent, float yvel) {
+        if (detent != SheetModel.DETENT_HIDDEN) {
+            inflateContent();
         }
-    }
-
-    // helper function for computeAxisDuration
-    private float distanceInfluenceForSnapDuration(float f) {
-        f -= 0.5F; // center the values about 0.
-        f *= 0.47123894F;
-        return (float) Math.sin(f);
-    }
-
-    /**
-     * Clamp the magnitude of value for absMin and absMax.
-     * If the value is below the minimum, it will be clamped to zero.
-     * If the value is above the maximum, it will be clamped to the maximum.
-     *
-     * @param value Value to clamp
-     * @param absMin Absolute value of the minimum significant value to return
-     * @param absMax Absolute value of the maximum value to return
-     * @return The clamped value with the same sign as <code>value</code>
-     */
-    private int clampMag(int value, int absMin, int absMax) {
-        int absValue = Math.abs(value);
-        if (absValue < absMin) {
-            return 0;
-        } else if (absValue > absMax) {
-            return value > 0 ? absMax : -absMax;
-        } else {
-            return value;
+        int top = detent >= 0 ? mModel.getDetentTop(detent) : mModel.getTopForState(state);
+        mSettleDetent = detent;
+        mSettleAnimator.cancel();
+        mModel.setUpSettle(mSettleAnimator.getMotion(), child.getContentPositionY(), top, yvel, state);
+        if (mMetrics != null) {
+            mMetricsPending = true;
+            mMetrics.startSettle(mSettleAnimator.getMotion().getDuration(), System.nanoTime());
         }
+        mSettleAnimator.start(state);
+        setStateInternal(STATE_SETTLING);
     }
-}
\ No newline at end of file
+}
@@ -2,12 +2,12 @@ package com.hardsoftstudio.anchorsheetlayout;
 
 import ohos.agp.components.Component;
 import ohos.agp.components.ComponentContainer;
-import ohos.agp.components.VelocityDetector;
-import ohos.multimodalinput.event.ManipulationEvent;
+import ohos.multimodalinput.event.MmiPoint;
 import ohos.multimodalinput.event.TouchEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import java.util.Arrays;
+import com.hardsoftstudio.anchorsheetlayout.core.PointerTable;
+import com.hardsoftstudio.anchorsheetlayout.core.VelocityTracker;
 
 /**
  * DragHelper is a utility class for writing AnchorSheetLayout. It helps in
@@ -31,22 +31,50 @@ public class DragHelper {
     public static final int DEFAULT_MIN_VELOCITY = 100;
     public static final int DEFAULT_MAX_VELOCITY = 3000;
 
-    private float[] mInitialMotionX;
-    private float[] mInitialMotionY;
-    private float[] mLastMotionX;
-    private float[] mLastMotionY;
-    private int mPointersDown;
+    /** Pointer id used when no pointer drives the drag. */
+    private static final int INVALID_POINTER = -1;
+
+    // positions of the pointers which are down
+    private final PointerTable mPointers = new PointerTable(PointerTable.DEFAULT_CAPACITY);
+    // pointer whose movement drags the captured view
+    private int mActivePointerId = INVALID_POINTER;
+    // pointers of the event being processed, each position read once per event
+    private final int[] mEventIds = new int[PointerTable.DEFAULT_CAPACITY];
+    private final float[] mEventXs = new float[PointerTable.DEFAULT_CAPACITY];
+    private final float[] mEventYs = new float[PointerTable.DEFAULT_CAPACITY];
+    private int mEventPointerCount;
+    // position of the parent on the screen, read on the pointer down
+    private int mParentScreenX;
+    private int mParentScreenY;
+    // fractions of a pixel moved by the active pointer and not applied yet
+    private float mRemainderX;
+    private float mRemainderY;
     // recent pointer offset values
     private float mDeltaX = 0.0f;
     private float mDeltaY = 0.0f;
 
-    private VelocityDetector mVelocityDetector;
+    // velocity of the active pointer, reused by every gesture
+    private final VelocityTracker mVelocityTracker = new VelocityTracker();
     private final float mMaxVelocity;
     private final float mMinVelocity;
     private final DragHelper.Callback mCallback;
     private Component mCapturedView;
+    // view under the pointer down, captured once the pointer moves past the touch slop
+    private Component mCaptureCandidate;
+    private int mTouchSlop;
     private final ComponentContainer mParentView;
 
+    // schedules the coalesced drag of the next frame, null to move the view on every event
+    private FrameScheduler mFrameScheduler;
+    // movement received since the last frame
+    private int mPendingDx;
+    private int mPendingDy;
+    private boolean mFrameScheduled;
+    private final Runnable mFrameCallback = () -> {
+        this.mFrameScheduled = false;
+        this.applyPendingDrag();
+    };
+
     /**
      * Factory method to create a new ViewDragHelper.
      *
@@ -100,6 +128,42 @@ public class DragHelper {
         return this.mCallback;
     }
 
+    /**
+     * Sets the scheduler used to coalesce the movement of the captured view. With a scheduler the
+     * movement of all the touch events received within a display frame is applied at once, so the
+     * view is moved and {@link Callback#onViewPositionChanged} is called at most once per frame,
+     * while the velocity still sees every event. Pending movement is applied before a release.
+     *
+     * @param scheduler Scheduler of display frames, or null to move the view on every touch event
+     */
+    public void setFrameScheduler(@Nullable FrameScheduler scheduler) {
+        this.applyPendingDrag();
+        this.mFrameScheduler = scheduler;
+    }
+
+    /**
+     * Sets the distance a pointer moves vertically before the view under its down is captured.
+     * Until then the gesture is not a drag: the view is not moved and the drag state stays idle,
+     * so a tap does not drag.
+     *
+     * @param touchSlop Distance in pixels, 0 to capture on the first movement
+     */
+    public void setTouchSlop(int touchSlop) {
+        if (touchSlop < 0) {
+            throw new IllegalArgumentException("Touch slop must not be negative: " + touchSlop);
+        }
+        this.mTouchSlop = touchSlop;
+    }
+
+    /**
+     * Returns the distance a pointer moves vertically before the view under it is captured.
+     *
+     * @return the touch slop in pixels
+     */
+    public int getTouchSlop() {
+        return this.mTouchSlop;
+    }
+
     /**
      * Capture a specific child view for dragging within the parent.
      *
@@ -110,7 +174,11 @@ public class DragHelper {
             throw new IllegalArgumentException("captureChildView: parameter must"
                     + " be a descendant of the ViewDragHelper's tracked parent view (" + this.mParentView + ")");
         } else {
+            boolean newCapture = this.mCapturedView != childView || this.mDragState != STATE_DRAGGING;
             this.mCapturedView = childView;
+            if (newCapture) {
+                this.mCallback.onViewCaptured(childView);
+            }
             this.setDragState(STATE_DRAGGING);
         }
     }
@@ -121,10 +189,10 @@ public class DragHelper {
      */
     private void cancel() {
         this.clearMotionHistory();
-        if (this.mVelocityDetector != null) {
-            this.mVelocityDetector.clear();
-            this.mVelocityDetector = null;
-        }
+        this.mCaptureCandidate = null;
+        this.mPendingDx = 0;
+        this.mPendingDy = 0;
+        this.mVelocityTracker.clear();
 
     }
 
@@ -161,70 +229,116 @@ public class DragHelper {
 
     // clears the motion history
     private void clearMotionHistory() {
-        if (this.mInitialMotionX != null) {
-            Arrays.fill(this.mInitialMotionX, 0.0F);
-            Arrays.fill(this.mInitialMotionY, 0.0F);
-            Arrays.fill(this.mLastMotionX, 0.0F);
-            Arrays.fill(this.mLastMotionY, 0.0F);
-            this.mPointersDown = 0;
-        }
-    }
-
-    private void ensureMotionHistorySizeForId(int pointerId) {
-        if (this.mInitialMotionX == null || this.mInitialMotionX.length <= pointerId) {
-            float[] imx = new float[pointerId + 1];
-            float[] imy = new float[pointerId + 1];
-            float[] lmx = new float[pointerId + 1];
-            float[] lmy = new float[pointerId + 1];
-            if (this.mInitialMotionX != null) {
-                System.arraycopy(this.mInitialMotionX, 0, imx, 0, this.mInitialMotionX.length);
-                System.arraycopy(this.mInitialMotionY, 0, imy, 0, this.mInitialMotionY.length);
-                System.arraycopy(this.mLastMotionX, 0, lmx, 0, this.mLastMotionX.length);
-                System.arraycopy(this.mLastMotionY, 0, lmy, 0, this.mLastMotionY.length);
-            }
-            this.mInitialMotionX = imx;
-            this.mInitialMotionY = imy;
-            this.mLastMotionX = lmx;
-            this.mLastMotionY = lmy;
-        }
+        this.mPointers.clear();
+        this.mActivePointerId = INVALID_POINTER;
+        this.mRemainderX = 0.0F;
+        this.mRemainderY = 0.0F;
     }
 
     // saves the initial motion
     private void saveInitialMotion(float x, float y, int pointerId) {
-        this.ensureMotionHistorySizeForId(pointerId);
-        this.mInitialMotionX[pointerId] = this.mLastMotionX[pointerId] = x;
-        this.mInitialMotionY[pointerId] = this.mLastMotionY[pointerId] = y;
-        this.mPointersDown |= 1 << pointerId;
+        this.mPointers.put(pointerId, x, y);
     }
 
     // saves the last motion
-    private void saveLastMotion(ManipulationEvent ev) {
-        int pointerCount = ev.getPointerCount();
-        for (int i = 0; i < pointerCount; ++i) {
-            int pointerId = ev.getPointerId(i);
-            if (this.isValidPointerForActionMove(pointerId)) {
-                float x = getTouchX((TouchEvent) ev, i);
-                float y = getTouchY((TouchEvent) ev, i);
-                this.mLastMotionX[pointerId] = x;
-                this.mLastMotionY[pointerId] = y;
+    private void saveLastMotion() {
+        for (int i = 0; i < this.mEventPointerCount; ++i) {
+            int slot = this.mPointers.slotOf(this.mEventIds[i]);
+            if (slot >= 0) {
+                this.mPointers.setLast(slot, this.mEventXs[i], this.mEventYs[i]);
             }
         }
     }
 
+    // removes a pointer, handing the drag over to another pointer if it was the active one
+    private void clearMotionHistory(int pointerId) {
+        this.mPointers.remove(pointerId);
+        if (pointerId == this.mActivePointerId) {
+            this.mActivePointerId = this.mPointers.size() > 0 ? this.mPointers.getId(0) : INVALID_POINTER;
+            this.mRemainderX = 0.0F;
+            this.mRemainderY = 0.0F;
+            this.mVelocityTracker.clear();
+        }
+    }
+
+    // adds the position of the active pointer to the velocity tracker
+    private void addVelocitySample(TouchEvent ev) {
+        int index = findPointerIndex(this.mActivePointerId);
+        if (index >= 0) {
+            this.mVelocityTracker.addSample(ev.getOccurredTime(), this.mEventXs[index], this.mEventYs[index]);
+        }
+    }
+
+    /**
+     * Reads the id and screen position of every pointer of the event, and on a pointer down the
+     * position of the parent on the screen. Call it once per event, before looking at the
+     * positions with {@link #getPointerX(int)} and {@link #getPointerY(int)}, then process the
+     * event with {@link #processReadTouchEvent(TouchEvent)}.
+     *
+     * @param ev The touch event received by the parent view.
+     */
+    void readPointers(@NotNull TouchEvent ev) {
+        int count = Math.min(ev.getPointerCount(), this.mEventIds.length);
+        for (int i = 0; i < count; ++i) {
+            MmiPoint position = ev.getPointerScreenPosition(i);
+            this.mEventIds[i] = ev.getPointerId(i);
+            this.mEventXs[i] = position.getX();
+            this.mEventYs[i] = position.getY();
+        }
+        this.mEventPointerCount = count;
+        if (ev.getAction() == TouchEvent.PRIMARY_POINT_DOWN) {
+            final int[] origin = this.mParentView.getLocationOnScreen();
+            this.mParentScreenX = origin[0];
+            this.mParentScreenY = origin[1];
+        }
+    }
+
+    /**
+     * Returns the X coordinate on the screen of a pointer of the event last read.
+     *
+     * @param index Index of the pointer in the event
+     * @return X coordinate on the screen
+     */
+    float getPointerX(int index) {
+        return this.mEventXs[index];
+    }
+
     /**
-     * Check if the given pointer ID represents a pointer that is currently down (to the best
-     * of the DragHelper's knowledge).
+     * Returns the Y coordinate on the screen of a pointer of the event last read.
      *
-     * <p>The state used to report this information is populated by the method
-     * {@link #processTouchEvent(TouchEvent)}. If one of these methods has not
-     * been called for all relevant TouchEvents to track, the information reported
-     * by this method may be stale or incorrect.</p>
+     * @param index Index of the pointer in the event
+     * @return Y coordinate on the screen
+     */
+    float getPointerY(int index) {
+        return this.mEventYs[index];
+    }
+
+    /**
+     * Returns the X coordinate of the parent on the screen, read on the last pointer down.
      *
-     * @param pointerId pointer ID to check; corresponds to IDs provided by TouchEvent
-     * @return true if the pointer with the given ID is still down
+     * @return X coordinate on the screen
      */
-    private boolean isPointerDown(int pointerId) {
-        return (this.mPointersDown & 1 << pointerId) != 0;
+    int getParentScreenX() {
+        return this.mParentScreenX;
+    }
+
+    /**
+     * Returns the Y coordinate of the parent on the screen, read on the last pointer down.
+     *
+     * @return Y coordinate on the screen
+     */
+    int getParentScreenY() {
+        return this.mParentScreenY;
+    }
+
+    // index of the pointer in the event being processed, or -1
+    private int findPointerIndex(int pointerId) {
+        for (int i = 0; i < this.mEventPointerCount; ++i) {
+            if (this.mEventIds[i] == pointerId) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     // sets the Drag State
@@ -265,47 +379,97 @@ public class DragHelper {
      * @param ev The touch event received by the parent view.
      */
     public void processTouchEvent(@NotNull TouchEvent ev) {
+        this.readPointers(ev);
+        this.processReadTouchEvent(ev);
+    }
+
+    /**
+     * Process a touch event whose pointers were read with {@link #readPointers(TouchEvent)}.
+     *
+     * @param ev The touch event received by the parent view.
+     */
+    void processReadTouchEvent(@NotNull TouchEvent ev) {
         int action = ev.getAction();
         final int actionIndex = ev.getIndex();
         if (action == TouchEvent.PRIMARY_POINT_DOWN) {
             // Reset things for a new event stream
             this.cancel();
+            if (this.mEventPointerCount == 0) {
+                return;
+            }
+            this.mActivePointerId = this.mEventIds[0];
         }
-        if (this.mVelocityDetector == null) {
-            this.mVelocityDetector = VelocityDetector.obtainInstance();
-        }
-        this.mVelocityDetector.addEvent(ev);
+        this.addVelocitySample(ev);
         switch (action) {
             case TouchEvent.PRIMARY_POINT_DOWN: {
-                final float x = getTouchX(ev, 0);
-                final float y = getTouchY(ev, 0);
-                final int pointerId = ev.getPointerId(0);
-                final Component toCapture = this.findTopChildUnder((int) x, (int) y);
+                final float x = this.mEventXs[0];
+                final float y = this.mEventYs[0];
+                final int pointerId = this.mEventIds[0];
                 this.saveInitialMotion(x, y, pointerId);
-                this.tryCaptureViewForDrag(toCapture, pointerId);
+                // the pointers are read on the screen, the children are placed in the parent
+                this.mCaptureCandidate = this.findTopChildUnder((int) x - this.mParentScreenX,
+                        (int) y - this.mParentScreenY);
+                break;
+            }
+            case TouchEvent.OTHER_POINT_DOWN: {
+                if (actionIndex < this.mEventPointerCount) {
+                    final int pointerId = this.mEventIds[actionIndex];
+                    this.saveInitialMotion(this.mEventXs[actionIndex], this.mEventYs[actionIndex], pointerId);
+                    if (this.mActivePointerId == INVALID_POINTER) {
+                        this.mActivePointerId = pointerId;
+                    }
+                }
+                break;
+            }
+            case TouchEvent.OTHER_POINT_UP: {
+                if (actionIndex < this.mEventPointerCount) {
+                    this.clearMotionHistory(this.mEventIds[actionIndex]);
+                }
                 break;
             }
             case TouchEvent.PRIMARY_POINT_UP: {
                 if (this.mDragState == 1) {
+                    this.applyPendingDrag();
                     this.releaseViewForPointerUp();
                 }
                 this.cancel();
                 break;
             }
             case TouchEvent.POINT_MOVE: {
-                if (this.mDragState == STATE_DRAGGING) {
-                    final float x = getTouchX(ev, actionIndex);
-                    final float y = getTouchY(ev, actionIndex);
-                    final int idx = (int) (x - this.mLastMotionX[actionIndex]);
-                    final int idy = (int) (y - this.mLastMotionY[actionIndex]);
-                    this.dragTo((int) (this.mCapturedView.getContentPositionX() + idx),
-                            (int) (this.mCapturedView.getContentPositionY() + idy), idx, idy);
-                    this.saveLastMotion(ev);
+                final int index = findPointerIndex(this.mActivePointerId);
+                final int slot = this.mPointers.slotOf(this.mActivePointerId);
+                if (this.mDragState == STATE_DRAGGING && index >= 0 && slot >= 0) {
+                    // whole pixels are applied, the fractions are carried over to the next event
+                    final float dx = this.mEventXs[index] - this.mPointers.getLastX(slot) + this.mRemainderX;
+                    final float dy = this.mEventYs[index] - this.mPointers.getLastY(slot) + this.mRemainderY;
+                    final int idx = (int) dx;
+                    final int idy = (int) dy;
+                    this.mRemainderX = dx - idx;
+                    this.mRemainderY = dy - idy;
+                    if (this.mFrameScheduler == null) {
+                        this.dragTo((int) (this.mCapturedView.getContentPositionX() + idx),
+                                (int) (this.mCapturedView.getContentPositionY() + idy), idx, idy);
+                    } else {
+                        this.mPendingDx += idx;
+                        this.mPendingDy += idy;
+                        if (!this.mFrameScheduled) {
+                            this.mFrameScheduled = true;
+                            this.mFrameScheduler.scheduleFrame(this.mFrameCallback);
+                        }
+                    }
+                } else if (this.mCaptureCandidate != null && index >= 0 && slot >= 0
+                        && Math.abs(this.mEventYs[index] - this.mPointers.getInitialY(slot)) > this.mTouchSlop) {
+                    // the gesture is a drag, the movement within the slop is not applied
+                    final Component toCapture = this.mCaptureCandidate;
+                    this.mCaptureCandidate = null;
+                    this.tryCaptureViewForDrag(toCapture, this.mActivePointerId);
                 }
+                this.saveLastMotion();
                 break;
             }
             case TouchEvent.CANCEL:
                 if (this.mDragState == 1) {
+                    this.applyPendingDrag();
                     this.dispatchViewReleased(0.0F, 0.0F);
                 }
                 this.cancel();
@@ -316,13 +480,24 @@ public class DragHelper {
     }
 
     private void releaseViewForPointerUp() {
-        this.mVelocityDetector.calculateCurrentVelocity(1000);
-        float xvel = this.clampMag(this.mVelocityDetector.getHorizontalVelocity(),
-                this.mMinVelocity, this.mMaxVelocity);
-        float yvel = this.clampMag(this.mVelocityDetector.getVerticalVelocity(), this.mMinVelocity, this.mMaxVelocity);
+        this.mVelocityTracker.computeVelocity();
+        float xvel = this.clampMag(this.mVelocityTracker.getXVelocity(), this.mMinVelocity, this.mMaxVelocity);
+        float yvel = this.clampMag(this.mVelocityTracker.getYVelocity(), this.mMinVelocity, this.mMaxVelocity);
         this.dispatchViewReleased(xvel, yvel);
     }
 
+    // moves the captured view by the movement received since the last frame
+    private void applyPendingDrag() {
+        int dx = this.mPendingDx;
+        int dy = this.mPendingDy;
+        this.mPendingDx = 0;
+        this.mPendingDy = 0;
+        if (this.mDragState == STATE_DRAGGING && this.mCapturedView != null && (dx != 0 || dy != 0)) {
+            this.dragTo((int) (this.mCapturedView.getContentPositionX() + dx),
+                    (int) (this.mCapturedView.getContentPositionY() + dy), dx, dy);
+        }
+    }
+
     // moves the captured view
     private void dragTo(int left, int top, int dx, int dy) {
         int clampedX = left;
@@ -367,8 +542,16 @@ public class DragHelper {
         return null;
     }
 
-    private boolean isValidPointerForActionMove(int pointerId) {
-        return this.isPointerDown(pointerId);
+    /**
+     * Schedules work for the next display frame.
+     */
+    public interface FrameScheduler {
+        /**
+         * Runs the task once, at the start of the next display frame.
+         *
+         * @param frame Task to run
+         */
+        void scheduleFrame(@NotNull Runnable frame);
     }
 
     /**
@@ -394,6 +577,15 @@ public class DragHelper {
         public void onViewDragStateChanged(int state) {
         }
 
+        /**
+         * Called when a child view is captured for dragging. Repeated captures of the view
+         * which is already being dragged are not reported.
+         *
+         * @param capturedChild Child view that was captured
+         */
+        public void onViewCaptured(@NotNull Component capturedChild) {
+        }
+
         /**
          * Called when the captured view's position changes as the result of a drag or settle.
          *
@@ -477,34 +669,4 @@ public class DragHelper {
         public abstract int clampViewPositionVertical(@NotNull Component child, int top, int dy);
     }
 
-    /**
-     * Returns X coordinate of the Touch Event.
-     *
-     * @param touchEvent The dispatched touch event
-     * @param index The index of the pointer
-     * @return X coordinate of touch point
-     */
-    private float getTouchX(TouchEvent touchEvent, int index) {
-        float x = 0;
-        if (touchEvent.getPointerCount() > index) {
-            x = touchEvent.getPointerScreenPosition(index).getX();
-        }
-        return x;
-    }
-
-    /**
-     * Returns Y coordinate of the Touch Event.
-     *
-     * @param touchEvent The dispatched touch event
-     * @param index The index of the pointer
-     * @return Y coordinate of touch point
-     */
-    private float getTouchY(TouchEvent touchEvent, int index) {
-        float y = 0;
-        if (touchEvent.getPointerCount() > index) {
-            y = touchEvent.getPointerScreenPosition(index).getY();
-        }
-        return y;
-    }
-
 }
\ No newline at end of file
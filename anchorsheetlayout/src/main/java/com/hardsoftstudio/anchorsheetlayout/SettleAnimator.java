@@ -0,0 +1,211 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.animation.Animator;
+import ohos.agp.animation.AnimatorValue;
+import com.hardsoftstudio.anchorsheetlayout.core.SettleMotion;
+
+/**
+ * SettleAnimator moves the sheet to its resting position once it is released or its state is
+ * set. Each sheet owns a single instance: the animator and its listeners are created once and
+ * reused by every settle, and starting a new settle retargets the running one. The animator only
+ * provides the time; the position of every frame is read from the {@link SettleMotion}. The
+ * settles of a sheet registered with a {@link SheetCoordinator} take their time from the
+ * coordinator instead, and the animator of the sheet is never created.
+ */
+final class SettleAnimator {
+
+    /**
+     * Receives the positions of a settle and its completion.
+     */
+    interface Listener {
+        /**
+         * Called on every animation frame with the new top of the sheet.
+         *
+         * @param top Top of the sheet
+         */
+        void onSettleUpdate(float top);
+
+        /**
+         * Called once the sheet reached the target of the settle. Not called when the settle is
+         * cancelled or retargeted.
+         *
+         * @param state The state the sheet settled in
+         */
+        void onSettleEnd(int state);
+    }
+
+    // Provides the time of the settles when not coordinated, created on the first one
+    private AnimatorValue mAnimator;
+
+    private final Listener mListener;
+
+    // Coordinator of the next settles, null to use the animator
+    private SheetCoordinator mCoordinator;
+
+    // Coordinator driving the settle in flight, null when the animator drives it
+    private SheetCoordinator mDriver;
+
+    // Trajectory of the current settle
+    private final SettleMotion mMotion = new SettleMotion();
+
+    private int mTargetState;
+
+    // Whether a settle is in flight; cleared before cancelling so late callbacks are ignored
+    private boolean mRunning;
+
+    SettleAnimator(Listener listener) {
+        mListener = listener;
+    }
+
+    // creates the animator and its listeners
+    private AnimatorValue getAnimator() {
+        if (mAnimator != null) {
+            return mAnimator;
+        }
+        mAnimator = new AnimatorValue();
+        mAnimator.setLoopedCount(0);
+        mAnimator.setCurveType(Animator.CurveType.LINEAR);
+        mAnimator.setValueUpdateListener((animatorValue, v) -> {
+            if (mRunning) {
+                mListener.onSettleUpdate(mMotion.getPosition(v * mMotion.getDuration()));
+            }
+        });
+        mAnimator.setStateChangedListener(new Animator.StateChangedListener() {
+            @Override
+            public void onStart(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onStop(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onCancel(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onEnd(Animator animator) {
+                finish();
+            }
+
+            @Override
+            public void onPause(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onResume(Animator animator) {
+                // Do nothing
+            }
+        });
+        return mAnimator;
+    }
+
+    /**
+     * Sets the coordinator which provides the time of the next settles. The settle in flight, if
+     * any, ends on the clock it started with.
+     *
+     * @param coordinator The coordinator, or null to use the animator of this sheet
+     */
+    void setCoordinator(SheetCoordinator coordinator) {
+        mCoordinator = coordinator;
+    }
+
+    /**
+     * Returns the motion followed by the next settle, to be set up before {@link #start(int)}.
+     *
+     * @return the reusable motion of this animator
+     */
+    SettleMotion getMotion() {
+        return mMotion;
+    }
+
+    /**
+     * Starts a settle along the motion, replacing the one in flight if any.
+     *
+     * @param state The state to report once the sheet arrives
+     */
+    void start(int state) {
+        cancel();
+        mTargetState = state;
+        mRunning = true;
+        mDriver = mCoordinator;
+        if (mDriver != null) {
+            mDriver.startSettle(this);
+        } else {
+            AnimatorValue animator = getAnimator();
+            animator.setDuration(mMotion.getDuration());
+            animator.start();
+        }
+    }
+
+    /**
+     * Stops the settle in flight, leaving the sheet where it is. No end callback is delivered.
+     */
+    void cancel() {
+        if (mRunning) {
+            mRunning = false;
+            if (mDriver != null) {
+                mDriver.cancelSettle(this);
+            } else {
+                mAnimator.cancel();
+            }
+        }
+    }
+
+    /**
+     * Returns the state reported once the settle in flight arrives.
+     *
+     * @return target state of the last settle
+     */
+    int getTargetState() {
+        return mTargetState;
+    }
+
+    /**
+     * Returns whether a settle is in flight.
+     *
+     * @return true while the sheet is settling
+     */
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    /**
+     * Moves the sheet to its position at a time of the settle, for a coordinator.
+     *
+     * @param elapsedMillis Time since the start of the settle
+     * @return true once the sheet is at the target, to be reported with {@link #arrive()}
+     */
+    boolean advance(float elapsedMillis) {
+        if (elapsedMillis >= mMotion.getDuration()) {
+            mListener.onSettleUpdate(mMotion.getTarget());
+            return true;
+        }
+        mListener.onSettleUpdate(mMotion.getPosition(elapsedMillis));
+        return false;
+    }
+
+    /**
+     * Reports the target state of a settle which {@link #advance(float)} moved to the target.
+     */
+    void arrive() {
+        if (mRunning) {
+            mRunning = false;
+            mListener.onSettleEnd(mTargetState);
+        }
+    }
+
+    // applies the final position and reports the target state
+    private void finish() {
+        if (!mRunning) {
+            return;
+        }
+        mRunning = false;
+        mListener.onSettleUpdate(mMotion.getTarget());
+        mListener.onSettleEnd(mTargetState);
+    }
+}
@@ -0,0 +1,308 @@
+package com.hardsoftstudio.anchorsheetlayout;
+
+import ohos.agp.animation.Animator;
+import ohos.agp.animation.AnimatorValue;
+import org.jetbrains.annotations.NotNull;
+import java.util.Arrays;
+
+/**
+ * SheetCoordinator drives the settles of several AnchorSheetLayouts stacked on one screen from a
+ * single animator. On every frame all the settling sheets are moved first, then the sheets which
+ * arrived report their state, so the sheets of a frame are laid out together and the callbacks
+ * see every sheet at its new position. Rules added to the coordinator react to the state of one
+ * sheet by moving the others, e.g. {@link #collapseOthersOnExpand()}.
+ */
+public class SheetCoordinator {
+
+    /**
+     * Reacts to the state of a registered sheet, e.g. by setting the state of the others.
+     */
+    public interface Rule {
+        /**
+         * Called when a registered sheet changes its state. A sheet which starts settling is
+         * reported with the state it settles to.
+         *
+         * @param coordinator The coordinator of the sheet
+         * @param sheet       The sheet
+         * @param state       The new state of the sheet, or the state it settles to
+         */
+        void onSheetStateChanged(@NotNull SheetCoordinator coordinator, @NotNull AnchorSheetLayout sheet,
+                                 @AnchorSheetLayout.State int state);
+    }
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Collapses the sheets resting above their peek height when another one expands
+    private static final Rule COLLAPSE_OTHERS_ON_EXPAND = (coordinator, sheet, state) -> {
+        if (state != AnchorSheetLayout.STATE_EXPANDED) {
+            return;
+        }
+        for (AnchorSheetLayout other : coordinator.mSheets) {
+            if (other == sheet || other.getState() == AnchorSheetLayout.STATE_DRAGGING) {
+                continue;
+            }
+            int resting = other.getRestingState();
+            if (resting == AnchorSheetLayout.STATE_EXPANDED || resting == AnchorSheetLayout.STATE_ANCHOR) {
+                other.setState(AnchorSheetLayout.STATE_COLLAPSED);
+            }
+        }
+    };
+
+    // Provides the time of every settle
+    private final AnimatorValue mTicker = new AnimatorValue();
+
+    private AnchorSheetLayout[] mSheets = new AnchorSheetLayout[0];
+    private Rule[] mRules = new Rule[0];
+
+    // Settles in flight, and the time at which each started
+    private SettleAnimator[] mSettles = new SettleAnimator[INITIAL_CAPACITY];
+    private float[] mStarts = new float[INITIAL_CAPACITY];
+    private int mSettleCount;
+
+    // Settles which reached their target in the current frame
+    private SettleAnimator[] mArrived = new SettleAnimator[INITIAL_CAPACITY];
+
+    // Time of the last frame, in milliseconds since the ticker started with no settle in flight
+    private float mNow;
+
+    // Time of the last start of the ticker
+    private float mTickerStart;
+
+    /**
+     * Creates a coordinator without sheets or rules.
+     */
+    public SheetCoordinator() {
+        mTicker.setLoopedCount(0);
+        mTicker.setCurveType(Animator.CurveType.LINEAR);
+        mTicker.setValueUpdateListener((animatorValue, v) -> onFrame(mTickerStart + v * mTicker.getDuration()));
+        mTicker.setStateChangedListener(new Animator.StateChangedListener() {
+            @Override
+            public void onStart(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onStop(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onCancel(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onEnd(Animator animator) {
+                if (mSettleCount > 0) {
+                    // a settle started late runs past the ticker
+                    startTicker();
+                }
+            }
+
+            @Override
+            public void onPause(Animator animator) {
+                // Do nothing
+            }
+
+            @Override
+            public void onResume(Animator animator) {
+                // Do nothing
+            }
+        });
+    }
+
+    /**
+     * Returns a rule which collapses the sheets resting expanded or at the anchor when another
+     * sheet expands. Sheets which are hidden, collapsed or dragged are left alone.
+     *
+     * @return the rule
+     */
+    public static Rule collapseOthersOnExpand() {
+        return COLLAPSE_OTHERS_ON_EXPAND;
+    }
+
+    /**
+     * Registers a sheet, whose next settles are driven by this coordinator. A settle in flight
+     * ends on the clock it started with.
+     *
+     * @param sheet The sheet to register
+     * @throws IllegalArgumentException if the sheet is registered with another coordinator
+     */
+    public void register(@NotNull AnchorSheetLayout sheet) {
+        SheetCoordinator coordinator = sheet.getCoordinator();
+        if (coordinator == this) {
+            return;
+        }
+        if (coordinator != null) {
+            throw new IllegalArgumentException("The sheet is registered with another coordinator");
+        }
+        mSheets = Arrays.copyOf(mSheets, mSheets.length + 1);
+        mSheets[mSheets.length - 1] = sheet;
+        sheet.setCoordinator(this);
+    }
+
+    /**
+     * Unregisters a sheet, which then settles on its own. A settle in flight is still driven by
+     * this coordinator until it ends.
+     *
+     * @param sheet The sheet to unregister
+     */
+    public void unregister(@NotNull AnchorSheetLayout sheet) {
+        for (int i = 0; i < mSheets.length; i++) {
+            if (mSheets[i] == sheet) {
+                AnchorSheetLayout[] sheets = new AnchorSheetLayout[mSheets.length - 1];
+                System.arraycopy(mSheets, 0, sheets, 0, i);
+                System.arraycopy(mSheets, i + 1, sheets, i, sheets.length - i);
+                mSheets = sheets;
+                sheet.setCoordinator(null);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of registered sheets.
+     *
+     * @return count of sheets
+     */
+    public int getSheetCount() {
+        return mSheets.length;
+    }
+
+    /**
+     * Returns a registered sheet.
+     *
+     * @param index Index of the sheet, in the order of registration
+     * @return the sheet
+     */
+    public AnchorSheetLayout getSheet(int index) {
+        return mSheets[index];
+    }
+
+    /**
+     * Adds a rule, applied to every state change of the registered sheets.
+     *
+     * @param rule The rule to add
+     */
+    public void addRule(@NotNull Rule rule) {
+        removeRule(rule);
+        mRules = Arrays.copyOf(mRules, mRules.length + 1);
+        mRules[mRules.length - 1] = rule;
+    }
+
+    /**
+     * Removes a rule.
+     *
+     * @param rule The rule to remove
+     */
+    public void removeRule(@NotNull Rule rule) {
+        for (int i = 0; i < mRules.length; i++) {
+            if (mRules[i] == rule) {
+                Rule[] rules = new Rule[mRules.length - 1];
+                System.arraycopy(mRules, 0, rules, 0, i);
+                System.arraycopy(mRules, i + 1, rules, i, rules.length - i);
+                mRules = rules;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns whether a settle of a registered sheet is in flight.
+     *
+     * @return true while a registered sheet settles
+     */
+    public boolean isSettling() {
+        return mSettleCount > 0;
+    }
+
+    // applies the rules to a state change of a registered sheet
+    void onSheetStateChanged(AnchorSheetLayout sheet, int state) {
+        for (Rule rule : mRules) {
+            rule.onSheetStateChanged(this, sheet, state);
+        }
+    }
+
+    // adds a settle, which starts at the time of the last frame
+    void startSettle(SettleAnimator settle) {
+        if (mSettleCount == 0 && !mTicker.isRunning()) {
+            mNow = 0;
+        }
+        if (mSettleCount == mSettles.length) {
+            int capacity = mSettles.length * 2;
+            mSettles = Arrays.copyOf(mSettles, capacity);
+            mStarts = Arrays.copyOf(mStarts, capacity);
+            mArrived = Arrays.copyOf(mArrived, capacity);
+        }
+        mSettles[mSettleCount] = settle;
+        mStarts[mSettleCount] = mNow;
+        mSettleCount++;
+        if (!mTicker.isRunning()) {
+            startTicker();
+        }
+    }
+
+    // removes a settle, stopping the ticker once none is left
+    void cancelSettle(SettleAnimator settle) {
+        int index = indexOf(settle);
+        if (index >= 0) {
+            removeSettle(index);
+            if (mSettleCount == 0) {
+                mTicker.cancel();
+            }
+        }
+    }
+
+    // runs the ticker until the end of the longest settle in flight
+    private void startTicker() {
+        float remaining = 1f;
+        for (int i = 0; i < mSettleCount; i++) {
+            remaining = Math.max(remaining, mStarts[i] + mSettles[i].getMotion().getDuration() - mNow);
+        }
+        mTickerStart = mNow;
+        mTicker.setDuration((long) Math.ceil(remaining));
+        mTicker.start();
+    }
+
+    // moves every sheet, then reports the arrivals
+    private void onFrame(float now) {
+        mNow = now;
+        int arrived = 0;
+        for (int i = 0; i < mSettleCount;) {
+            SettleAnimator settle = mSettles[i];
+            if (settle.advance(now - mStarts[i])) {
+                mArrived[arrived++] = settle;
+                removeSettle(i);
+            } else {
+                i++;
+            }
+        }
+        for (int i = 0; i < arrived; i++) {
+            SettleAnimator settle = mArrived[i];
+            mArrived[i] = null;
+            if (indexOf(settle) < 0) {
+                // not restarted by the arrival of another sheet
+                settle.arrive();
+            }
+        }
+        if (mSettleCount == 0) {
+            mTicker.cancel();
+        }
+    }
+
+    private int indexOf(SettleAnimator settle) {
+        for (int i = 0; i < mSettleCount; i++) {
+            if (mSettles[i] == settle) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeSettle(int index) {
+        mSettleCount--;
+        System.arraycopy(mSettles, index + 1, mSettles, index, mSettleCount - index);
+        System.arraycopy(mStarts, index + 1, mStarts, index, mSettleCount - index);
+        mSettles[mSettleCount] = null;
+    }
+}